@@ -0,0 +1,19 @@
+package app.archive.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// The append-only tables whose old rows move to a cold archive table with the same columns plus archived_on
+@Getter
+@AllArgsConstructor
+public enum ArchiveTable {
+
+    HACK("hack", "hack_archive", "id, attacker_id, defender_id, credits, status, created_on"),
+    TRANSACTION("transaction", "transaction_archive", "id, user_id, transaction_type, credits, description, created_on");
+
+    private final String hotTable;
+
+    private final String archiveTable;
+
+    private final String columns;
+}
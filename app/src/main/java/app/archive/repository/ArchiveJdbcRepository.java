@@ -0,0 +1,169 @@
+package app.archive.repository;
+
+import app.archive.model.ArchiveTable;
+import app.credit.model.Credits;
+import app.hack.model.HackHistoryEntry;
+import app.hack.model.HackStatus;
+import app.transaction.model.TransactionFeedEntry;
+import app.transaction.model.TransactionType;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+// Cold tier for hack and transaction rows past the retention window. The archive tables are plain JDBC rather
+// than entities: they have no foreign keys and only the indexes the history and feed pages need, and on
+// PostgreSQL they are range-partitioned by month on created_on, so a whole month can be detached or dropped.
+@Slf4j
+@Repository
+public class ArchiveJdbcRepository {
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("'y'yyyy'm'MM");
+
+    private static final RowMapper<HackHistoryEntry> HISTORY_ENTRY = (rs, row) -> new HackHistoryEntry(
+            rs.getObject("id", UUID.class), rs.getString("username"), credits(rs),
+            HackStatus.valueOf(rs.getString("status")), rs.getTimestamp("created_on").toLocalDateTime(),
+            rs.getBoolean("attacking"));
+
+    private static final RowMapper<TransactionFeedEntry> FEED_ENTRY = (rs, row) -> new TransactionFeedEntry(
+            rs.getObject("id", UUID.class), rs.getString("username"), TransactionType.valueOf(rs.getString("transaction_type")),
+            credits(rs), rs.getString("description"), rs.getTimestamp("created_on").toLocalDateTime());
+
+    // Same keyset predicates and order as the hot-tier queries in HackRepository and TransactionRepository
+    private static final String HISTORY_SQL = """
+            select * from (
+                select h.id, p.username, h.credits, h.status, h.created_on, true as attacking
+                from hack_archive h join players p on p.id = h.defender_id
+                where h.attacker_id = ? and (h.created_on < ? or (h.created_on = ? and h.id < ?))
+                union all
+                select h.id, p.username, h.credits, h.status, h.created_on, false as attacking
+                from hack_archive h join players p on p.id = h.attacker_id
+                where h.defender_id = ? and (h.created_on < ? or (h.created_on = ? and h.id < ?))
+            ) history
+            order by created_on desc, id desc
+            limit ?
+            """;
+
+    private static final String FEED_COLUMNS = "select t.id, p.username, t.transaction_type, t.credits, t.description, t.created_on "
+            + "from transaction_archive t join players p on p.id = t.user_id ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean postgres;
+
+    @Autowired
+    public ArchiveJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void createTables() {
+        String key = isPostgres() ? "primary key (id, created_on)" : "primary key (id)";  // Partitioned tables need the partition key in the primary key
+        String partitioning = isPostgres() ? " partition by range (created_on)" : "";
+        jdbcTemplate.execute("create table if not exists hack_archive (id uuid not null, attacker_id uuid, defender_id uuid, "
+                + "credits bigint, status varchar(255), created_on timestamp(6) not null, archived_on timestamp(6) not null, "
+                + key + ")" + partitioning);
+        jdbcTemplate.execute("create table if not exists transaction_archive (id uuid not null, user_id uuid, transaction_type varchar(255), "
+                + "credits bigint, description varchar(255), created_on timestamp(6) not null, archived_on timestamp(6) not null, "
+                + key + ")" + partitioning);
+        jdbcTemplate.execute("create index if not exists idx_hack_archive_attacker_created_on on hack_archive (attacker_id, created_on, id)");
+        jdbcTemplate.execute("create index if not exists idx_hack_archive_defender_created_on on hack_archive (defender_id, created_on, id)");
+        jdbcTemplate.execute("create index if not exists idx_transaction_archive_created_on on transaction_archive (created_on, id)");
+    }
+
+    // PostgreSQL only: creates the monthly partitions covering from..to, so rows moved in always have a home
+    public void ensurePartitions(ArchiveTable table, LocalDateTime from, LocalDateTime to) {
+        if (!isPostgres()) {
+            return;
+        }
+        for (YearMonth month = YearMonth.from(from); !month.isAfter(YearMonth.from(to)); month = month.plusMonths(1)) {
+            jdbcTemplate.execute("create table if not exists %s_%s partition of %s for values from ('%s') to ('%s')".formatted(
+                    table.getArchiveTable(), month.format(PARTITION_SUFFIX), table.getArchiveTable(),
+                    month.atDay(1), month.plusMonths(1).atDay(1)));
+        }
+    }
+
+    public LocalDateTime findOldestBefore(ArchiveTable table, LocalDateTime cutoff) {
+        Timestamp oldest = jdbcTemplate.queryForObject("select min(created_on) from %s where created_on < ?".formatted(table.getHotTable()),
+                Timestamp.class, Timestamp.valueOf(cutoff));
+        return oldest == null ? null : oldest.toLocalDateTime();
+    }
+
+    // Oldest first, so the archive always holds a prefix of the history in (created_on, id) order
+    public List<UUID> findIdsBefore(ArchiveTable table, LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.queryForList("select id from %s where created_on < ? order by created_on, id limit ?".formatted(table.getHotTable()),
+                UUID.class, Timestamp.valueOf(cutoff), limit);
+    }
+
+    // Copies the rows into the archive and deletes them from the hot table; call inside a transaction
+    public int move(ArchiveTable table, List<UUID> ids, LocalDateTime archivedOn) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String in = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        Object[] copyArgs = new Object[ids.size() + 1];
+        copyArgs[0] = Timestamp.valueOf(archivedOn);
+        System.arraycopy(ids.toArray(), 0, copyArgs, 1, ids.size());
+        int copied = jdbcTemplate.update("insert into %s (%s, archived_on) select %s, ? from %s where id in (%s)".formatted(
+                table.getArchiveTable(), table.getColumns(), table.getColumns(), table.getHotTable(), in), copyArgs);
+        int deleted = jdbcTemplate.update("delete from %s where id in (%s)".formatted(table.getHotTable(), in), ids.toArray());
+        if (copied != deleted) {
+            throw new IllegalStateException("Archived %d %s rows but deleted %d".formatted(copied, table.getHotTable(), deleted));
+        }
+        return deleted;
+    }
+
+    public List<HackHistoryEntry> findHistoryBefore(UUID userId, LocalDateTime createdOn, UUID id, int limit) {
+        Timestamp before = Timestamp.valueOf(createdOn);
+        return jdbcTemplate.query(HISTORY_SQL, HISTORY_ENTRY, userId, before, before, id, userId, before, before, id, limit);
+    }
+
+    public List<TransactionFeedEntry> findFeedBefore(LocalDateTime createdOn, UUID id, int limit) {
+        Timestamp before = Timestamp.valueOf(createdOn);
+        return jdbcTemplate.query(FEED_COLUMNS + "where t.created_on < ? or (t.created_on = ? and t.id < ?) order by t.created_on desc, t.id desc limit ?",
+                FEED_ENTRY, before, before, id, limit);
+    }
+
+    // Rows are read from a cursor in batches where the driver supports it; call inside a transaction
+    public void streamFeed(Consumer<TransactionFeedEntry> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(FEED_COLUMNS + "order by t.created_on desc, t.id desc");
+            statement.setFetchSize(500);
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(FEED_ENTRY.mapRow(rs, rs.getRow())));
+    }
+
+    public long count(ArchiveTable table) {
+        Long rows = jdbcTemplate.queryForObject("select count(*) from " + table.getArchiveTable(), Long.class);
+        return rows == null ? 0 : rows;
+    }
+
+    // Milli-credits, like the credits columns of the hot tables; null for defended hacks
+    private static Credits credits(ResultSet rs) throws SQLException {
+        long milli = rs.getLong("credits");
+        return rs.wasNull() ? null : Credits.ofMilli(milli);
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            postgres = "PostgreSQL".equals(product);
+        }
+        return postgres;
+    }
+}
@@ -0,0 +1,71 @@
+package app.archive.service;
+
+import app.archive.model.ArchiveTable;
+import app.archive.repository.ArchiveJdbcRepository;
+import app.metrics.GameMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+// Moves hack and transaction rows older than the retention window to the archive tables. Rows go oldest first,
+// one batch per transaction, so every archived row sorts before every hot row and the read paths can simply
+// continue into the archive once the hot table runs out. A run that dies part way leaves nothing half-moved, and
+// a run stops after maxBatches, so a large backlog is worked off over several scheduled runs instead of one.
+@Slf4j
+@Service
+public class ArchiveService {
+
+    private final ArchiveJdbcRepository archiveJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final GameMetrics gameMetrics;
+    private final Duration retention;
+    private final int batchSize;
+    private final int maxBatches;
+
+    @Autowired
+    public ArchiveService(ArchiveJdbcRepository archiveJdbcRepository,
+                          PlatformTransactionManager transactionManager,
+                          GameMetrics gameMetrics,
+                          @Value("${app.archive.retention-days:90}") int retentionDays,
+                          @Value("${app.archive.batch-size:1000}") int batchSize,
+                          @Value("${app.archive.max-batches-per-run:100}") int maxBatches) {
+        this.archiveJdbcRepository = archiveJdbcRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.gameMetrics = gameMetrics;
+        this.retention = Duration.ofDays(retentionDays);
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+    }
+
+    // Returns the number of rows moved
+    public long archive(ArchiveTable table, LocalDateTime now) {
+        LocalDateTime cutoff = now.minus(retention);
+        LocalDateTime oldest = archiveJdbcRepository.findOldestBefore(table, cutoff);
+        if (oldest == null) {
+            return 0;
+        }
+        archiveJdbcRepository.ensurePartitions(table, oldest, cutoff);
+
+        long moved = 0;
+        int batches = 0;
+        int batch;
+        do {
+            Integer rows = transactionTemplate.execute(status -> {
+                List<UUID> ids = archiveJdbcRepository.findIdsBefore(table, cutoff, batchSize);
+                return archiveJdbcRepository.move(table, ids, now);
+            });
+            batch = rows == null ? 0 : rows;
+            moved += batch;
+            gameMetrics.recordArchived(table, batch);
+        } while (batch == batchSize && ++batches < maxBatches);
+        return moved;
+    }
+}
@@ -0,0 +1,165 @@
+package app.chatMessage.client;
+
+import app.exception.DomainException;
+import app.web.dto.Message;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+// Non-blocking client for the chat microservice. Calls go out on the JDK HttpClient, which keeps a pool of
+// connections to the backend and completes the returned futures from its own threads, so no request thread
+// waits on the round-trip. Every call has a timeout, at most maxConcurrentCalls are in flight at once (a call
+// over the limit fails straight away instead of queueing), and a circuit breaker stops calling a backend that
+// keeps failing. Failed calls complete exceptionally with a DomainException, or a ChatRejectedException when
+// the backend refused the request itself; a refusal proves the backend is up, so it does not count against the breaker.
+@Slf4j
+@Component
+public class ChatGateway {
+
+    private static final TypeReference<List<Message>> MESSAGES = new TypeReference<>() {};
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final URI uri;
+    private final Duration requestTimeout;
+    private final Semaphore bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final Counter succeeded;
+    private final Counter failed;
+    private final Counter rejected;
+    private final Counter shortCircuited;
+    private final Counter refused;
+
+    public ChatGateway(ObjectMapper objectMapper,
+                       MeterRegistry meterRegistry,
+                       String url,
+                       long connectTimeoutMillis,
+                       long requestTimeoutMillis,
+                       int maxConcurrentCalls,
+                       int failureThreshold,
+                       long openMillis) {
+        this(objectMapper, meterRegistry, url, connectTimeoutMillis, requestTimeoutMillis, maxConcurrentCalls, failureThreshold, openMillis, false);
+    }
+
+    @Autowired
+    public ChatGateway(ObjectMapper objectMapper,
+                       MeterRegistry meterRegistry,
+                       @Value("${app.chat.url}") String url,
+                       @Value("${app.chat.connect-timeout-millis:1000}") long connectTimeoutMillis,
+                       @Value("${app.chat.request-timeout-millis:2000}") long requestTimeoutMillis,
+                       @Value("${app.chat.max-concurrent-calls:20}") int maxConcurrentCalls,
+                       @Value("${app.chat.breaker.failure-threshold:5}") int failureThreshold,
+                       @Value("${app.chat.breaker.open-millis:30000}") long openMillis,
+                       @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        HttpClient.Builder builder = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(connectTimeoutMillis));
+        // The client completes responses on its executor, a cached pool of platform threads unless told otherwise
+        if (virtualThreads && JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE)) {
+            builder.executor(new VirtualThreadTaskExecutor("chat-"));
+        }
+        this.httpClient = builder.build();
+        this.objectMapper = objectMapper;
+        this.uri = URI.create(url);
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMillis);
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openMillis);
+        this.succeeded = meterRegistry.counter("chat.calls", "outcome", "success");
+        this.failed = meterRegistry.counter("chat.calls", "outcome", "failure");
+        this.rejected = meterRegistry.counter("chat.calls", "outcome", "rejected");
+        this.shortCircuited = meterRegistry.counter("chat.calls", "outcome", "short_circuited");
+        this.refused = meterRegistry.counter("chat.calls", "outcome", "refused");
+        meterRegistry.gauge("chat.breaker.open", circuitBreaker, breaker -> breaker.getState() == CircuitBreaker.State.CLOSED ? 0 : 1);
+    }
+
+    public CompletableFuture<List<Message>> fetchMessages() {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri).GET().header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE);
+        return call(request, body -> objectMapper.readValue(body, MESSAGES));
+    }
+
+    public CompletableFuture<Void> send(Message message) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(message);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(new DomainException("Chat message could not be serialized.", e));
+        }
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(json))
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        return call(request, body -> null);
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    // The bulkhead is taken first so a refused call never holds the breaker's half-open trial
+    private <T> CompletableFuture<T> call(HttpRequest.Builder request, BodyReader<T> reader) {
+        if (!bulkhead.tryAcquire()) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(new DomainException("Chat service is busy, please try again."));
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            bulkhead.release();
+            shortCircuited.increment();
+            return CompletableFuture.failedFuture(new DomainException("Chat service is unavailable, please try again later."));
+        }
+        return httpClient.sendAsync(request.timeout(requestTimeout).build(), HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> {
+                    if (isRefusal(response.statusCode())) {
+                        throw new ChatRejectedException("Chat service refused the request with status [%d].".formatted(response.statusCode()));
+                    }
+                    if (response.statusCode() / 100 != 2) {
+                        throw new DomainException("Chat service answered with status [%d].".formatted(response.statusCode()));
+                    }
+                    try {
+                        return reader.read(response.body());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })
+                .whenComplete((result, error) -> {
+                    bulkhead.release();
+                    if (error == null) {
+                        circuitBreaker.onSuccess();
+                        succeeded.increment();
+                    } else if (error.getCause() instanceof ChatRejectedException) {
+                        circuitBreaker.onSuccess();
+                        refused.increment();
+                        log.warn("Chat service refused a call: " + error.getCause().getMessage());
+                    } else {
+                        circuitBreaker.onFailure();
+                        failed.increment();
+                        log.warn("Chat service call failed: " + error.getMessage());
+                    }
+                });
+    }
+
+    private static boolean isRefusal(int status) {
+        return status / 100 == 4 && status != 408 && status != 429;
+    }
+
+    @FunctionalInterface
+    private interface BodyReader<T> {
+        T read(byte[] body) throws IOException;
+    }
+}
@@ -0,0 +1,11 @@
+package app.chatMessage.client;
+
+import app.exception.DomainException;
+
+// The chat service answered but refused the request itself (a 4xx other than 408/429), so sending it again won't help
+public class ChatRejectedException extends DomainException {
+
+    public ChatRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,57 @@
+package app.chatMessage.client;
+
+import java.util.function.LongSupplier;
+
+// Closed until failureThreshold calls in a row fail, then open: calls are refused without touching the backend
+// for openMillis. After that a single trial call is let through, and its outcome closes or re-opens the breaker.
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+
+    private State state = State.CLOSED;
+    private int failures;
+    private long openedAt;
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this(failureThreshold, openMillis, System::nanoTime);
+    }
+
+    public CircuitBreaker(int failureThreshold, long openMillis, LongSupplier nanoClock) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openMillis * 1_000_000;
+        this.nanoClock = nanoClock;
+    }
+
+    // A true result must be followed by exactly one onSuccess or onFailure
+    public synchronized boolean tryAcquire() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.OPEN && nanoClock.getAsLong() - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+            return true;
+        }
+        return false;
+    }
+
+    public synchronized void onSuccess() {
+        state = State.CLOSED;
+        failures = 0;
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN || ++failures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = nanoClock.getAsLong();
+            failures = 0;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
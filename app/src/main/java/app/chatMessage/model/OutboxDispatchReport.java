@@ -0,0 +1,20 @@
+package app.chatMessage.model;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class OutboxDispatchReport {
+
+    private final int delivered;
+
+    private final int rejected;
+
+    // Left in the outbox for the next run: the chat service timed out, failed or was short-circuited
+    private final int failed;
+
+    public boolean isEmpty() {
+        return delivered + rejected + failed == 0;
+    }
+}
@@ -0,0 +1,39 @@
+package app.chatMessage.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "chat_outbox", indexes = @Index(name = "idx_chat_outbox_created_on", columnList = "created_on, id"))
+public class OutboxMessage {
+
+    public static final int MAX_MESSAGE_LENGTH = 1000;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false)
+    private String author;
+
+    @Column(nullable = false, length = MAX_MESSAGE_LENGTH)
+    private String message;
+
+    // When the player wrote it; delivered as the message's sentAt, however late the delivery is
+    @Column(nullable = false)
+    private LocalDateTime sentAt;
+
+    @Column(nullable = false)
+    private LocalDateTime createdOn;
+
+    // Set when the chat service refused the message itself; the row is kept but no longer delivered
+    private LocalDateTime rejectedOn;
+}
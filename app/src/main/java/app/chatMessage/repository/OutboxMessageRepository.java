@@ -0,0 +1,30 @@
+package app.chatMessage.repository;
+
+import app.chatMessage.model.OutboxMessage;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, UUID> {
+
+    // Oldest first over (created_on, id), so a backlog drains in the order it was written
+    @Query("select m from OutboxMessage m where m.rejectedOn is null order by m.createdOn, m.id")
+    List<OutboxMessage> findPending(Limit limit);
+
+    long countByRejectedOnIsNull();
+
+    @Transactional
+    @Modifying
+    @Query("update OutboxMessage m set m.rejectedOn = :now where m.id in :ids")
+    int markRejected(@Param("ids") Collection<UUID> ids, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,118 @@
+package app.chatMessage.service;
+
+import app.chatMessage.client.ChatGateway;
+import app.web.dto.Message;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+// The most recent chat messages, oldest first, in a fixed-size ring buffer shared by every browser. Only
+// refresh() talks to the chat service, so upstream traffic depends on the poll interval and the number of
+// messages sent, never on how many players have the darknet page open.
+@Slf4j
+@Component
+public class ChatMessageCache {
+
+    private static final Comparator<Message> OLDEST_FIRST = Comparator.comparing(Message::getSentAt, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final ChatGateway chatGateway;
+    private final Message[] ring;
+    private int head;
+    private int size;
+    private final AtomicReference<CompletableFuture<Integer>> inFlight = new AtomicReference<>();
+
+    @Autowired
+    public ChatMessageCache(ChatGateway chatGateway, @Value("${app.chat.cache-size:200}") int capacity) {
+        this.chatGateway = chatGateway;
+        this.ring = new Message[capacity];
+    }
+
+    // Messages sent after the cursor, oldest first; a null cursor returns everything cached
+    public synchronized List<Message> after(LocalDateTime after) {
+        List<Message> messages = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Message message = ring[(head + i) % ring.length];
+            if (after == null || (message.getSentAt() != null && message.getSentAt().isAfter(after))) {
+                messages.add(message);
+            }
+        }
+        return messages;
+    }
+
+    // Pulls the remote list and appends whatever is newer than the cache. Callers that ask while a refresh is
+    // running share it. Completes with the number of messages added, and with 0 when the chat service fails,
+    // in which case the cached messages keep being served.
+    public CompletableFuture<Integer> refresh() {
+        CompletableFuture<Integer> mine = new CompletableFuture<>();
+        CompletableFuture<Integer> running = inFlight.compareAndExchange(null, mine);
+        if (running != null) {
+            return running;
+        }
+        chatGateway.fetchMessages()
+                .thenApply(this::merge)
+                .exceptionally(error -> {
+                    log.warn("Chat refresh failed, serving cached messages: " + error.getMessage());
+                    return 0;
+                })
+                .thenAccept(added -> {
+                    inFlight.set(null);
+                    mine.complete(added);
+                });
+        return mine;
+    }
+
+    synchronized int merge(List<Message> remote) {
+        if (remote == null) {
+            return 0;
+        }
+        List<Message> sorted = new ArrayList<>(remote);
+        sorted.sort(OLDEST_FIRST);
+        int added = 0;
+        for (Message message : sorted) {
+            if (isNew(message)) {
+                append(message);
+                added++;
+            }
+        }
+        return added;
+    }
+
+    // Newer than the newest cached message, or from the same instant but not cached yet
+    private boolean isNew(Message message) {
+        if (size == 0) {
+            return true;
+        }
+        Message newest = ring[(head + size - 1) % ring.length];
+        int order = OLDEST_FIRST.compare(message, newest);
+        if (order != 0) {
+            return order > 0;
+        }
+        for (int i = size - 1; i >= 0; i--) {
+            Message cached = ring[(head + i) % ring.length];
+            if (OLDEST_FIRST.compare(cached, message) != 0) {
+                return true;
+            }
+            if (cached.equals(message)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void append(Message message) {
+        if (size < ring.length) {
+            ring[(head + size++) % ring.length] = message;
+        } else {
+            ring[head] = message;
+            head = (head + 1) % ring.length;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package app.chatMessage.service;
+
+import app.web.dto.Message;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+@Slf4j
+@Service
+public class ChatMessageService {
+    private final ChatOutboxService chatOutboxService;
+    private final ChatMessageCache chatMessageCache;
+
+    @Autowired
+    public ChatMessageService(ChatOutboxService chatOutboxService, ChatMessageCache chatMessageCache) {
+        this.chatOutboxService = chatOutboxService;
+        this.chatMessageCache = chatMessageCache;
+    }
+
+    // Only writes the message to the outbox; ChatOutboxDispatch delivers it and the poller brings it back into the cache
+    public void sendMessage(String author, String message) {
+        log.info("Queueing message from " + author);
+        chatOutboxService.enqueue(author, message);
+    }
+
+    // Served from the cache; the chat service itself is only called by the poller
+    public List<Message> getMessages(LocalDateTime after) {
+        return chatMessageCache.after(after);
+    }
+}
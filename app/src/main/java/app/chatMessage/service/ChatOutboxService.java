@@ -0,0 +1,148 @@
+package app.chatMessage.service;
+
+import app.chatMessage.client.ChatGateway;
+import app.chatMessage.client.ChatRejectedException;
+import app.chatMessage.model.OutboxDispatchReport;
+import app.chatMessage.model.OutboxMessage;
+import app.chatMessage.repository.OutboxMessageRepository;
+import app.exception.DomainException;
+import app.web.dto.Message;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Outgoing chat messages are written to the chat_outbox table and delivered later by the ChatOutboxDispatch
+// job, so posting a message costs one insert and a chat outage only makes the outbox grow. Delivery is at
+// least once: a message whose row could not be deleted after it was sent goes out again on the next run.
+@Slf4j
+@Service
+public class ChatOutboxService {
+
+    private final OutboxMessageRepository outboxMessageRepository;
+    private final ChatGateway chatGateway;
+    private final ChatMessageCache chatMessageCache;
+    private final int batchSize;
+    private final long maxPending;
+    private final long recountMillis;
+    // This node's view of the outbox size: counted at most once per recountMillis, plus what it queued since
+    private final AtomicLong pendingEstimate = new AtomicLong();
+    private volatile long countedAt;
+    private final Counter delivered;
+    private final Counter rejected;
+
+    @Autowired
+    public ChatOutboxService(OutboxMessageRepository outboxMessageRepository,
+                             ChatGateway chatGateway,
+                             ChatMessageCache chatMessageCache,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.chat.outbox.batch-size:10}") int batchSize,
+                             @Value("${app.chat.outbox.max-pending:10000}") long maxPending,
+                             @Value("${app.chat.outbox.recount-millis:1000}") long recountMillis) {
+        this.outboxMessageRepository = outboxMessageRepository;
+        this.chatGateway = chatGateway;
+        this.chatMessageCache = chatMessageCache;
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+        this.recountMillis = recountMillis;
+        this.delivered = meterRegistry.counter("chat.outbox.messages", "outcome", "delivered");
+        this.rejected = meterRegistry.counter("chat.outbox.messages", "outcome", "rejected");
+    }
+
+    // Backpressure: once the chat service has been down long enough for maxPending messages to pile up,
+    // new ones are refused instead of growing the table without bound. The bound is soft - the outbox is
+    // only counted once per recountMillis, so it can overshoot by what every node queues in that time -
+    // which keeps the count off the path of every message.
+    public void enqueue(String author, String message) {
+        if (message == null || message.isBlank()) {
+            throw new InvalidChatMessageException("Message must not be empty.");
+        }
+        if (message.length() > OutboxMessage.MAX_MESSAGE_LENGTH) {
+            throw new InvalidChatMessageException("Message must be at most %d characters.".formatted(OutboxMessage.MAX_MESSAGE_LENGTH));
+        }
+        if (pending() >= maxPending) {
+            throw new DomainException("Chat is busy, please try again in a moment.");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        outboxMessageRepository.save(OutboxMessage.builder()
+                .author(author)
+                .message(message)
+                .sentAt(now)
+                .createdOn(now)
+                .build());
+        pendingEstimate.incrementAndGet();
+    }
+
+    private long pending() {
+        long now = System.currentTimeMillis();
+        if (now - countedAt >= recountMillis) {
+            pendingEstimate.set(outboxMessageRepository.countByRejectedOnIsNull());
+            countedAt = now;
+        }
+        return pendingEstimate.get();
+    }
+
+    // Sends the oldest batch one message at a time, in outbox order. The chat cache and the browsers' ?after=
+    // cursors only ever move forward in sentAt, so a message that landed after a newer one would never be shown;
+    // the first message that fails (and is not refused) therefore ends the batch, and it goes first next run.
+    // Delivered rows are deleted and refused ones parked; anything else stays for the next run.
+    public OutboxDispatchReport dispatchBatch() {
+        List<OutboxMessage> batch = outboxMessageRepository.findPending(Limit.of(batchSize));
+        if (batch.isEmpty()) {
+            return OutboxDispatchReport.builder().build();
+        }
+
+        List<UUID> deliveredIds = new ArrayList<>();
+        List<UUID> rejectedIds = new ArrayList<>();
+        for (OutboxMessage outboxMessage : batch) {
+            Throwable error = chatGateway.send(toMessage(outboxMessage))
+                    .handle((sent, failure) -> failure instanceof CompletionException ? failure.getCause() : failure)
+                    .join();
+            if (error == null) {
+                deliveredIds.add(outboxMessage.getId());
+            } else if (error instanceof ChatRejectedException) {
+                rejectedIds.add(outboxMessage.getId());
+                log.error("Chat service refused message [%s] from [%s], parking it".formatted(outboxMessage.getId(), outboxMessage.getAuthor()));
+            } else {
+                break;
+            }
+        }
+
+        if (!deliveredIds.isEmpty()) {
+            outboxMessageRepository.deleteAllByIdInBatch(deliveredIds);
+            delivered.increment(deliveredIds.size());
+            chatMessageCache.refresh();
+        }
+        if (!rejectedIds.isEmpty()) {
+            outboxMessageRepository.markRejected(rejectedIds, LocalDateTime.now());
+            rejected.increment(rejectedIds.size());
+        }
+        return OutboxDispatchReport.builder()
+                .delivered(deliveredIds.size())
+                .rejected(rejectedIds.size())
+                .failed(batch.size() - deliveredIds.size() - rejectedIds.size())
+                .build();
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    private static Message toMessage(OutboxMessage outboxMessage) {
+        return Message.builder()
+                .author(outboxMessage.getAuthor())
+                .message(outboxMessage.getMessage())
+                .sentAt(outboxMessage.getSentAt())
+                .build();
+    }
+}
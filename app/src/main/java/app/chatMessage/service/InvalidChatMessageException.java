@@ -0,0 +1,11 @@
+package app.chatMessage.service;
+
+import app.exception.DomainException;
+
+// The message itself can't be sent, whatever the state of the chat service; the player has to change it
+public class InvalidChatMessageException extends DomainException {
+
+    public InvalidChatMessageException(String message) {
+        super(message);
+    }
+}
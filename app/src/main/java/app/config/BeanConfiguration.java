@@ -0,0 +1,30 @@
+package app.config;
+
+import app.security.HashingPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+@Configuration
+public class BeanConfiguration {
+
+    // The cost is pinned in the properties. 0 calibrates on startup instead, which only suits a single node:
+    // nodes that calibrate differently would keep rehashing each other's passwords to their own cost.
+    @Bean
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                           @Value("${app.security.hashing.cost:10}") int cost,
+                                           @Value("${app.security.hashing.target-millis:250}") long targetMillis,
+                                           @Value("${app.security.hashing.min-cost:10}") int minCost,
+                                           @Value("${app.security.hashing.max-cost:14}") int maxCost,
+                                           @Value("${app.security.hashing.threads:0}") int threads,
+                                           @Value("${app.security.hashing.queue-capacity:64}") int queueCapacity) {
+
+        int strength = cost > 0 ? cost : HashingPasswordEncoder.calibrateCost(Duration.ofMillis(targetMillis), minCost, maxCost);
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new HashingPasswordEncoder(strength, poolSize, queueCapacity, meterRegistry);
+    }
+}
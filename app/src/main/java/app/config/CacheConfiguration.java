@@ -0,0 +1,64 @@
+package app.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+// Bounded, stats-recording caches. Caffeine evicts with W-TinyLFU once a cache is full, and Actuator
+// publishes hits, misses and evictions for every cache registered here under the cache.* metrics.
+@Configuration
+public class CacheConfiguration {
+
+    public static final String PLAYERS = "players";
+    public static final String PLAYER_ROSTERS = "playerRosters";
+    public static final String PRINCIPALS = "principals";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${app.cache.players.max-size:10000}") long playersMaxSize,
+                                     @Value("${app.cache.players.ttl-seconds:60}") long playersTtlSeconds,
+                                     @Value("${app.cache.principals.max-size:10000}") long principalsMaxSize,
+                                     @Value("${app.cache.principals.ttl-seconds:60}") long principalsTtlSeconds) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // Only the caches below exist; an unknown name is a bug, not a new unbounded cache
+        cacheManager.setCacheNames(List.of());
+        // Writes evict locally; the TTL bounds how long a change made on another instance goes unseen here
+        cacheManager.registerCustomCache(PLAYERS, Caffeine.newBuilder()
+                .maximumSize(playersMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(playersTtlSeconds))
+                .recordStats()
+                .build());
+        // Rosters are built from the players, so registrations, bans and role changes made elsewhere reach them
+        // within the same TTL
+        cacheManager.registerCustomCache(PLAYER_ROSTERS, Caffeine.newBuilder()
+                .maximumSize(8)
+                .expireAfterWrite(Duration.ofSeconds(playersTtlSeconds))
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(PRINCIPALS, Caffeine.newBuilder()
+                .maximumSize(principalsMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(principalsTtlSeconds))
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+
+    // cache.gets{result=hit|miss} comes with Actuator; the ratio saves every dashboard from dividing them
+    @Bean
+    public MeterBinder cacheHitRatios(CacheManager cacheManager) {
+        return registry -> cacheManager.getCacheNames().forEach(name -> {
+            CaffeineCache cache = (CaffeineCache) cacheManager.getCache(name);
+            Gauge.builder("cache.hit.ratio", cache.getNativeCache(), nativeCache -> nativeCache.stats().hitRate())
+                    .tag("cache", name)
+                    .register(registry);
+        });
+    }
+}
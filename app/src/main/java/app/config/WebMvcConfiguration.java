@@ -0,0 +1,106 @@
+package app.config;
+
+import app.security.HashingAuthenticationProvider;
+import app.security.PasswordHashingBusyException;
+import app.user.service.UserService;
+import app.web.CurrentPlayerArgumentResolver;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+@EnableMethodSecurity
+public class WebMvcConfiguration implements WebMvcConfigurer {
+
+    @Autowired
+    private  UserService userService;
+
+    @Autowired
+    private CurrentPlayerArgumentResolver currentPlayerArgumentResolver;
+
+    // Lazy: only a sign-in needs it, and the controller slice tests that load this class have no encoder
+    @Autowired
+    @Lazy
+    private PasswordEncoder passwordEncoder;
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(currentPlayerArgumentResolver);
+    }
+
+
+    // Actuator is scraped by machines that cannot fill in a login form, so it takes HTTP Basic instead.
+    // Health stays open for the platform's probes; metrics and the rest are for admins only.
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorSecurityFilterChain(HttpSecurity http) throws Exception {
+        http
+                .securityMatcher("/actuator/**")
+                .csrf(AbstractHttpConfigurer::disable)
+                .authorizeHttpRequests(matchers -> matchers
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                        .anyRequest().hasRole("ADMIN")
+                )
+                .httpBasic(Customizer.withDefaults())
+                .authenticationManager(authenticationManager());
+
+        return http.build();
+    }
+
+    @Bean
+    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+
+//         authorizeHttpRequests - конфиг. за група от ендпойнти
+//         requestMatchers - достъп до даден ендпойнт
+//         .permitAll() - всеки може да достъпи този ендпойнт
+//         .anyRequest() - всички заявки, които не съм изброил
+//         .authenticated() - за да имаш достъп, трябва да си аутентикиран
+        http
+                .csrf(AbstractHttpConfigurer::disable)
+                .authorizeHttpRequests(matchers -> matchers
+                        .requestMatchers(PathRequest.toStaticResources().atCommonLocations()).permitAll()
+                        .requestMatchers("/", "/register", "/forgot-password").permitAll()
+                        .anyRequest().authenticated()
+                )
+                .formLogin(form -> form
+                        .loginPage("/login")
+                        .defaultSuccessUrl("/home", true)
+                        .failureHandler((request, response, exception) -> response.sendRedirect(
+                                exception.getCause() instanceof PasswordHashingBusyException ? "/login?busy" : "/login?error"))
+                        .permitAll()
+                )
+                .authenticationManager(authenticationManager())
+                .logout(logout -> logout
+                        .logoutRequestMatcher(new AntPathRequestMatcher("/logout", "GET"))
+                        .logoutSuccessHandler((request, response, authentication) -> {
+                            userService.logoutUser(authentication);
+                            response.sendRedirect("/");
+                        })
+                );
+
+
+        return http.build();
+    }
+
+    // Both chains check passwords through the hashing pool. Each gets a manager without a parent, so a failed
+    // sign-in is not handed on to the global manager and hashed a second time.
+    private AuthenticationManager authenticationManager() {
+        return new ProviderManager(new HashingAuthenticationProvider(userService, userService, passwordEncoder));
+    }
+}
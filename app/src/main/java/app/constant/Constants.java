@@ -0,0 +1,12 @@
+package app.constant;
+
+import app.credit.model.Credits;
+
+public class Constants {
+    // One and a half times the requested amount
+    public static final long OFFENSE_UPGRADE_MULTIPLER_PERMILLE = 1500;
+    public static final Credits OFFENSE_UPGRADE_PRICE = Credits.of(250);
+    public static final Credits DEFENSE_UPGRADE_PRICE = Credits.of(200);
+    public static final Credits RANK_UP_PRICE = Credits.of(50);
+    public static final Credits DAILY_BONUS = Credits.of(5);
+}
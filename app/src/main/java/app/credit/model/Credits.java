@@ -0,0 +1,75 @@
+package app.credit.model;
+
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.math.BigDecimal;
+
+// Fixed-point amount of credits, held as a whole number of milli-credits. Sums and differences are exact,
+// so balances no longer pick up floating-point error one hack at a time.
+@Getter
+@EqualsAndHashCode
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class Credits implements Comparable<Credits> {
+
+    public static final long MILLI_PER_CREDIT = 1000;
+
+    public static final Credits ZERO = new Credits(0);
+
+    private final long milli;
+
+    public static Credits of(long credits) {
+        return credits == 0 ? ZERO : new Credits(Math.multiplyExact(credits, MILLI_PER_CREDIT));
+    }
+
+    public static Credits ofMilli(long milli) {
+        return milli == 0 ? ZERO : new Credits(milli);
+    }
+
+    // Only for values coming from outside the economy, like form input - rounds to the nearest milli-credit
+    public static Credits valueOf(double credits) {
+        return ofMilli(Math.round(credits * MILLI_PER_CREDIT));
+    }
+
+    public Credits plus(Credits other) {
+        return ofMilli(Math.addExact(milli, other.milli));
+    }
+
+    public Credits minus(Credits other) {
+        return ofMilli(Math.subtractExact(milli, other.milli));
+    }
+
+    // Multiplies by permille / 1000, rounding toward zero, e.g. 1500 for one and a half times
+    public Credits timesPermille(long permille) {
+        return ofMilli(Math.multiplyExact(milli, permille) / 1000);
+    }
+
+    public Credits min(Credits other) {
+        return milli <= other.milli ? this : other;
+    }
+
+    public boolean isPositive() {
+        return milli > 0;
+    }
+
+    public boolean isLessThan(Credits other) {
+        return milli < other.milli;
+    }
+
+    // For gauges and form fields; amounts up to three decimals survive the round trip through valueOf
+    public double toDouble() {
+        return milli / (double) MILLI_PER_CREDIT;
+    }
+
+    @Override
+    public int compareTo(Credits other) {
+        return Long.compare(milli, other.milli);
+    }
+
+    @Override
+    public String toString() {
+        return BigDecimal.valueOf(milli, 3).stripTrailingZeros().toPlainString();
+    }
+}
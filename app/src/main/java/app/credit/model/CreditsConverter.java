@@ -0,0 +1,19 @@
+package app.credit.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// Every Credits attribute is stored as a bigint of milli-credits
+@Converter(autoApply = true)
+public class CreditsConverter implements AttributeConverter<Credits, Long> {
+
+    @Override
+    public Long convertToDatabaseColumn(Credits credits) {
+        return credits == null ? null : credits.getMilli();
+    }
+
+    @Override
+    public Credits convertToEntityAttribute(Long milli) {
+        return milli == null ? null : Credits.ofMilli(milli);
+    }
+}
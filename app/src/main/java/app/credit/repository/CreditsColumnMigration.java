@@ -0,0 +1,95 @@
+package app.credit.repository;
+
+import app.archive.repository.ArchiveJdbcRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.List;
+import java.util.Set;
+
+// Credits used to be stored as double precision. ddl-auto=update never changes the type of an existing
+// column, so on startup every credits column that is still floating point is rescaled to milli-credits and
+// turned into a bigint, each in its own transaction under a table lock. Columns that are already bigint are left alone, so this
+// is a no-op on a fresh or already migrated database.
+@Slf4j
+@Repository
+public class CreditsColumnMigration {
+
+    static final List<String[]> COLUMNS = List.of(
+            new String[]{"players", "credits"},
+            new String[]{"hack", "credits"},
+            new String[]{"transaction", "credits"},
+            new String[]{"hack_archive", "credits"},
+            new String[]{"transaction_archive", "credits"},
+            new String[]{"balance_snapshot", "balance"},
+            new String[]{"balance_snapshot", "drift"});
+
+    private static final Set<Integer> FLOATING = Set.of(Types.DOUBLE, Types.FLOAT, Types.REAL, Types.DECIMAL, Types.NUMERIC);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // Depends on the archive repository so its tables exist, and get migrated, before this runs
+    @Autowired
+    public CreditsColumnMigration(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, ArchiveJdbcRepository archiveJdbcRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void migrate() {
+        for (String[] column : COLUMNS) {
+            migrateColumn(column[0], column[1]);
+        }
+    }
+
+    // Returns true when the column was converted. Nodes starting together could both see the old type, and a second
+    // rescale would multiply every balance by another thousand, so the type is read again after taking the table
+    // lock, in the same transaction as the conversion.
+    public boolean migrateColumn(String table, String column) {
+        if (!isFloating(table, column)) {
+            return false;
+        }
+        Boolean migrated = transactionTemplate.execute(status -> {
+            lockTable(table);
+            if (!isFloating(table, column)) {
+                log.info("[%s.%s] was migrated by another instance".formatted(table, column));
+                return false;
+            }
+            int rows = jdbcTemplate.update("update " + table + " set " + column + " = round(" + column + " * 1000)");
+            jdbcTemplate.execute("alter table " + table + " alter column " + column + " set data type bigint");
+            log.info("Migrated [%s.%s] to milli-credits, %d rows rescaled".formatted(table, column, rows));
+            return true;
+        });
+        return Boolean.TRUE.equals(migrated);
+    }
+
+    // Held until the transaction ends. Only PostgreSQL runs with several nodes; H2 is single-node.
+    private void lockTable(String table) {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if ("PostgreSQL".equals(product)) {
+            jdbcTemplate.execute("lock table " + table + " in access exclusive mode");
+        }
+    }
+
+    private boolean isFloating(String table, String column) {
+        Boolean floating = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            boolean upper = metaData.storesUpperCaseIdentifiers();
+            try (ResultSet columns = metaData.getColumns(connection.getCatalog(), connection.getSchema(),
+                    upper ? table.toUpperCase() : table, upper ? column.toUpperCase() : column)) {
+                return columns.next() && FLOATING.contains(columns.getInt("DATA_TYPE"));
+            }
+        });
+        return Boolean.TRUE.equals(floating);
+    }
+}
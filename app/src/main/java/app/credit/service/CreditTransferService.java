@@ -0,0 +1,108 @@
+package app.credit.service;
+
+import app.credit.model.Credits;
+import app.exception.DomainException;
+import app.user.model.User;
+import app.user.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Moves credits with conditional UPDATE statements instead of read-modify-write on the whole User entity,
+// so two requests touching the same player can no longer overwrite each other's balance
+@Slf4j
+@Service
+public class CreditTransferService {
+
+    private final UserRepository userRepository;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final Counter conflicts;
+    private final Counter retries;
+
+    @Autowired
+    public CreditTransferService(UserRepository userRepository,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.credits.transfer.max-attempts:5}") int maxAttempts,
+                                 @Value("${app.credits.transfer.backoff-millis:5}") long backoffMillis) {
+        this.userRepository = userRepository;
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+        this.conflicts = meterRegistry.counter("credits.transfer.conflicts");
+        this.retries = meterRegistry.counter("credits.transfer.retries");
+    }
+
+    // Takes up to the requested amount from one player and gives it to another. The amount is capped at
+    // whatever the source player has at the moment of the update, and the amount actually moved is returned.
+    @Transactional
+    public Credits transferUpTo(User from, User to, Credits requested) {
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            Credits available = userRepository.findCreditsById(from.getId());
+            Credits amount = requested.min(available);
+            if (!amount.isPositive()) {
+                from.setCredits(available);
+                return Credits.ZERO;
+            }
+            if (userRepository.debitIfSufficient(from.getId(), amount) == 1) {
+                userRepository.credit(to.getId(), amount);
+                refreshCredits(from);
+                refreshCredits(to);
+                return amount;
+            }
+            onConflict(attempt);
+        }
+        throw new DomainException("Too many concurrent transfers for this player, please try again.");
+    }
+
+    // Takes a fixed amount from a player. Returns false when the player cannot afford it. Only an UPDATE that
+    // missed a balance which was sufficient when read counts as a conflict; plain insufficient funds does not.
+    @Transactional
+    public boolean tryDebit(User user, Credits amount) {
+        Credits available = userRepository.findCreditsById(user.getId());
+        if (available.isLessThan(amount)) {
+            user.setCredits(available);
+            return false;
+        }
+        if (userRepository.debitIfSufficient(user.getId(), amount) == 0) {
+            conflicts.increment();
+            refreshCredits(user);
+            return false;
+        }
+        refreshCredits(user);
+        return true;
+    }
+
+    public double getConflictCount() {
+        return conflicts.count();
+    }
+
+    public double getRetryCount() {
+        return retries.count();
+    }
+
+    // The UPDATE above holds the row lock until commit, so the value read back here is exact
+    private void refreshCredits(User user) {
+        user.setCredits(userRepository.findCreditsById(user.getId()));
+    }
+
+    private void onConflict(int attempt) {
+        conflicts.increment();
+        if (attempt == maxAttempts) {
+            return;
+        }
+        retries.increment();
+        long delay = backoffMillis * (1L << Math.min(attempt - 1, 6));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(delay / 2, delay + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DomainException("Credit transfer was interrupted.", e);
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package app.defenseUpgrade.service;
 
+import app.credit.service.CreditTransferService;
 
 import app.defenseUpgrade.model.DefenseUpgrade;
 import app.defenseUpgrade.repository.DefenseUpgradeRepository;
 import app.exception.DomainException;
+import app.metrics.GameMetrics;
+import app.scoreboard.service.ScoreboardService;
 import app.offenseUpgrade.repository.OffenseUpgradeRepository;
 import app.transaction.model.TransactionType;
 import app.transaction.service.TransactionService;
@@ -24,20 +27,25 @@ public class DefenseUpgradeService {
     private final DefenseUpgradeRepository defenseUpgradeRepository;
     private final UserRepository userRepository;
     private final TransactionService transactionService;
+    private final CreditTransferService creditTransferService;
+    private final ScoreboardService scoreboardService;
+    private final GameMetrics gameMetrics;
 
     @Autowired
-    public DefenseUpgradeService(DefenseUpgradeRepository defenseUpgradeRepository, UserRepository userRepository, TransactionService transactionService) {
+    public DefenseUpgradeService(DefenseUpgradeRepository defenseUpgradeRepository, UserRepository userRepository, TransactionService transactionService, CreditTransferService creditTransferService, ScoreboardService scoreboardService, GameMetrics gameMetrics) {
         this.defenseUpgradeRepository = defenseUpgradeRepository;
         this.userRepository = userRepository;
         this.transactionService = transactionService;
+        this.creditTransferService = creditTransferService;
+        this.scoreboardService = scoreboardService;
+        this.gameMetrics = gameMetrics;
     }
 
 
     @Transactional
     public void buyDefenseUpgrade(User user) {
-        if(user.getCredits() < DEFENSE_UPGRADE_PRICE)
+        if(user.getCredits().isLessThan(DEFENSE_UPGRADE_PRICE) || !creditTransferService.tryDebit(user, DEFENSE_UPGRADE_PRICE))
             throw new DomainException("You do not have enough credits");
-        user.setCredits(user.getCredits() - DEFENSE_UPGRADE_PRICE);
         transactionService.createTransaction(user, DEFENSE_UPGRADE_PRICE, "Bought Defense Upgrade", TransactionType.SEND);
         if(user.getDefenseUpgrade() == null) {
             DefenseUpgrade newDefenseUpgrade = DefenseUpgrade.builder().owner(user).uses(1).build();
@@ -48,6 +56,8 @@ public class DefenseUpgradeService {
             defenseUpgradeRepository.save(user.getDefenseUpgrade());
         }
         userRepository.save(user);
+        scoreboardService.refresh(user);
+        gameMetrics.recordUpgradePurchase(GameMetrics.DEFENSE);
     }
 
     public void decreaseUses(DefenseUpgrade defenseUpgrade, User defender) {
@@ -1,5 +1,6 @@
 package app.hack.model;
 
+import app.credit.model.Credits;
 import app.user.model.User;
 import jakarta.persistence.*;
 import lombok.*;
@@ -13,18 +14,22 @@ import java.util.UUID;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_hack_attacker_created_on", columnList = "attacker_id, created_on, id"),
+        @Index(name = "idx_hack_defender_created_on", columnList = "defender_id, created_on, id")
+})
 public class Hack {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private User attacker;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private User defender;
 
-    private Double credits;
+    private Credits credits;
 
     @Enumerated(EnumType.STRING)
     private HackStatus status;
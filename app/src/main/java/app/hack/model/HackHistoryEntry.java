@@ -0,0 +1,28 @@
+package app.hack.model;
+
+import app.credit.model.Credits;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// One row of a player's hack history, seen from that player's side. Built straight from a JPQL
+// constructor expression, so no User graph is loaded.
+@Getter
+@AllArgsConstructor
+public class HackHistoryEntry {
+
+    private final UUID id;
+
+    private final String opponentUsername;
+
+    private final Credits credits;
+
+    private final HackStatus status;
+
+    private final LocalDateTime createdOn;
+
+    // True when the player was the attacker, false when they were attacked
+    private final boolean attacking;
+}
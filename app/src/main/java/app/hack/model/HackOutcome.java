@@ -0,0 +1,26 @@
+package app.hack.model;
+
+import app.credit.model.Credits;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Result of resolving a hack in memory, before anything is written to the database
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class HackOutcome {
+
+    private final HackStatus status;
+
+    private final Credits credits;
+
+    private final boolean defenseUpgradeUsed;
+
+    public static HackOutcome defended(boolean defenseUpgradeUsed) {
+        return new HackOutcome(HackStatus.Defended, null, defenseUpgradeUsed);
+    }
+
+    public static HackOutcome succeeded(Credits credits) {
+        return new HackOutcome(HackStatus.Succeeded, credits, false);
+    }
+}
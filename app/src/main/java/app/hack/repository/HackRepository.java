@@ -0,0 +1,42 @@
+package app.hack.repository;
+
+import app.hack.model.Hack;
+import app.hack.model.HackHistoryEntry;
+import app.user.model.User;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface HackRepository extends JpaRepository<Hack, UUID> {
+
+    @EntityGraph(attributePaths = {"attacker", "defender"})
+    List<Hack> findByAttackerOrDefenderOrderByCreatedOnDesc(User attacker, User defender);
+
+    // Keyset pages over (created_on, id), one query per side so each can walk its own composite index
+    @Query("""
+            select new app.hack.model.HackHistoryEntry(h.id, d.username, h.credits, h.status, h.createdOn, true)
+            from Hack h join h.defender d
+            where h.attacker.id = :userId and (h.createdOn < :createdOn or (h.createdOn = :createdOn and h.id < :id))
+            order by h.createdOn desc, h.id desc
+            """)
+    List<HackHistoryEntry> findAttacksBefore(@Param("userId") UUID userId, @Param("createdOn") LocalDateTime createdOn,
+                                             @Param("id") UUID id, Limit limit);
+
+    @Query("""
+            select new app.hack.model.HackHistoryEntry(h.id, a.username, h.credits, h.status, h.createdOn, false)
+            from Hack h join h.attacker a
+            where h.defender.id = :userId and (h.createdOn < :createdOn or (h.createdOn = :createdOn and h.id < :id))
+            order by h.createdOn desc, h.id desc
+            """)
+    List<HackHistoryEntry> findDefensesBefore(@Param("userId") UUID userId, @Param("createdOn") LocalDateTime createdOn,
+                                              @Param("id") UUID id, Limit limit);
+}
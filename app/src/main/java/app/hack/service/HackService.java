@@ -0,0 +1,180 @@
+package app.hack.service;
+
+import app.archive.repository.ArchiveJdbcRepository;
+import app.credit.model.Credits;
+import app.credit.service.CreditTransferService;
+import app.defenseUpgrade.service.DefenseUpgradeService;
+import app.exception.DomainException;
+import app.hack.model.Hack;
+import app.hack.model.HackHistoryEntry;
+import app.hack.model.HackHistoryPage;
+import app.hack.model.HackOutcome;
+import app.hack.model.HackStatus;
+import app.hack.repository.HackRepository;
+import app.metrics.GameMetrics;
+import app.offenseUpgrade.service.OffenseUpgradeService;
+import app.pagination.KeysetCursor;
+import app.scoreboard.service.ScoreboardService;
+import app.transaction.model.TransactionType;
+import app.transaction.service.TransactionService;
+import app.user.model.User;
+import app.user.repository.UserRepository;
+import app.user.service.UserService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+@Slf4j
+@Service
+public class HackService {
+
+    private static final Comparator<HackHistoryEntry> NEWEST_FIRST = Comparator
+            .comparing(HackHistoryEntry::getCreatedOn)
+            .thenComparing(HackHistoryEntry::getId, KeysetCursor.UUID_ORDER)
+            .reversed();
+
+    private final HackRepository hackRepository;
+    private final OffenseUpgradeService offenseUpgradeService;
+    private final DefenseUpgradeService defenseUpgradeService;
+    private final TransactionService transactionService;
+    private final PlayerLockRegistry playerLockRegistry;
+    private final UserRepository userRepository;
+    private final CreditTransferService creditTransferService;
+    private final ScoreboardService scoreboardService;
+    private final GameMetrics gameMetrics;
+    private final ArchiveJdbcRepository archiveJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public HackService(HackRepository hackRepository, OffenseUpgradeService offenseUpgradeService, DefenseUpgradeService defenseUpgradeService, TransactionService transactionService, PlayerLockRegistry playerLockRegistry, UserRepository userRepository, CreditTransferService creditTransferService, ScoreboardService scoreboardService, GameMetrics gameMetrics, ArchiveJdbcRepository archiveJdbcRepository, PlatformTransactionManager transactionManager) {
+        this.hackRepository = hackRepository;
+        this.offenseUpgradeService = offenseUpgradeService;
+        this.defenseUpgradeService = defenseUpgradeService;
+        this.transactionService = transactionService;
+        this.playerLockRegistry = playerLockRegistry;
+        this.userRepository = userRepository;
+        this.creditTransferService = creditTransferService;
+        this.scoreboardService = scoreboardService;
+        this.gameMetrics = gameMetrics;
+        this.archiveJdbcRepository = archiveJdbcRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Both players are loaded only once their locks are held, so the hack is resolved on their current state and
+    // every write below is made from it. The transaction is opened inside the locked section, so a hack waiting
+    // for a popular target does not hold a pooled connection meanwhile, and it commits before the locks are let go.
+    // Credits are additionally moved with conditional UPDATEs, which is what keeps balances right when the same
+    // players are hacked on another instance.
+    public void createNewHack(UUID attackerId, UUID defenderId, Credits credits) {
+        long started = System.nanoTime();
+        playerLockRegistry.withPlayersLocked(attackerId, defenderId, () -> transactionTemplate.executeWithoutResult(status -> {
+            User attacker = loadForAttack(attackerId);
+            User defender = loadForAttack(defenderId);
+            HackOutcome outcome = resolveHack(attacker, defender, credits);
+            Credits moved = applyOutcome(attacker, defender, outcome);
+            gameMetrics.recordHack(outcome.getStatus(), System.nanoTime() - started, moved);
+        }));
+    }
+
+    // Pure in-memory resolution - decides the outcome without touching the database
+    public HackOutcome resolveHack(User attacker, User defender, Credits credits) {
+        if (isDefendedBy(defender, attacker)) {
+            return HackOutcome.defended(false);
+        }
+        if (defender.getDefenseUpgrade() != null) {
+            return HackOutcome.defended(true);
+        }
+        if (attacker.getOffenseUpgrade() != null) {
+            credits = offenseUpgradeService.calculateCredits(credits);
+        }
+        return HackOutcome.succeeded(credits.min(defender.getCredits()));
+    }
+
+    // Returns the credits that actually changed hands
+    private Credits applyOutcome(User attacker, User defender, HackOutcome outcome) {
+        Hack.HackBuilder hack = Hack.builder().attacker(attacker).defender(defender).status(outcome.getStatus()).createdOn(LocalDateTime.now());
+        if (outcome.getStatus() == HackStatus.Defended) {
+            if (outcome.isDefenseUpgradeUsed()) {
+                defenseUpgradeService.decreaseUses(defender.getDefenseUpgrade(), defender);
+            }
+            hackRepository.save(hack.build());
+            return Credits.ZERO;
+        }
+
+        Credits credits = creditTransferService.transferUpTo(defender, attacker, outcome.getCredits());
+        hack.credits(credits);
+        scoreboardService.refresh(attacker);
+        scoreboardService.refresh(defender);
+
+        transactionService.createTransaction(attacker, credits, "Hack", TransactionType.RECEIVE);
+        transactionService.createTransaction(defender, credits, "Hack", TransactionType.SEND);
+        hackRepository.save(hack.build());
+        return credits;
+    }
+
+    private User loadForAttack(UUID id) {
+        return userRepository.findForAttackById(id).orElseThrow(() -> new DomainException("User with id [%s] does not exist.".formatted(id)));
+    }
+
+    private boolean isDefendedBy(User defender, User attacker) {
+        return defender.getDefense() != null && Objects.equals(defender.getDefense().getId(), attacker.getId());
+    }
+
+    @Transactional
+    public void changeUserDefense(User currentUser, User defenseUser)
+    {
+        if(currentUser != defenseUser)
+            currentUser.setDefense(defenseUser);
+    }
+
+    // Hot tier only - archived hacks are reachable through getUserHistoryPage
+    public List<Hack> getUserHistory(User user) {
+        return hackRepository.findByAttackerOrDefenderOrderByCreatedOnDesc(user, user);
+
+    }
+
+    // One page of the player's history, newest first. Pass the previous page's cursor to get the next,
+    // older page; a null cursor starts from the newest hack. Archived hacks are all older than the ones
+    // still in the hack table, so the archive is only read once the hot rows run out.
+    public HackHistoryPage getUserHistoryPage(UUID userId, String before, int size) {
+        KeysetCursor cursor = KeysetCursor.parse(before);
+        LocalDateTime createdOn = cursor.getCreatedOn();
+        UUID id = cursor.getId();
+
+        List<HackHistoryEntry> attacks = hackRepository.findAttacksBefore(userId, createdOn, id, Limit.of(size + 1));
+        List<HackHistoryEntry> defenses = hackRepository.findDefensesBefore(userId, createdOn, id, Limit.of(size + 1));
+
+        List<HackHistoryEntry> entries = new ArrayList<>(size + 1);
+        int a = 0;
+        int d = 0;
+        while (entries.size() <= size && (a < attacks.size() || d < defenses.size())) {
+            if (d >= defenses.size() || (a < attacks.size() && NEWEST_FIRST.compare(attacks.get(a), defenses.get(d)) <= 0)) {
+                entries.add(attacks.get(a++));
+            } else {
+                entries.add(defenses.get(d++));
+            }
+        }
+        if (entries.size() <= size) {
+            entries.addAll(archiveJdbcRepository.findHistoryBefore(userId, createdOn, id, size + 1 - entries.size()));
+        }
+
+        if (entries.size() <= size) {
+            return new HackHistoryPage(entries, null);
+        }
+        entries.remove(size);
+        HackHistoryEntry last = entries.get(size - 1);
+        return new HackHistoryPage(entries, KeysetCursor.encode(last.getCreatedOn(), last.getId()));
+    }
+}
@@ -0,0 +1,58 @@
+package app.hack.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Striped per-player locks, so hacks touching the same players are resolved one after another in memory
+// instead of queueing on database row locks. Stripes are always taken in index order, which also rules out
+// the attacker/defender deadlock when two players hack each other at the same time.
+@Component
+public class PlayerLockRegistry {
+
+    private final ReentrantLock[] stripes;
+
+    public PlayerLockRegistry(@Value("${app.hack.lock-stripes:256}") int stripeCount) {
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    // When called inside a transaction the locks are held until it completes, so the next hack on
+    // the same player only starts after the previous one is committed. Callers that open their transaction
+    // inside the action get the same guarantee without holding a connection while they wait.
+    public void withPlayersLocked(UUID first, UUID second, Runnable action) {
+        int a = stripeOf(first);
+        int b = stripeOf(second);
+        ReentrantLock lower = stripes[Math.min(a, b)];
+        ReentrantLock upper = stripes[Math.max(a, b)];
+
+        lower.lock();
+        upper.lock();
+        try {
+            action.run();
+        } finally {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        upper.unlock();
+                        lower.unlock();
+                    }
+                });
+            } else {
+                upper.unlock();
+                lower.unlock();
+            }
+        }
+    }
+
+    private int stripeOf(UUID playerId) {
+        return playerId == null ? 0 : (playerId.hashCode() & 0x7fffffff) % stripes.length;
+    }
+}
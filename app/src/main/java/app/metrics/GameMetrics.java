@@ -0,0 +1,128 @@
+package app.metrics;
+
+import app.archive.model.ArchiveTable;
+import app.credit.model.Credits;
+import app.hack.model.HackStatus;
+import app.reconciliation.model.ReconciliationReport;
+import app.scheduler.model.BonusRunReport;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Meters for the game economy, kept in one place so the services only say what happened. Everything is
+// registered up front, so the hot paths never look a meter up by name and each series exists from startup.
+// Credits are counted, not gauged - rate(credits_moved_total[1m]) gives credits moved per second.
+@Component
+public class GameMetrics {
+
+    public static final String LEDGER_SINGLE = "single";
+    public static final String LEDGER_BATCH = "batch";
+    public static final String OFFENSE = "offense";
+    public static final String DEFENSE = "defense";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<HackStatus, Timer> hackResolution = new EnumMap<>(HackStatus.class);
+    private final Counter creditsMovedByHacks;
+    private final Counter creditsMovedByBonus;
+    private final Counter rankUps;
+    private final Map<String, Timer> ledgerInserts;
+    private final Map<String, Counter> ledgerRows;
+    private final Map<String, Counter> upgradesPurchased;
+    private final Map<ArchiveTable, Counter> archivedRows = new EnumMap<>(ArchiveTable.class);
+    private final AtomicInteger playersDrifted = new AtomicInteger();
+    private final AtomicInteger playersFlagged = new AtomicInteger();
+
+    @Autowired
+    public GameMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        for (HackStatus status : HackStatus.values()) {
+            hackResolution.put(status, Timer.builder("hack.resolution")
+                    .description("Time to resolve and apply a hack, including waiting for the players' locks")
+                    .tag("status", status.name())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        this.creditsMovedByHacks = creditsMoved("hack");
+        this.creditsMovedByBonus = creditsMoved("bonus");
+        this.rankUps = Counter.builder("player.rank.ups").register(meterRegistry);
+        this.ledgerInserts = Map.of(LEDGER_SINGLE, ledgerInsert(LEDGER_SINGLE), LEDGER_BATCH, ledgerInsert(LEDGER_BATCH));
+        this.ledgerRows = Map.of(LEDGER_SINGLE, ledgerRows(LEDGER_SINGLE), LEDGER_BATCH, ledgerRows(LEDGER_BATCH));
+        this.upgradesPurchased = Map.of(OFFENSE, upgradesPurchased(OFFENSE), DEFENSE, upgradesPurchased(DEFENSE));
+        for (ArchiveTable table : ArchiveTable.values()) {
+            archivedRows.put(table, Counter.builder("archive.rows").tag("table", table.getHotTable()).register(meterRegistry));
+        }
+        // As of the last reconciliation; alert on flagged > 0
+        meterRegistry.gauge("reconcile.players.drifted", playersDrifted);
+        meterRegistry.gauge("reconcile.players.flagged", playersFlagged);
+    }
+
+    public void recordHack(HackStatus status, long nanos, Credits credits) {
+        hackResolution.get(status).record(nanos, TimeUnit.NANOSECONDS);
+        if (credits != null && credits.isPositive()) {
+            creditsMovedByHacks.increment(credits.toDouble());
+        }
+    }
+
+    public void recordLedgerInsert(String mode, int rows, long nanos) {
+        ledgerInserts.get(mode).record(nanos, TimeUnit.NANOSECONDS);
+        ledgerRows.get(mode).increment(rows);
+    }
+
+    public void recordBonusRun(BonusRunReport report, Credits amount) {
+        String mode = report.getMode().name();
+        Timer.builder("bonus.run").tag("mode", mode).register(meterRegistry)
+                .record(report.getDurationMillis(), TimeUnit.MILLISECONDS);
+        Counter.builder("bonus.players.paid").register(meterRegistry).increment(report.getPlayersPaid());
+        Counter.builder("bonus.ledger.rows").register(meterRegistry).increment(report.getLedgerRows());
+        creditsMovedByBonus.increment(report.getPlayersPaid() * amount.toDouble());
+    }
+
+    public void recordRankUp() {
+        rankUps.increment();
+    }
+
+    public void recordUpgradePurchase(String type) {
+        upgradesPurchased.get(type).increment();
+    }
+
+    public void recordArchived(ArchiveTable table, int rows) {
+        archivedRows.get(table).increment(rows);
+    }
+
+    public void recordReconciliation(ReconciliationReport report) {
+        Timer.builder("reconcile.run").register(meterRegistry).record(report.getDurationMillis(), TimeUnit.MILLISECONDS);
+        Counter.builder("reconcile.players.checked").register(meterRegistry).increment(report.getPlayersChecked());
+        playersDrifted.set(report.getPlayersDrifted());
+        playersFlagged.set(report.getPlayersFlagged());
+    }
+
+    private Counter creditsMoved(String source) {
+        return Counter.builder("credits.moved")
+                .baseUnit("credits")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
+    private Timer ledgerInsert(String mode) {
+        return Timer.builder("ledger.insert")
+                .description("Time to write ledger rows to the database")
+                .tag("mode", mode)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private Counter ledgerRows(String mode) {
+        return Counter.builder("ledger.rows").tag("mode", mode).register(meterRegistry);
+    }
+
+    private Counter upgradesPurchased(String type) {
+        return Counter.builder("upgrades.purchased").tag("type", type).register(meterRegistry);
+    }
+}
@@ -0,0 +1,74 @@
+package app.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// A virtual thread that blocks inside a synchronized block or a native frame stays mounted on its carrier,
+// so a handful of those can stall every request. In virtual-thread mode this streams the JDK's
+// jdk.VirtualThreadPinned JFR events in-process: each one is timed under jvm.threads.virtual.pinned and logged
+// with the frames that held the carrier. Only pins longer than threshold-millis are reported by the JVM.
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnProperty(name = "app.threads.pinning.enabled", matchIfMissing = true)
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 8;
+
+    private final Duration threshold;
+    private final Timer pinned;
+    private RecordingStream stream;
+
+    @Autowired
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${app.threads.pinning.threshold-millis:20}") long thresholdMillis) {
+        this.threshold = Duration.ofMillis(thresholdMillis);
+        this.pinned = Timer.builder("jvm.threads.virtual.pinned")
+                .description("Time virtual threads spent blocked while pinned to their carrier thread")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED, this::onPinned);
+        stream.startAsync();
+        log.info("Watching for virtual threads pinned longer than %d ms".formatted(threshold.toMillis()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.record(event.getDuration());
+        List<RecordedFrame> frames = event.getStackTrace() == null ? List.of() : event.getStackTrace().getFrames();
+        String top = frames.stream()
+                .limit(LOGGED_FRAMES)
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber())
+                .collect(Collectors.joining("\n\tat ", "\n\tat ", ""));
+        log.warn("Virtual thread [%s] was pinned for %d ms%s".formatted(
+                event.getThread() == null ? "?" : event.getThread().getJavaName(), event.getDuration().toMillis(), top));
+    }
+}
@@ -1,7 +1,11 @@
 package app.offenseUpgrade.service;
 
+import app.credit.model.Credits;
+import app.credit.service.CreditTransferService;
 
 import app.exception.DomainException;
+import app.metrics.GameMetrics;
+import app.scoreboard.service.ScoreboardService;
 import app.offenseUpgrade.model.OffenseUpgrade;
 import app.offenseUpgrade.repository.OffenseUpgradeRepository;
 import app.transaction.model.TransactionType;
@@ -11,8 +15,9 @@ import app.user.repository.UserRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import static app.constant.Constants.OFFENSE_UPGRADE_MULTIPLER;
+import static app.constant.Constants.OFFENSE_UPGRADE_MULTIPLER_PERMILLE;
 import static app.constant.Constants.OFFENSE_UPGRADE_PRICE;
 
 @Service
@@ -22,30 +27,38 @@ public class OffenseUpgradeService {
     private final UserRepository userRepository;
     private final OffenseUpgradeRepository offenseUpgradeRepository;
     private final TransactionService transactionService;
+    private final CreditTransferService creditTransferService;
+    private final ScoreboardService scoreboardService;
+    private final GameMetrics gameMetrics;
 
     @Autowired
-    public OffenseUpgradeService(UserRepository userRepository, OffenseUpgradeRepository offenseUpgradeRepository, TransactionService transactionService) {
+    public OffenseUpgradeService(UserRepository userRepository, OffenseUpgradeRepository offenseUpgradeRepository, TransactionService transactionService, CreditTransferService creditTransferService, ScoreboardService scoreboardService, GameMetrics gameMetrics) {
         this.userRepository = userRepository;
         this.offenseUpgradeRepository = offenseUpgradeRepository;
         this.transactionService = transactionService;
+        this.creditTransferService = creditTransferService;
+        this.scoreboardService = scoreboardService;
+        this.gameMetrics = gameMetrics;
     }
 
+    @Transactional
     public void createOffenseUpgrade(User user) {
         if(user.getOffenseUpgrade() != null) {
             throw new DomainException("Already owned!");
         }
-        if(user.getCredits() < OFFENSE_UPGRADE_PRICE) {
+        if(user.getCredits().isLessThan(OFFENSE_UPGRADE_PRICE) || !creditTransferService.tryDebit(user, OFFENSE_UPGRADE_PRICE)) {
             throw new DomainException("Not enough credits");
         }
         OffenseUpgrade offenseUpgrade = OffenseUpgrade.builder().owner(user).build();
         offenseUpgradeRepository.save(offenseUpgrade);
-        user.setCredits(user.getCredits() - OFFENSE_UPGRADE_PRICE);
         transactionService.createTransaction(user, OFFENSE_UPGRADE_PRICE, "Bough Offense Upgrade", TransactionType.SEND);
         user.setOffenseUpgrade(offenseUpgrade);
         userRepository.save(user);
+        scoreboardService.refresh(user);
+        gameMetrics.recordUpgradePurchase(GameMetrics.OFFENSE);
     }
 
-    public Double calculateCredits(Double credits) {
-        return credits*OFFENSE_UPGRADE_MULTIPLER;
+    public Credits calculateCredits(Credits credits) {
+        return credits.timesPermille(OFFENSE_UPGRADE_MULTIPLER_PERMILLE);
     }
 }
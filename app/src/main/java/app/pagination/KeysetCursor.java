@@ -0,0 +1,47 @@
+package app.pagination;
+
+import app.exception.DomainException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
+import java.util.UUID;
+
+// Position in a newest-first list ordered by (createdOn, id). Travels through URLs as "createdOn|id".
+@Getter
+@AllArgsConstructor
+public class KeysetCursor {
+
+    // Sorts above every real row, so a query "before" it starts from the newest
+    public static final KeysetCursor NEWEST = new KeysetCursor(LocalDateTime.of(9999, 12, 31, 0, 0), new UUID(-1L, -1L));
+
+    // Same order the database uses for uuid columns (unsigned, most significant half first), so in-memory
+    // merges and the keyset predicates agree on ties
+    public static final Comparator<UUID> UUID_ORDER = (a, b) -> {
+        int cmp = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return cmp != 0 ? cmp : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    };
+
+    private final LocalDateTime createdOn;
+
+    private final UUID id;
+
+    // A missing cursor means the first page
+    public static KeysetCursor parse(String value) {
+        if (value == null || value.isBlank()) {
+            return NEWEST;
+        }
+        String[] parts = value.split("\\|", 2);
+        try {
+            return new KeysetCursor(LocalDateTime.parse(parts[0]), UUID.fromString(parts[1]));
+        } catch (DateTimeParseException | IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new DomainException("Invalid page cursor [%s].".formatted(value), e);
+        }
+    }
+
+    public static String encode(LocalDateTime createdOn, UUID id) {
+        return createdOn + "|" + id;
+    }
+}
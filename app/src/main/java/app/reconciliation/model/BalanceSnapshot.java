@@ -0,0 +1,60 @@
+package app.reconciliation.model;
+
+import app.credit.model.Credits;
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// A player's balance as the ledger says it was at asOf. The next reconciliation only replays the ledger rows
+// from asOf onwards, so auditing a balance never means summing the player's whole history again.
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "balance_snapshot")
+public class BalanceSnapshot implements Persistable<UUID> {
+
+    @Id
+    private UUID playerId;
+
+    @Column(nullable = false)
+    private Credits balance;
+
+    // Ledger position the balance is taken at; rows created on or after it are not included
+    @Column(nullable = false)
+    private LocalDateTime asOf;
+
+    // Stored credits minus the ledger balance at the last check
+    private Credits drift;
+
+    // Consecutive checks that found drift; one can be a ledger row still on its way, two is a real mismatch
+    private int driftRuns;
+
+    private LocalDateTime checkedOn;
+
+    // Snapshots have assigned ids, so without this save() would select every new one before inserting it
+    @Transient
+    @Builder.Default
+    private boolean fresh = true;
+
+    @PostLoad
+    @PostPersist
+    void markStored() {
+        fresh = false;
+    }
+
+    @Override
+    public UUID getId() {
+        return playerId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return fresh;
+    }
+}
@@ -0,0 +1,25 @@
+package app.reconciliation.model;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Builder
+public class ReconciliationReport {
+
+    private final LocalDateTime asOf;
+
+    private final int partitions;
+
+    private final int playersChecked;
+
+    // Players whose balance disagreed with the ledger on this check
+    private final int playersDrifted;
+
+    // Players whose balance disagreed on this check and the one before
+    private final int playersFlagged;
+
+    private final long durationMillis;
+}
@@ -0,0 +1,17 @@
+package app.reconciliation.repository;
+
+import app.reconciliation.model.BalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, UUID> {
+
+    @Query("select s from BalanceSnapshot s where s.playerId between :from and :to")
+    List<BalanceSnapshot> findInRange(@Param("from") UUID from, @Param("to") UUID to);
+}
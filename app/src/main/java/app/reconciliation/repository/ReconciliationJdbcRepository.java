@@ -0,0 +1,59 @@
+package app.reconciliation.repository;
+
+import app.archive.model.ArchiveTable;
+import app.credit.model.Credits;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Set-based reads over one range of player ids: stored balances, and ledger sums per player over a time window
+@Repository
+public class ReconciliationJdbcRepository {
+
+    // Archived rows count too - a snapshot older than the retention window replays into the archive
+    private static final String LEDGER = "(select user_id, transaction_type, credits, created_on from transaction union all "
+            + "select user_id, transaction_type, credits, created_on from " + ArchiveTable.TRANSACTION.getArchiveTable() + ") ledger";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ReconciliationJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Map<UUID, Credits> findBalances(UUID from, UUID to) {
+        Map<UUID, Credits> balances = new HashMap<>();
+        jdbcTemplate.query("select id, credits from players where id between ? and ?",
+                (RowCallbackHandler) rs -> balances.put(rs.getObject("id", UUID.class), Credits.ofMilli(rs.getLong("credits"))), from, to);
+        return balances;
+    }
+
+    // Net credits per player over [after, before); a null bound leaves that side open
+    public Map<UUID, Credits> sumLedger(UUID from, UUID to, LocalDateTime after, LocalDateTime before) {
+        StringBuilder sql = new StringBuilder("select user_id, sum(case when transaction_type = 'RECEIVE' then credits else -credits end) as net from ")
+                .append(LEDGER).append(" where user_id between ? and ?");
+        List<Object> args = new ArrayList<>(List.of(from, to));
+        if (after != null) {
+            sql.append(" and created_on >= ?");
+            args.add(Timestamp.valueOf(after));
+        }
+        if (before != null) {
+            sql.append(" and created_on < ?");
+            args.add(Timestamp.valueOf(before));
+        }
+        sql.append(" group by user_id");
+
+        Map<UUID, Credits> sums = new HashMap<>();
+        jdbcTemplate.query(sql.toString(), (RowCallbackHandler) rs -> sums.put(rs.getObject("user_id", UUID.class), Credits.ofMilli(rs.getLong("net"))), args.toArray());
+        return sums;
+    }
+}
@@ -0,0 +1,163 @@
+package app.reconciliation.service;
+
+import app.credit.model.Credits;
+import app.metrics.GameMetrics;
+import app.reconciliation.model.BalanceSnapshot;
+import app.reconciliation.model.ReconciliationReport;
+import app.reconciliation.repository.BalanceSnapshotRepository;
+import app.reconciliation.repository.ReconciliationJdbcRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Checks every player's stored credits against the ledger. The id space is cut into equal ranges that are
+// reconciled in parallel, each in its own repeatable-read transaction so balances and ledger rows are read from
+// the same point in time. Per range it takes a handful of set-based statements, whatever the number of players.
+@Slf4j
+@Service
+public class ReconciliationService {
+
+    private final ReconciliationJdbcRepository reconciliationJdbcRepository;
+    private final BalanceSnapshotRepository balanceSnapshotRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final GameMetrics gameMetrics;
+    private final Duration settle;
+    private final int partitions;
+    private final int threads;
+
+    @Autowired
+    public ReconciliationService(ReconciliationJdbcRepository reconciliationJdbcRepository,
+                                 BalanceSnapshotRepository balanceSnapshotRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 GameMetrics gameMetrics,
+                                 @Value("${app.reconcile.settle-millis:300000}") long settleMillis,
+                                 @Value("${app.reconcile.partitions:16}") int partitions,
+                                 @Value("${app.reconcile.threads:4}") int threads) {
+        this.reconciliationJdbcRepository = reconciliationJdbcRepository;
+        this.balanceSnapshotRepository = balanceSnapshotRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.gameMetrics = gameMetrics;
+        this.settle = Duration.ofMillis(settleMillis);
+        this.partitions = partitions;
+        this.threads = threads;
+    }
+
+    // Snapshots move up to now minus the settle window, so ledger rows that are still being written behind
+    // always land after the snapshot they belong to, never before it
+    public ReconciliationReport reconcile(LocalDateTime now) {
+        long start = System.currentTimeMillis();
+        LocalDateTime asOf = now.minus(settle);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<CompletableFuture<int[]>> ranges = new ArrayList<>();
+            for (UUID[] range : partition(partitions)) {
+                ranges.add(CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status ->
+                        reconcileRange(range[0], range[1], asOf, now)), executor));
+            }
+            int[] totals = new int[3];
+            for (CompletableFuture<int[]> range : ranges) {
+                int[] counts = range.join();
+                for (int i = 0; i < totals.length; i++) {
+                    totals[i] += counts[i];
+                }
+            }
+            ReconciliationReport report = ReconciliationReport.builder()
+                    .asOf(asOf)
+                    .partitions(partitions)
+                    .playersChecked(totals[0])
+                    .playersDrifted(totals[1])
+                    .playersFlagged(totals[2])
+                    .durationMillis(System.currentTimeMillis() - start)
+                    .build();
+            gameMetrics.recordReconciliation(report);
+            return report;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    // Returns {checked, drifted, flagged}
+    private int[] reconcileRange(UUID from, UUID to, LocalDateTime asOf, LocalDateTime now) {
+        Map<UUID, Credits> balances = reconciliationJdbcRepository.findBalances(from, to);
+        Map<UUID, BalanceSnapshot> snapshots = balanceSnapshotRepository.findInRange(from, to).stream()
+                .collect(Collectors.toMap(BalanceSnapshot::getPlayerId, Function.identity()));
+        // Normally every snapshot in a range has the same position, so these are one query each
+        Map<LocalDateTime, Map<UUID, Credits>> replays = new HashMap<>();
+        Map<LocalDateTime, Map<UUID, Credits>> tails = new HashMap<>();
+
+        int drifted = 0;
+        int flagged = 0;
+        List<BalanceSnapshot> opened = new ArrayList<>();
+        for (Map.Entry<UUID, Credits> player : balances.entrySet()) {
+            UUID id = player.getKey();
+            Credits credits = player.getValue();
+            BalanceSnapshot snapshot = snapshots.get(id);
+
+            if (snapshot == null) {
+                // First sight of this player: the opening balance is taken from the stored credits
+                Credits tail = tails.computeIfAbsent(asOf, at -> reconciliationJdbcRepository.sumLedger(from, to, at, null)).getOrDefault(id, Credits.ZERO);
+                opened.add(BalanceSnapshot.builder().playerId(id).balance(credits.minus(tail)).asOf(asOf).drift(Credits.ZERO).checkedOn(now).build());
+                continue;
+            }
+
+            LocalDateTime previous = snapshot.getAsOf();
+            LocalDateTime position = asOf.isAfter(previous) ? asOf : previous;
+            if (position.isAfter(previous)) {
+                snapshot.setBalance(snapshot.getBalance().plus(replays
+                        .computeIfAbsent(previous, at -> reconciliationJdbcRepository.sumLedger(from, to, at, position))
+                        .getOrDefault(id, Credits.ZERO)));
+                snapshot.setAsOf(position);
+            }
+            Credits expected = snapshot.getBalance().plus(tails
+                    .computeIfAbsent(position, at -> reconciliationJdbcRepository.sumLedger(from, to, at, null))
+                    .getOrDefault(id, Credits.ZERO));
+            // Credits are exact, so any difference at all is drift
+            Credits drift = credits.minus(expected);
+            snapshot.setDrift(drift);
+            snapshot.setCheckedOn(now);
+            if (drift.equals(Credits.ZERO)) {
+                snapshot.setDriftRuns(0);
+                continue;
+            }
+            drifted++;
+            snapshot.setDriftRuns(snapshot.getDriftRuns() + 1);
+            if (snapshot.getDriftRuns() >= 2) {
+                flagged++;
+                log.warn("Player [%s] has %s credits but the ledger says %s (drift %s, seen on %d checks in a row)"
+                        .formatted(id, credits, expected, drift, snapshot.getDriftRuns()));
+            }
+        }
+        balanceSnapshotRepository.saveAll(opened);
+        return new int[]{balances.size(), drifted, flagged};
+    }
+
+    // Equal, contiguous ranges over the whole uuid space in the database's order (unsigned, most significant half first)
+    static List<UUID[]> partition(int count) {
+        List<UUID[]> ranges = new ArrayList<>(count);
+        long step = Long.divideUnsigned(-1L, count);
+        for (int i = 0; i < count; i++) {
+            UUID from = new UUID(step * i, 0L);
+            UUID to = i == count - 1 ? new UUID(-1L, -1L) : new UUID(step * (i + 1) - 1, -1L);
+            ranges.add(new UUID[]{from, to});
+        }
+        return ranges;
+    }
+}
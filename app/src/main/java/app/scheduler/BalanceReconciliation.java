@@ -0,0 +1,83 @@
+package app.scheduler;
+
+import app.reconciliation.model.ReconciliationReport;
+import app.reconciliation.service.ReconciliationService;
+import app.scheduler.service.SchedulerLeaseService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// A run waits for all of its parallel range tasks, so it runs on a thread of its own and the scheduler thread only
+// hands it over. A tick that comes round while the previous run is still going is dropped.
+@Component
+@Slf4j
+public class BalanceReconciliation {
+    static final String LOCK_NAME = "balance-reconciliation";
+
+    private final ReconciliationService reconciliationService;
+    private final SchedulerLeaseService schedulerLeaseService;
+    private final boolean enabled;
+    private final Duration lease;
+    private final ThreadPoolExecutor executor;
+
+    @Autowired
+    public BalanceReconciliation(ReconciliationService reconciliationService,
+                                 SchedulerLeaseService schedulerLeaseService,
+                                 @Value("${app.reconcile.enabled:true}") boolean enabled,
+                                 @Value("${app.reconcile.lease-millis:3000000}") long leaseMillis) {
+        this.reconciliationService = reconciliationService;
+        this.schedulerLeaseService = schedulerLeaseService;
+        this.enabled = enabled;
+        this.lease = Duration.ofMillis(leaseMillis);
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("balance-reconciliation-");
+        threadFactory.setDaemon(true);
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new SynchronousQueue<>(), threadFactory,
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Scheduled(fixedDelayString = "${app.reconcile.period-millis:3600000}", initialDelayString = "${app.reconcile.period-millis:3600000}")
+    public void reconcileBalances() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            executor.execute(this::reconcile);
+        } catch (RejectedExecutionException e) {
+            log.info("Balance reconciliation is still running from the previous period");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void reconcile() {
+        if (!schedulerLeaseService.tryAcquire(LOCK_NAME, lease)) {
+            log.info("Balance reconciliation is running on another instance");
+            return;
+        }
+        try {
+            ReconciliationReport report = reconciliationService.reconcile(LocalDateTime.now());
+            log.info("Reconciled %d players as of %s in %d ms across %d partitions: %d drifted, %d flagged".formatted(
+                    report.getPlayersChecked(), report.getAsOf(), report.getDurationMillis(), report.getPartitions(),
+                    report.getPlayersDrifted(), report.getPlayersFlagged()));
+        } catch (RuntimeException e) {
+            // Off the scheduler thread nothing else would log it
+            log.error("Balance reconciliation failed", e);
+        } finally {
+            schedulerLeaseService.release(LOCK_NAME);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package app.scheduler;
+
+import app.chatMessage.model.OutboxDispatchReport;
+import app.chatMessage.service.ChatOutboxService;
+import app.scheduler.service.SchedulerLeaseService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Delivers the chat outbox. Only the instance holding the lease sends, so two instances never deliver the same
+// rows. A run drains full batches back to back while delivery keeps succeeding; when a whole batch fails the
+// chat service is taken to be down and the job backs off exponentially, up to maxBackoffMillis, before trying again.
+@Slf4j
+@Component
+public class ChatOutboxDispatch {
+
+    static final String LOCK_NAME = "chat-outbox";
+
+    private final ChatOutboxService chatOutboxService;
+    private final SchedulerLeaseService schedulerLeaseService;
+    private final boolean enabled;
+    private final long periodMillis;
+    private final long maxBackoffMillis;
+    private final Duration lease;
+    private int consecutiveFailures;
+    private long pausedUntil;
+
+    @Autowired
+    public ChatOutboxDispatch(ChatOutboxService chatOutboxService,
+                              SchedulerLeaseService schedulerLeaseService,
+                              @Value("${app.chat.outbox.enabled:true}") boolean enabled,
+                              @Value("${app.chat.outbox.period-millis:1000}") long periodMillis,
+                              @Value("${app.chat.outbox.max-backoff-millis:60000}") long maxBackoffMillis,
+                              @Value("${app.chat.outbox.lease-millis:30000}") long leaseMillis) {
+        this.chatOutboxService = chatOutboxService;
+        this.schedulerLeaseService = schedulerLeaseService;
+        this.enabled = enabled;
+        this.periodMillis = periodMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.lease = Duration.ofMillis(leaseMillis);
+    }
+
+    @Scheduled(fixedDelayString = "${app.chat.outbox.period-millis:1000}")
+    public void dispatchOutbox() {
+        if (!enabled || System.currentTimeMillis() < pausedUntil) {
+            return;
+        }
+        if (!schedulerLeaseService.tryAcquire(LOCK_NAME, lease)) {
+            return;
+        }
+        try {
+            // Stops halfway through the lease so a long drain never outlives it
+            long deadline = System.currentTimeMillis() + lease.toMillis() / 2;
+            OutboxDispatchReport report;
+            do {
+                report = chatOutboxService.dispatchBatch();
+                if (report.getFailed() > 0 && report.getDelivered() == 0) {
+                    backOff(report);
+                    return;
+                }
+                consecutiveFailures = 0;
+            } while (report.getDelivered() + report.getRejected() == chatOutboxService.getBatchSize()
+                    && System.currentTimeMillis() < deadline);
+        } finally {
+            schedulerLeaseService.release(LOCK_NAME);
+        }
+    }
+
+    private void backOff(OutboxDispatchReport report) {
+        consecutiveFailures++;
+        long backoff = Math.min(maxBackoffMillis, periodMillis << Math.min(consecutiveFailures, 16));
+        pausedUntil = System.currentTimeMillis() + backoff;
+        log.warn("Chat outbox delivery failed for %d messages, retrying in %d ms".formatted(report.getFailed(), backoff));
+    }
+}
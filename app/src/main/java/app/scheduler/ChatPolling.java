@@ -0,0 +1,29 @@
+package app.scheduler;
+
+import app.chatMessage.service.ChatMessageCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Every instance keeps its own chat cache, so unlike the other jobs this one runs everywhere and takes no lease
+@Component
+public class ChatPolling {
+
+    private final ChatMessageCache chatMessageCache;
+    private final boolean enabled;
+
+    @Autowired
+    public ChatPolling(ChatMessageCache chatMessageCache, @Value("${app.chat.poll.enabled:true}") boolean enabled) {
+        this.chatMessageCache = chatMessageCache;
+        this.enabled = enabled;
+    }
+
+    // Does not wait for the answer; a poll that comes round while the previous one is still out joins it
+    @Scheduled(fixedDelayString = "${app.chat.poll.period-millis:2000}")
+    public void pollChat() {
+        if (enabled) {
+            chatMessageCache.refresh();
+        }
+    }
+}
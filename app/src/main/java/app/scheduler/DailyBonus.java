@@ -0,0 +1,91 @@
+package app.scheduler;
+
+import app.metrics.GameMetrics;
+import app.scheduler.model.BonusRunReport;
+import app.scheduler.service.BonusPayoutService;
+import app.scheduler.service.SchedulerLeaseService;
+import app.scoreboard.service.ScoreboardService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static app.constant.Constants.DAILY_BONUS;
+
+@Component
+@Slf4j
+public class DailyBonus {
+    static final String LOCK_NAME = "daily-bonus";
+
+    private final BonusPayoutService bonusPayoutService;
+    private final SchedulerLeaseService schedulerLeaseService;
+    private final ScoreboardService scoreboardService;
+    private final GameMetrics gameMetrics;
+    private final long periodMillis;
+    private final Duration lease;
+    private long reloadedThroughWindow = Long.MIN_VALUE;
+
+    @Autowired
+    public DailyBonus(BonusPayoutService bonusPayoutService,
+                      SchedulerLeaseService schedulerLeaseService,
+                      ScoreboardService scoreboardService,
+                      GameMetrics gameMetrics,
+                      @Value("${app.bonus.period-millis:300000}") long periodMillis,
+                      @Value("${app.bonus.lease-millis:240000}") long leaseMillis) {
+        this.bonusPayoutService = bonusPayoutService;
+        this.schedulerLeaseService = schedulerLeaseService;
+        this.scoreboardService = scoreboardService;
+        this.gameMetrics = gameMetrics;
+        this.periodMillis = periodMillis;
+        this.lease = Duration.ofMillis(leaseMillis);
+    }
+
+    // fixedRate keeps one tick per period instead of drifting by every run's duration. A tick that lands late can
+    // still step over a window, so the windows are keyed on the last completed run as well as on the clock.
+    @Scheduled(fixedRateString = "${app.bonus.period-millis:300000}") // Presumably a period of 24 hours, however for the sake of the demo I have set it to only 5 minutes :)
+    public void addCreditsToAllUsers() {
+        long window = System.currentTimeMillis() / periodMillis;
+        if (schedulerLeaseService.tryAcquire(LOCK_NAME, lease)) {
+            try {
+                payThrough(window);
+            } finally {
+                schedulerLeaseService.release(LOCK_NAME);
+            }
+        } else {
+            log.info("Daily Bonus for window %d is running on another instance".formatted(window));
+        }
+        reloadScoreboardAfterNewRun();
+    }
+
+    // The previous window is paid first only when the one before it was the last paid, i.e. a tick stepped over
+    // it; windows missed while no instance was running are not paid after the fact
+    private void payThrough(long current) {
+        long first = bonusPayoutService.lastCompletedWindow()
+                .filter(last -> last == current - 2)
+                .map(last -> current - 1)
+                .orElse(current);
+        for (long window = first; window <= current; window++) {
+            long paying = window;
+            Optional<BonusRunReport> report = bonusPayoutService.payWindow(paying, DAILY_BONUS);
+            report.ifPresent(r -> gameMetrics.recordBonusRun(r, DAILY_BONUS));
+            report.ifPresentOrElse(
+                    r -> log.info("Added Daily Bonus to %d players (%d ledger rows) in %d ms using %s payout"
+                            .formatted(r.getPlayersPaid(), r.getLedgerRows(), r.getDurationMillis(), r.getMode())),
+                    () -> log.info("Daily Bonus for window %d was already paid".formatted(paying)));
+        }
+    }
+
+    // Every balance moved in a run, so the board is reloaded in one pass instead of one update per player - but
+    // only once some instance has finished a window this one has not reloaded for yet
+    private void reloadScoreboardAfterNewRun() {
+        Optional<Long> completed = bonusPayoutService.lastCompletedWindow();
+        if (completed.isPresent() && completed.get() > reloadedThroughWindow) {
+            reloadedThroughWindow = completed.get();
+            scoreboardService.reload();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package app.scheduler;
+
+import app.archive.model.ArchiveTable;
+import app.archive.service.ArchiveService;
+import app.scheduler.service.SchedulerLeaseService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Component
+@Slf4j
+public class HistoryArchival {
+    static final String LOCK_NAME = "history-archival";
+
+    private final ArchiveService archiveService;
+    private final SchedulerLeaseService schedulerLeaseService;
+    private final boolean enabled;
+    private final Duration lease;
+
+    @Autowired
+    public HistoryArchival(ArchiveService archiveService,
+                           SchedulerLeaseService schedulerLeaseService,
+                           @Value("${app.archive.enabled:true}") boolean enabled,
+                           @Value("${app.archive.lease-millis:3000000}") long leaseMillis) {
+        this.archiveService = archiveService;
+        this.schedulerLeaseService = schedulerLeaseService;
+        this.enabled = enabled;
+        this.lease = Duration.ofMillis(leaseMillis);
+    }
+
+    // Nothing needs archiving right at startup, so the first run waits a full period
+    @Scheduled(fixedDelayString = "${app.archive.period-millis:3600000}", initialDelayString = "${app.archive.period-millis:3600000}")
+    public void archiveColdHistory() {
+        if (!enabled) {
+            return;
+        }
+        if (!schedulerLeaseService.tryAcquire(LOCK_NAME, lease)) {
+            log.info("History archival is running on another instance");
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            for (ArchiveTable table : ArchiveTable.values()) {
+                long start = System.currentTimeMillis();
+                long moved = archiveService.archive(table, now);
+                log.info("Archived %d %s rows in %d ms".formatted(moved, table.getHotTable(), System.currentTimeMillis() - start));
+            }
+        } finally {
+            schedulerLeaseService.release(LOCK_NAME);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package app.scheduler;
+
+import app.scoreboard.service.ScoreboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Every instance keeps its own scoreboard, so like chat polling this runs everywhere and takes no lease. It picks
+// up the changes committed on other instances, which the after-commit updates only apply on the instance that made them
+@Component
+public class ScoreboardReload {
+
+    private final ScoreboardService scoreboardService;
+
+    @Autowired
+    public ScoreboardReload(ScoreboardService scoreboardService) {
+        this.scoreboardService = scoreboardService;
+    }
+
+    // The first run waits a full period; the scoreboard is already loaded on startup
+    @Scheduled(fixedDelayString = "${app.scoreboard.reload-millis:60000}",
+            initialDelayString = "${app.scoreboard.reload-millis:60000}")
+    public void reloadScoreboard() {
+        scoreboardService.reload();
+    }
+}
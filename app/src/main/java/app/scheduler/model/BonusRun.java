@@ -0,0 +1,37 @@
+package app.scheduler.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "bonus_run")
+public class BonusRun {
+
+    // Index of the payout window since the epoch, so every node derives the same key for the same run
+    @Id
+    private Long payoutWindow;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BonusRunStatus status;
+
+    // Highest player id paid so far; chunks resume after it
+    @Column(nullable = false)
+    private UUID lastPlayerId;
+
+    private int playersPaid;
+
+    private int ledgerRows;
+
+    private LocalDateTime startedOn;
+
+    private LocalDateTime completedOn;
+}
@@ -0,0 +1,17 @@
+package app.scheduler.model;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class BonusRunReport {
+
+    private final PayoutMode mode;
+
+    private final int playersPaid;
+
+    private final int ledgerRows;
+
+    private final long durationMillis;
+}
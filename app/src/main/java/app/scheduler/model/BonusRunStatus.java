@@ -0,0 +1,6 @@
+package app.scheduler.model;
+
+public enum BonusRunStatus {
+    RUNNING,
+    COMPLETED
+}
@@ -0,0 +1,8 @@
+package app.scheduler.model;
+
+public enum PayoutMode {
+    // One UPDATE for all balances and one INSERT ... SELECT for the ledger rows
+    BULK,
+    // Keyset pages of player ids, for databases without a server-side UUID generator
+    CHUNKED
+}
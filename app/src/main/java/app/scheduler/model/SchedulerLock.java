@@ -0,0 +1,24 @@
+package app.scheduler.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "scheduler_lock")
+public class SchedulerLock {
+
+    @Id
+    private String name;
+
+    @Column(nullable = false)
+    private LocalDateTime lockedUntil;
+
+    private String lockedBy;
+}
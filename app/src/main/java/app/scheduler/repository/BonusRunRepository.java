@@ -0,0 +1,37 @@
+package app.scheduler.repository;
+
+import app.scheduler.model.BonusRun;
+import app.scheduler.model.BonusRunStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface BonusRunRepository extends JpaRepository<BonusRun, Long> {
+
+    // Moves the cursor only if nobody else moved it first, so a chunk can never be committed twice
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update BonusRun r set r.lastPlayerId = :next, r.playersPaid = r.playersPaid + :paid, r.ledgerRows = r.ledgerRows + :rows
+            where r.payoutWindow = :window and r.lastPlayerId = :expected and r.status = :running
+            """)
+    int advance(@Param("window") Long window, @Param("expected") UUID expected, @Param("next") UUID next,
+                @Param("paid") int paid, @Param("rows") int rows, @Param("running") BonusRunStatus running);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update BonusRun r set r.status = :completed, r.completedOn = :now,
+            r.playersPaid = r.playersPaid + :paid, r.ledgerRows = r.ledgerRows + :rows
+            where r.payoutWindow = :window and r.lastPlayerId = :expected and r.status = :running
+            """)
+    int complete(@Param("window") Long window, @Param("expected") UUID expected, @Param("paid") int paid, @Param("rows") int rows,
+                 @Param("now") LocalDateTime now, @Param("running") BonusRunStatus running, @Param("completed") BonusRunStatus completed);
+
+    Optional<BonusRun> findFirstByStatusOrderByPayoutWindowDesc(BonusRunStatus status);
+}
@@ -0,0 +1,172 @@
+package app.scheduler.service;
+
+import app.credit.model.Credits;
+import app.exception.DomainException;
+import app.scheduler.model.BonusRun;
+import app.scheduler.model.BonusRunReport;
+import app.scheduler.model.BonusRunStatus;
+import app.scheduler.model.PayoutMode;
+import app.scheduler.repository.BonusRunRepository;
+import app.transaction.model.Transaction;
+import app.transaction.model.TransactionType;
+import app.transaction.repository.LedgerJdbcRepository;
+import app.user.model.User;
+import app.user.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+// Pays a fixed bonus to every player without loading the players into memory. Every payout window has a
+// bonus_run row whose cursor is moved in the same transaction as the credits, so a retried window resumes
+// after the last committed chunk and a finished window is never paid again.
+@Slf4j
+@Service
+public class BonusPayoutService {
+
+    public static final String DESCRIPTION = "Daily Bonus";
+    private static final UUID FIRST_ID = new UUID(0, 0);
+
+    private final UserRepository userRepository;
+    private final LedgerJdbcRepository ledgerJdbcRepository;
+    private final BonusRunRepository bonusRunRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final PayoutMode mode;
+    private final int chunkSize;
+
+    @Autowired
+    public BonusPayoutService(UserRepository userRepository,
+                              LedgerJdbcRepository ledgerJdbcRepository,
+                              BonusRunRepository bonusRunRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.bonus.payout-mode:BULK}") PayoutMode mode,
+                              @Value("${app.bonus.chunk-size:1000}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.ledgerJdbcRepository = ledgerJdbcRepository;
+        this.bonusRunRepository = bonusRunRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.mode = mode;
+        this.chunkSize = chunkSize;
+    }
+
+    // Empty when the window has already been paid
+    public Optional<BonusRunReport> payWindow(long window, Credits amount) {
+        BonusRun run = openRun(window);
+        if (run.getStatus() == BonusRunStatus.COMPLETED) {
+            return Optional.empty();
+        }
+        // A run that already committed chunks has to finish chunk by chunk, whatever the configured mode
+        if (mode == PayoutMode.BULK && FIRST_ID.equals(run.getLastPlayerId()) && ledgerJdbcRepository.supportsInsertSelect()) {
+            return Optional.of(payBulk(window, amount));
+        }
+        return Optional.of(payChunked(window, run.getLastPlayerId(), amount));
+    }
+
+    // Newest window any node has finished paying
+    public Optional<Long> lastCompletedWindow() {
+        return bonusRunRepository.findFirstByStatusOrderByPayoutWindowDesc(BonusRunStatus.COMPLETED).map(BonusRun::getPayoutWindow);
+    }
+
+    // One INSERT ... SELECT for the ledger and one UPDATE for the balances, committed together with the run. Each
+    // statement would see the players table as of its own start, so the UPDATE credits the players the INSERT wrote
+    // rows for rather than reading the table again; a player registering in between gets neither.
+    public BonusRunReport payBulk(long window, Credits amount) {
+        long start = System.nanoTime();
+        // Millisecond precision survives the round trip through every database, so the UPDATE finds the rows again
+        LocalDateTime paidOn = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        int[] rows = transactionTemplate.execute(status -> {
+            int ledger = ledgerJdbcRepository.insertForAllPlayers(amount, DESCRIPTION, TransactionType.RECEIVE, paidOn);
+            int paid = userRepository.creditAllWithLedgerRow(amount, DESCRIPTION, paidOn);
+            fence(bonusRunRepository.complete(window, FIRST_ID, paid, ledger, LocalDateTime.now(),
+                    BonusRunStatus.RUNNING, BonusRunStatus.COMPLETED), window);
+            return new int[]{paid, ledger};
+        });
+        return report(PayoutMode.BULK, rows[0], rows[1], start);
+    }
+
+    // Walks the players in id order from the run's cursor, committing one chunk of balances, ledger rows
+    // and cursor at a time
+    public BonusRunReport payChunked(long window, UUID from, Credits amount) {
+        long start = System.nanoTime();
+        int paid = 0;
+        UUID after = from;
+        while (true) {
+            List<UUID> ids = userRepository.findIdsAfter(after, Limit.of(chunkSize));
+            UUID expected = after;
+            if (ids.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> fence(bonusRunRepository.complete(window, expected, 0, 0,
+                        LocalDateTime.now(), BonusRunStatus.RUNNING, BonusRunStatus.COMPLETED), window));
+                break;
+            }
+            paid += transactionTemplate.execute(status -> payChunk(window, expected, ids, amount));
+            after = ids.get(ids.size() - 1);
+        }
+        return report(PayoutMode.CHUNKED, paid, paid, start);
+    }
+
+    private int payChunk(long window, UUID expected, List<UUID> ids, Credits amount) {
+        fence(bonusRunRepository.advance(window, expected, ids.get(ids.size() - 1), ids.size(), ids.size(), BonusRunStatus.RUNNING), window);
+        int updated = userRepository.creditAll(ids, amount);
+        LocalDateTime now = LocalDateTime.now();
+        List<Transaction> ledger = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            ledger.add(Transaction.builder()
+                    .id(UUID.randomUUID())
+                    .user(User.builder().id(id).build())
+                    .credits(amount)
+                    .description(DESCRIPTION)
+                    .transactionType(TransactionType.RECEIVE)
+                    .createdOn(now)
+                    .build());
+        }
+        ledgerJdbcRepository.batchInsert(ledger);
+        return updated;
+    }
+
+    private BonusRun openRun(long window) {
+        Optional<BonusRun> existing = bonusRunRepository.findById(window);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            return requiresNew.execute(status -> bonusRunRepository.saveAndFlush(BonusRun.builder()
+                    .payoutWindow(window)
+                    .status(BonusRunStatus.RUNNING)
+                    .lastPlayerId(FIRST_ID)
+                    .startedOn(LocalDateTime.now())
+                    .build()));
+        } catch (DataIntegrityViolationException e) {
+            return bonusRunRepository.findById(window).orElseThrow(() -> e);
+        }
+    }
+
+    // The cursor no longer matches what this run read, so another node got there first; roll the chunk back
+    private void fence(int updated, long window) {
+        if (updated != 1) {
+            throw new DomainException("Bonus run for window [%d] was advanced by another instance".formatted(window));
+        }
+    }
+
+    private BonusRunReport report(PayoutMode mode, int playersPaid, int ledgerRows, long start) {
+        return BonusRunReport.builder()
+                .mode(mode)
+                .playersPaid(playersPaid)
+                .ledgerRows(ledgerRows)
+                .durationMillis((System.nanoTime() - start) / 1_000_000)
+                .build();
+    }
+}
@@ -0,0 +1,64 @@
+package app.scheduler.service;
+
+import app.scheduler.model.SchedulerLock;
+import app.scheduler.repository.SchedulerLockRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Database-backed lease so that only one instance runs a given scheduled job at a time.
+// A holder that dies simply lets its lease expire; nothing has to clean up after it.
+@Slf4j
+@Service
+public class SchedulerLeaseService {
+
+    private final SchedulerLockRepository schedulerLockRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String owner;
+
+    @Autowired
+    public SchedulerLeaseService(SchedulerLockRepository schedulerLockRepository, PlatformTransactionManager transactionManager) {
+        this.schedulerLockRepository = schedulerLockRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.owner = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    public boolean tryAcquire(String name, Duration lease) {
+        ensureExists(name);
+        LocalDateTime now = LocalDateTime.now();
+        Integer updated = transactionTemplate.execute(status -> schedulerLockRepository.acquire(name, owner, now, now.plus(lease)));
+        return updated != null && updated == 1;
+    }
+
+    public void release(String name) {
+        transactionTemplate.executeWithoutResult(status -> schedulerLockRepository.release(name, owner, LocalDateTime.now()));
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    private void ensureExists(String name) {
+        if (schedulerLockRepository.existsById(name)) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> schedulerLockRepository.saveAndFlush(SchedulerLock.builder()
+                    .name(name)
+                    .lockedUntil(LocalDateTime.now().minusSeconds(1))
+                    .build()));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Lock %s was created by another instance".formatted(name));
+        }
+    }
+}
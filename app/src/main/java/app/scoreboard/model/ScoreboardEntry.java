@@ -0,0 +1,54 @@
+package app.scoreboard.model;
+
+import app.credit.model.Credits;
+import app.user.model.PlayerRow;
+import app.user.model.User;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Comparator;
+import java.util.UUID;
+
+// Immutable copy of the fields the scoreboard shows and sorts by, so the index never holds on to entities
+@Getter
+@Builder
+@AllArgsConstructor
+public class ScoreboardEntry {
+
+    // Highest rank first, then richest first, then by id so that every player has exactly one slot
+    public static final Comparator<ScoreboardEntry> ORDER = Comparator
+            .comparingInt(ScoreboardEntry::getUserRank).reversed()
+            .thenComparing(Comparator.comparing(ScoreboardEntry::getCredits).reversed())
+            .thenComparing(ScoreboardEntry::getId);
+
+    private final UUID id;
+
+    private final String username;
+
+    private final String profilePicture;
+
+    private final int userRank;
+
+    private final Credits credits;
+
+    public static ScoreboardEntry of(User user) {
+        return ScoreboardEntry.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .profilePicture(user.getProfilePicture())
+                .userRank(user.getUserRank() == null ? 0 : user.getUserRank())
+                .credits(user.getCredits() == null ? Credits.ZERO : user.getCredits())
+                .build();
+    }
+
+    public static ScoreboardEntry of(PlayerRow row) {
+        return ScoreboardEntry.builder()
+                .id(row.getId())
+                .username(row.getUsername())
+                .profilePicture(row.getProfilePicture())
+                .userRank(row.getUserRank() == null ? 0 : row.getUserRank())
+                .credits(row.getCredits() == null ? Credits.ZERO : row.getCredits())
+                .build();
+    }
+}
@@ -0,0 +1,225 @@
+package app.scoreboard.service;
+
+import app.scoreboard.model.ScoreboardEntry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Order-statistic treap over ScoreboardEntry.ORDER. Every node knows the size of its subtree, so inserts,
+// removals, "position of player" and "entry at position" all take O(log n), and a page costs
+// O(log n + page size). Reads share a lock; writes are exclusive.
+public class ScoreboardIndex {
+
+    private static final class Node {
+        private final ScoreboardEntry entry;
+        private final int priority;
+        private Node left;
+        private Node right;
+        private int size = 1;
+
+        private Node(ScoreboardEntry entry, int priority) {
+            this.entry = entry;
+            this.priority = priority;
+        }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, ScoreboardEntry> byId = new HashMap<>();
+    private final SplittableRandom random = new SplittableRandom();
+    private Node root;
+
+    public void upsert(ScoreboardEntry entry) {
+        lock.writeLock().lock();
+        try {
+            ScoreboardEntry previous = byId.put(entry.getId(), entry);
+            if (previous != null) {
+                root = delete(root, previous);
+            }
+            root = insert(root, new Node(entry, random.nextInt()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            ScoreboardEntry previous = byId.remove(id);
+            if (previous != null) {
+                root = delete(root, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void replaceAll(Collection<ScoreboardEntry> entries) {
+        lock.writeLock().lock();
+        try {
+            byId.clear();
+            root = null;
+            for (ScoreboardEntry entry : entries) {
+                ScoreboardEntry previous = byId.put(entry.getId(), entry);
+                if (previous != null) {
+                    root = delete(root, previous);
+                }
+                root = insert(root, new Node(entry, random.nextInt()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size(root);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<ScoreboardEntry> top(int limit) {
+        return page(0, limit);
+    }
+
+    // Entries at positions [offset + 1, offset + limit]
+    public List<ScoreboardEntry> page(int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            int from = Math.max(offset, 0);
+            int to = Math.min(from + Math.max(limit, 0), size(root));
+            if (from >= to) {
+                return Collections.emptyList();
+            }
+            List<ScoreboardEntry> out = new ArrayList<>(to - from);
+            collect(root, from, to, 0, out);
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 1-based position on the scoreboard, or 0 when the player is not on it
+    public int positionOf(UUID id) {
+        lock.readLock().lock();
+        try {
+            ScoreboardEntry entry = byId.get(id);
+            return entry == null ? 0 : countBefore(root, entry) + 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Node insert(Node node, Node fresh) {
+        if (node == null) {
+            return fresh;
+        }
+        if (fresh.priority > node.priority) {
+            Node[] halves = split(node, fresh.entry);
+            fresh.left = halves[0];
+            fresh.right = halves[1];
+            return update(fresh);
+        }
+        if (ScoreboardEntry.ORDER.compare(fresh.entry, node.entry) < 0) {
+            node.left = insert(node.left, fresh);
+        } else {
+            node.right = insert(node.right, fresh);
+        }
+        return update(node);
+    }
+
+    private Node delete(Node node, ScoreboardEntry entry) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = ScoreboardEntry.ORDER.compare(entry, node.entry);
+        if (cmp == 0) {
+            return merge(node.left, node.right);
+        }
+        if (cmp < 0) {
+            node.left = delete(node.left, entry);
+        } else {
+            node.right = delete(node.right, entry);
+        }
+        return update(node);
+    }
+
+    // Splits into nodes ordered before the key and nodes ordered at or after it
+    private Node[] split(Node node, ScoreboardEntry key) {
+        if (node == null) {
+            return new Node[]{null, null};
+        }
+        if (ScoreboardEntry.ORDER.compare(node.entry, key) < 0) {
+            Node[] halves = split(node.right, key);
+            node.right = halves[0];
+            return new Node[]{update(node), halves[1]};
+        }
+        Node[] halves = split(node.left, key);
+        node.left = halves[1];
+        return new Node[]{halves[0], update(node)};
+    }
+
+    private Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return update(left);
+        }
+        right.left = merge(left, right.left);
+        return update(right);
+    }
+
+    private int countBefore(Node node, ScoreboardEntry entry) {
+        int count = 0;
+        while (node != null) {
+            int cmp = ScoreboardEntry.ORDER.compare(entry, node.entry);
+            if (cmp <= 0) {
+                if (cmp == 0) {
+                    return count + size(node.left);
+                }
+                node = node.left;
+            } else {
+                count += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return count;
+    }
+
+    // In-order walk that only descends into subtrees overlapping [from, to); base is the position of the
+    // first entry under this node
+    private void collect(Node node, int from, int to, int base, List<ScoreboardEntry> out) {
+        if (node == null || base >= to || base + node.size <= from) {
+            return;
+        }
+        int here = base + size(node.left);
+        collect(node.left, from, to, base, out);
+        if (here >= from && here < to) {
+            out.add(node.entry);
+        }
+        collect(node.right, from, to, here + 1, out);
+    }
+
+    private static Node update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+        return node;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+}
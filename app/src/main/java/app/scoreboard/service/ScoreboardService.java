@@ -0,0 +1,110 @@
+package app.scoreboard.service;
+
+import app.scoreboard.model.ScoreboardEntry;
+import app.user.model.User;
+import app.user.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Keeps the in-memory scoreboard in step with the players table. Changes made inside a transaction are
+// applied only after it commits, so a rolled back rank-up or hack never shows up on the board. Only the instance
+// that committed a change applies it; the others catch up on their next reload (app.scoreboard.reload-millis).
+@Slf4j
+@Service
+public class ScoreboardService {
+
+    private final UserRepository userRepository;
+    // Guards swapping the index against apply(), and the changes recorded while a reload runs
+    private final Object swapLock = new Object();
+    private volatile ScoreboardIndex index = new ScoreboardIndex();
+    // Changes applied since the running reload started reading, by player; null marks a removal. Null when no reload runs
+    private Map<UUID, ScoreboardEntry> changedDuringReload;
+
+    @Autowired
+    public ScoreboardService(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    // Builds a new index off to the side and swaps it in. Changes applied while the table was being read may be newer
+    // than what the read saw, so they are replayed onto the new index before the swap. Reloads run one at a time.
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reload() {
+        synchronized (swapLock) {
+            changedDuringReload = new HashMap<>();
+        }
+        try {
+            List<ScoreboardEntry> entries = userRepository.findActivePlayerRows().stream()
+                    .map(ScoreboardEntry::of)
+                    .toList();
+            ScoreboardIndex reloaded = new ScoreboardIndex();
+            reloaded.replaceAll(entries);
+            synchronized (swapLock) {
+                changedDuringReload.forEach((id, entry) -> applyTo(reloaded, id, entry));
+                index = reloaded;
+            }
+            log.info("Loaded %d players into the scoreboard".formatted(entries.size()));
+        } finally {
+            synchronized (swapLock) {
+                changedDuringReload = null;
+            }
+        }
+    }
+
+    public void refresh(User user) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(user);
+                }
+            });
+        } else {
+            apply(user);
+        }
+    }
+
+    public List<ScoreboardEntry> getPage(int page, int size) {
+        return index.page(page * size, size);
+    }
+
+    public List<ScoreboardEntry> getTop(int limit) {
+        return index.top(limit);
+    }
+
+    public int getPosition(UUID userId) {
+        return index.positionOf(userId);
+    }
+
+    public int getSize() {
+        return index.size();
+    }
+
+    // Reads the entity when the change is applied, so several refreshes in one transaction end up with its final state
+    private void apply(User user) {
+        ScoreboardEntry entry = user.isActive() ? ScoreboardEntry.of(user) : null;
+        synchronized (swapLock) {
+            applyTo(index, user.getId(), entry);
+            if (changedDuringReload != null) {
+                changedDuringReload.put(user.getId(), entry);
+            }
+        }
+    }
+
+    private static void applyTo(ScoreboardIndex target, UUID id, ScoreboardEntry entry) {
+        if (entry != null) {
+            target.upsert(entry);
+        } else {
+            target.remove(id);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package app.security;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+// Form login and the actuator's Basic auth both check passwords here; WebMvcConfiguration wires it into both chains.
+// A sign-in the hashing pool turned away becomes an authentication failure, so it ends on the login page instead of
+// escaping the filter chain as a 500.
+public class HashingAuthenticationProvider extends DaoAuthenticationProvider {
+
+    public HashingAuthenticationProvider(UserDetailsService userDetailsService,
+                                         UserDetailsPasswordService userDetailsPasswordService,
+                                         PasswordEncoder passwordEncoder) {
+        super(passwordEncoder);
+        setUserDetailsService(userDetailsService);
+        setUserDetailsPasswordService(userDetailsPasswordService);
+    }
+
+    @Override
+    protected void additionalAuthenticationChecks(UserDetails userDetails, UsernamePasswordAuthenticationToken authentication) {
+        try {
+            super.additionalAuthenticationChecks(userDetails, authentication);
+        } catch (PasswordHashingBusyException e) {
+            throw new AuthenticationServiceException(e.getMessage(), e);
+        }
+    }
+
+    // The rehash after a good password can be turned away too, when the pool fills up after upgradeEncoding said
+    // yes. The password has been checked by then, so the sign-in goes ahead on the existing hash: a user without
+    // a password gives the encoder nothing to upgrade, and the rehash happens on a later sign-in.
+    @Override
+    protected Authentication createSuccessAuthentication(Object principal, Authentication authentication, UserDetails user) {
+        try {
+            return super.createSuccessAuthentication(principal, authentication, user);
+        } catch (PasswordHashingBusyException e) {
+            UserDetails withoutHash = User.withUserDetails(user).password("").build();
+            return super.createSuccessAuthentication(principal, authentication, withoutHash);
+        }
+    }
+}
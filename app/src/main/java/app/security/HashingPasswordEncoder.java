@@ -0,0 +1,125 @@
+package app.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// BCrypt on a small pool of its own instead of the request threads. Hashing is pure CPU, so more threads than cores
+// only adds queueing; the queue is bounded and a full one rejects at once, so a burst of sign-ins can no longer tie up
+// every Tomcat thread behind hashes that finish long after the client gave up.
+@Slf4j
+public class HashingPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$");
+    private static final String CALIBRATION_PASSWORD = "calibration";
+
+    @Getter
+    private final int cost;
+    private final BCryptPasswordEncoder bcrypt;
+    private final ThreadPoolExecutor executor;
+    private final Timer hashing;
+    private final Counter rejected;
+
+    public HashingPasswordEncoder(int cost, int threads, int queueCapacity, MeterRegistry meterRegistry) {
+        this.cost = cost;
+        this.bcrypt = new BCryptPasswordEncoder(cost);
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("password-hashing-");
+        threadFactory.setDaemon(true);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        this.hashing = Timer.builder("password.hashing")
+                .description("Time from handing a password to the hashing pool until its hash is done, queueing included")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("password.hashing.rejected").register(meterRegistry);
+        meterRegistry.gauge("password.hashing.queued", executor, pool -> pool.getQueue().size());
+    }
+
+    // Picks the highest cost whose hash still fits in the target time on this machine. Every step doubles the work,
+    // so the quickest of a few hashes at the minimum cost is enough to extrapolate from.
+    public static int calibrateCost(Duration target, int minCost, int maxCost) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minCost);
+        probe.encode(CALIBRATION_PASSWORD);
+        long nanos = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long started = System.nanoTime();
+            probe.encode(CALIBRATION_PASSWORD);
+            nanos = Math.min(nanos, System.nanoTime() - started);
+        }
+
+        int cost = minCost;
+        while (cost < maxCost && nanos * 2 <= target.toNanos()) {
+            nanos *= 2;
+            cost++;
+        }
+        log.info("BCrypt cost {} takes about {} ms here (target {} ms)", cost, TimeUnit.NANOSECONDS.toMillis(nanos), target.toMillis());
+        return cost;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> bcrypt.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> bcrypt.matches(rawPassword, encodedPassword));
+    }
+
+    // A hash made with a different cost is redone on the next sign-in, so the cost can move either way without
+    // locking anyone out. Only while the pool has nothing queued - a rehash is one more full hash on the sign-in.
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != cost && executor.getQueue().isEmpty();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Callable<T> work) {
+        long started = System.nanoTime();
+        Future<T> result;
+        try {
+            result = executor.submit(work);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingBusyException();
+        }
+
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a password hash", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            hashing.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+}
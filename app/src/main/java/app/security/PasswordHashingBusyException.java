@@ -0,0 +1,13 @@
+package app.security;
+
+import app.exception.DomainException;
+
+// The hashing pool is full. Thrown straight away instead of queueing the request behind hashes it would wait seconds for.
+public class PasswordHashingBusyException extends DomainException {
+
+    public static final String MESSAGE = "Too many sign-ins right now, please try again in a moment.";
+
+    public PasswordHashingBusyException() {
+        super(MESSAGE);
+    }
+}
@@ -1,6 +1,7 @@
 package app.transaction.model;
 
 
+import app.credit.model.Credits;
 import app.user.model.User;
 import jakarta.persistence.*;
 import lombok.*;
@@ -14,6 +15,7 @@ import java.util.UUID;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Table(indexes = @Index(name = "idx_transaction_created_on", columnList = "created_on, id"))
 public class Transaction {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -26,7 +28,7 @@ public class Transaction {
     @Enumerated(EnumType.STRING)
     private TransactionType transactionType;
 
-    private Double credits;
+    private Credits credits;
 
     private String description;
 
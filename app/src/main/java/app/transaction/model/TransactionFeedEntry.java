@@ -0,0 +1,26 @@
+package app.transaction.model;
+
+import app.credit.model.Credits;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Flat row for the admin transaction feed, built from a JPQL constructor expression instead of a Transaction with its User graph
+@Getter
+@AllArgsConstructor
+public class TransactionFeedEntry {
+
+    private final UUID id;
+
+    private final String username;
+
+    private final TransactionType transactionType;
+
+    private final Credits credits;
+
+    private final String description;
+
+    private final LocalDateTime createdOn;
+}
@@ -0,0 +1,20 @@
+package app.transaction.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class TransactionFeedPage {
+
+    private final List<TransactionFeedEntry> entries;
+
+    // Cursor for the next (older) page, or null when this is the last one
+    private final String nextCursor;
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,76 @@
+package app.transaction.repository;
+
+import app.credit.model.Credits;
+import app.transaction.model.Transaction;
+import app.transaction.model.TransactionType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Plain JDBC access to the transaction table for bulk writes that do not need the persistence context
+@Repository
+public class LedgerJdbcRepository {
+
+    private static final String INSERT_SQL =
+            "insert into transaction (id, user_id, transaction_type, credits, description, created_on) values (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile String uuidFunction;
+
+    @Autowired
+    public LedgerJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Writes one ledger row per player with a single INSERT ... SELECT. Returns -1 when the database has no
+    // UUID generator we know of, in which case the caller has to write the rows itself.
+    public int insertForAllPlayers(Credits credits, String description, TransactionType transactionType, LocalDateTime createdOn) {
+        String uuid = uuidFunction();
+        if (uuid == null) {
+            return -1;
+        }
+        return jdbcTemplate.update(
+                "insert into transaction (id, user_id, transaction_type, credits, description, created_on) select " + uuid + ", p.id, ?, ?, ?, ? from players p",
+                transactionType.name(), credits.getMilli(), description, Timestamp.valueOf(createdOn));
+    }
+
+    public boolean supportsInsertSelect() {
+        return uuidFunction() != null;
+    }
+
+    public void batchInsert(List<Transaction> transactions) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, transactions, transactions.size(), this::bind);
+    }
+
+    public void insert(Transaction transaction) {
+        jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, transaction));
+    }
+
+    private String uuidFunction() {
+        if (uuidFunction == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            uuidFunction = switch (product == null ? "" : product) {
+                case "PostgreSQL" -> "gen_random_uuid()";
+                case "H2" -> "random_uuid()";
+                default -> "";
+            };
+        }
+        return uuidFunction.isEmpty() ? null : uuidFunction;
+    }
+
+    private void bind(PreparedStatement ps, Transaction transaction) throws SQLException {
+        ps.setObject(1, transaction.getId());
+        ps.setObject(2, transaction.getUser().getId());
+        ps.setString(3, transaction.getTransactionType().name());
+        ps.setLong(4, transaction.getCredits().getMilli());
+        ps.setString(5, transaction.getDescription());
+        ps.setTimestamp(6, Timestamp.valueOf(transaction.getCreatedOn()));
+    }
+}
@@ -0,0 +1,45 @@
+package app.transaction.repository;
+
+import app.transaction.model.Transaction;
+import app.transaction.model.TransactionFeedEntry;
+import app.user.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Repository
+public interface TransactionRepository extends JpaRepository<Transaction, UUID> {
+    public List<Transaction> findAllByOrderByCreatedOnDesc();
+
+    List<Object> findByUserAndDescription(User updatedAttacker, String hack);
+
+    @Query("""
+            select new app.transaction.model.TransactionFeedEntry(t.id, u.username, t.transactionType, t.credits, t.description, t.createdOn)
+            from Transaction t join t.user u
+            where t.createdOn < :createdOn or (t.createdOn = :createdOn and t.id < :id)
+            order by t.createdOn desc, t.id desc
+            """)
+    List<TransactionFeedEntry> findFeedBefore(@Param("createdOn") LocalDateTime createdOn, @Param("id") UUID id, Limit limit);
+
+    // Must be consumed inside a transaction; rows are fetched from a server-side cursor in batches
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new app.transaction.model.TransactionFeedEntry(t.id, u.username, t.transactionType, t.credits, t.description, t.createdOn)
+            from Transaction t join t.user u
+            order by t.createdOn desc, t.id desc
+            """)
+    Stream<TransactionFeedEntry> streamFeed();
+}
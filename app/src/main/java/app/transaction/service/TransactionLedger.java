@@ -0,0 +1,183 @@
+package app.transaction.service;
+
+import app.metrics.GameMetrics;
+import app.transaction.model.Transaction;
+import app.transaction.repository.LedgerJdbcRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Write-behind appender for ledger entries. Entries are queued in a bounded buffer and a single flusher thread
+// writes them with JDBC batch inserts once a batch fills up or the oldest entry has waited for the flush interval.
+@Slf4j
+@Component
+public class TransactionLedger {
+
+    private final LedgerJdbcRepository ledgerJdbcRepository;
+    private final GameMetrics gameMetrics;
+    private final TransactionTemplate requiresNew;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final BlockingQueue<Transaction> queue;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    @Autowired
+    public TransactionLedger(LedgerJdbcRepository ledgerJdbcRepository,
+                             PlatformTransactionManager transactionManager,
+                             GameMetrics gameMetrics,
+                             @Value("${app.ledger.write-behind.enabled:false}") boolean enabled,
+                             @Value("${app.ledger.queue-capacity:10000}") int queueCapacity,
+                             @Value("${app.ledger.batch-size:500}") int batchSize,
+                             @Value("${app.ledger.flush-interval-millis:200}") long flushIntervalMillis) {
+        this.ledgerJdbcRepository = ledgerJdbcRepository;
+        this.gameMetrics = gameMetrics;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::runFlusher, "ledger-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    // Returns false when the entry was not taken and the caller has to persist it itself
+    public boolean append(Transaction transaction) {
+        if (!running) {
+            return false;
+        }
+        // The id has to be set before the entry is queued, since the flusher may write it straight away
+        boolean assignedId = transaction.getId() == null;
+        if (assignedId) {
+            transaction.setId(UUID.randomUUID());
+        }
+
+        // Entries created inside a transaction are only queued once it commits, so a rolled back hack leaves no ledger rows
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    if (!queue.offer(transaction)) {
+                        requiresNew.executeWithoutResult(status -> insert(transaction));
+                    }
+                }
+            });
+            return true;
+        }
+        if (queue.offer(transaction)) {
+            return true;
+        }
+        // The caller saves it through JPA, which only inserts an entity whose generated id is still unset
+        if (assignedId) {
+            transaction.setId(null);
+        }
+        return false;
+    }
+
+    public int pending() {
+        return queue.size();
+    }
+
+    // Writes everything that is currently queued
+    public void flush() {
+        List<Transaction> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        flusher.interrupt();
+        flusher.join();
+        flush();
+        log.info("Ledger flushed on shutdown");
+    }
+
+    private void runFlusher() {
+        while (running) {
+            List<Transaction> batch = new ArrayList<>(batchSize);
+            try {
+                Transaction first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    Transaction next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Woken up by shutdown - the partial batch is still written below and the rest by shutdown()
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+        }
+    }
+
+    private void write(List<Transaction> batch) {
+        try {
+            long started = System.nanoTime();
+            ledgerJdbcRepository.batchInsert(batch);
+            gameMetrics.recordLedgerInsert(GameMetrics.LEDGER_BATCH, batch.size(), System.nanoTime() - started);
+        } catch (RuntimeException e) {
+            // One bad row fails the whole batch - fall back to row by row so the rest still gets written
+            log.error("Ledger batch of %d entries failed, retrying one by one".formatted(batch.size()), e);
+            for (Transaction transaction : batch) {
+                try {
+                    insert(transaction);
+                } catch (RuntimeException rowError) {
+                    log.error("Dropping ledger entry [%s] for user [%s]".formatted(transaction.getId(), transaction.getUser().getId()), rowError);
+                }
+            }
+        }
+    }
+
+    private void insert(Transaction transaction) {
+        long started = System.nanoTime();
+        ledgerJdbcRepository.insert(transaction);
+        gameMetrics.recordLedgerInsert(GameMetrics.LEDGER_SINGLE, 1, System.nanoTime() - started);
+    }
+}
@@ -0,0 +1,125 @@
+package app.transaction.service;
+
+import app.archive.repository.ArchiveJdbcRepository;
+import app.credit.model.Credits;
+import app.pagination.KeysetCursor;
+import app.transaction.model.Transaction;
+import app.transaction.model.TransactionFeedEntry;
+import app.transaction.model.TransactionFeedPage;
+import app.transaction.model.TransactionType;
+import app.transaction.repository.TransactionRepository;
+import app.user.model.User;
+import app.user.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+public class TransactionService {
+    private final TransactionRepository transactionRepository;
+    private final UserRepository userRepository;
+    private final TransactionLedger transactionLedger;
+    private final ArchiveJdbcRepository archiveJdbcRepository;
+
+    @Autowired
+    public TransactionService(TransactionRepository transactionRepository, UserRepository userRepository, TransactionLedger transactionLedger,
+                              ArchiveJdbcRepository archiveJdbcRepository) {
+        this.transactionRepository = transactionRepository;
+        this.userRepository = userRepository;
+        this.transactionLedger = transactionLedger;
+        this.archiveJdbcRepository = archiveJdbcRepository;
+    }
+
+    public Transaction findTransactionById(UUID transactionId) {
+        return transactionRepository.findById(transactionId).orElse(null);
+    }
+
+    public void createTransaction(User user, Credits credits, String description, TransactionType transactionType) {
+        if(!credits.isPositive()) {
+            return;
+        }
+        Transaction transaction = Transaction.builder().user(user).credits(credits).description(description).transactionType(transactionType).createdOn(LocalDateTime.now()).build();
+        // Write-behind is disabled or its buffer is full - persist right away
+        if (!transactionLedger.append(transaction)) {
+            transactionRepository.save(transaction);
+        }
+    }
+
+    // Hot tier only - archived transactions are reachable through the feed and the export
+    public List<Transaction> getAllTransactions() {
+        return transactionRepository.findAllByOrderByCreatedOnDesc();
+    }
+
+    // One page of the whole ledger, newest first. A null cursor starts from the newest transaction. Archived
+    // rows are all older than the hot ones, so the archive is only read once the hot rows run out.
+    public TransactionFeedPage getTransactionFeed(String before, int size) {
+        KeysetCursor cursor = KeysetCursor.parse(before);
+        List<TransactionFeedEntry> entries = new ArrayList<>(
+                transactionRepository.findFeedBefore(cursor.getCreatedOn(), cursor.getId(), Limit.of(size + 1)));
+        if (entries.size() <= size) {
+            entries.addAll(archiveJdbcRepository.findFeedBefore(cursor.getCreatedOn(), cursor.getId(), size + 1 - entries.size()));
+        }
+        if (entries.size() <= size) {
+            return new TransactionFeedPage(entries, null);
+        }
+        entries.remove(size);
+        TransactionFeedEntry last = entries.get(size - 1);
+        return new TransactionFeedPage(entries, KeysetCursor.encode(last.getCreatedOn(), last.getId()));
+    }
+
+    // Writes the whole ledger as CSV, hot rows then archived ones, one row at a time without holding it in memory
+    @Transactional(readOnly = true)
+    public long exportTransactions(Writer writer) throws IOException {
+        writer.write("id,username,type,credits,description,created_on\n");
+        long[] rows = {0};
+        try (Stream<TransactionFeedEntry> feed = transactionRepository.streamFeed()) {
+            for (TransactionFeedEntry entry : (Iterable<TransactionFeedEntry>) feed::iterator) {
+                writeCsvRow(writer, entry, ++rows[0]);
+            }
+        }
+        try {
+            archiveJdbcRepository.streamFeed(entry -> {
+                try {
+                    writeCsvRow(writer, entry, ++rows[0]);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        return rows[0];
+    }
+
+    private static void writeCsvRow(Writer writer, TransactionFeedEntry entry, long row) throws IOException {
+        writer.write(entry.getId() + "," + csv(entry.getUsername()) + "," + entry.getTransactionType() + ","
+                + entry.getCredits() + "," + csv(entry.getDescription()) + "," + entry.getCreatedOn() + "\n");
+        if (row % 500 == 0) {
+            writer.flush();
+        }
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
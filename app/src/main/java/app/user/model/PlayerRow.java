@@ -0,0 +1,28 @@
+package app.user.model;
+
+import app.credit.model.Credits;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+// The player columns the list pages and the scoreboard are built from, read with a JPQL constructor expression.
+// No password hash, email or associations, and nothing for the persistence context to track or dirty-check.
+@Getter
+@AllArgsConstructor
+public class PlayerRow {
+
+    private final UUID id;
+
+    private final String username;
+
+    private final String profilePicture;
+
+    private final Integer userRank;
+
+    private final Credits credits;
+
+    private final UserRole role;
+
+    private final boolean active;
+}
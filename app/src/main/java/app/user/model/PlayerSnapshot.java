@@ -0,0 +1,50 @@
+package app.user.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.UUID;
+
+// Immutable, detached copy of the player fields the list pages show. Safe to share between requests
+// through the cache, unlike a managed User entity. Credits are left out on purpose: they change on
+// every hack and none of the cached views display them.
+@Getter
+@Builder
+@AllArgsConstructor
+public class PlayerSnapshot {
+
+    private final UUID id;
+
+    private final String username;
+
+    private final String profilePicture;
+
+    private final Integer userRank;
+
+    private final UserRole role;
+
+    private final boolean active;
+
+    public static PlayerSnapshot of(User user) {
+        return PlayerSnapshot.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .profilePicture(user.getProfilePicture())
+                .userRank(user.getUserRank())
+                .role(user.getRole())
+                .active(user.isActive())
+                .build();
+    }
+
+    public static PlayerSnapshot of(PlayerRow row) {
+        return PlayerSnapshot.builder()
+                .id(row.getId())
+                .username(row.getUsername())
+                .profilePicture(row.getProfilePicture())
+                .userRank(row.getUserRank())
+                .role(row.getRole())
+                .active(row.isActive())
+                .build();
+    }
+}
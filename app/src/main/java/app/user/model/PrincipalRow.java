@@ -0,0 +1,28 @@
+package app.user.model;
+
+import app.security.AuthenticationMetadata;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+// What a sign-in needs to know about a player, read with a JPQL constructor expression. Immutable, so one cached
+// row can back any number of sign-ins; each of them gets its own AuthenticationMetadata.
+@Getter
+@AllArgsConstructor
+public class PrincipalRow {
+
+    private final UUID id;
+
+    private final String username;
+
+    private final String password;
+
+    private final UserRole role;
+
+    private final boolean active;
+
+    public AuthenticationMetadata toMetadata() {
+        return new AuthenticationMetadata(id, username, password, role, active);
+    }
+}
@@ -1,9 +1,11 @@
 package app.user.model;
 
+import app.credit.model.Credits;
 import app.defenseUpgrade.model.DefenseUpgrade;
 import app.offenseUpgrade.model.OffenseUpgrade;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -16,6 +18,7 @@ import java.util.UUID;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@DynamicUpdate
 @Table(name = "players")
 public class User {
 
@@ -36,9 +39,11 @@ public class User {
 
     private Integer userRank;
 
-    private Double credits;
+    private Credits credits;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    // Lazy like the upgrades below - an eager self-reference pulled in the whole defense chain with every player.
+    // Use cases that need them ask for them through the entity graphs on UserRepository.
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(nullable = true, unique = false)
     private User defense;
 
@@ -51,10 +56,10 @@ public class User {
     @Column(nullable = false)
     private LocalDateTime createdOn;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     private DefenseUpgrade defenseUpgrade;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     private OffenseUpgrade offenseUpgrade;
 
 }
@@ -0,0 +1,98 @@
+package app.user.repository;
+
+import app.credit.model.Credits;
+import app.user.model.PlayerRow;
+import app.user.model.PrincipalRow;
+import app.user.model.User;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface UserRepository extends JpaRepository<User, UUID> {
+
+    Optional<User> findByUsername(String username);
+
+    User getUsersByUsername(String username);
+
+    // Attack resolution checks both players' upgrades and may use up a defense charge
+    @EntityGraph(attributePaths = {"defenseUpgrade", "offenseUpgrade"})
+    Optional<User> findForAttackById(UUID id);
+
+    // The credits page shows who the player defends and the defense charges left
+    @EntityGraph(attributePaths = {"defense", "defenseUpgrade"})
+    Optional<User> findWithDefensesByUsername(String username);
+
+    List<User> findAllByisActiveTrueOrderByUserRankDesc();
+
+    // Scoreboard and player lists read these narrow rows instead of entities
+    @Query("""
+            select new app.user.model.PlayerRow(u.id, u.username, u.profilePicture, u.userRank, u.credits, u.role, u.isActive)
+            from User u where u.isActive = true
+            """)
+    List<PlayerRow> findActivePlayerRows();
+
+    @Query("""
+            select new app.user.model.PlayerRow(u.id, u.username, u.profilePicture, u.userRank, u.credits, u.role, u.isActive)
+            from User u
+            """)
+    List<PlayerRow> findPlayerRows();
+
+    @Query("""
+            select new app.user.model.PlayerRow(u.id, u.username, u.profilePicture, u.userRank, u.credits, u.role, u.isActive)
+            from User u where u.id = :id
+            """)
+    Optional<PlayerRow> findPlayerRowById(@Param("id") UUID id);
+
+    @Query("""
+            select new app.user.model.PrincipalRow(u.id, u.username, u.password, u.role, u.isActive)
+            from User u where u.username = :username
+            """)
+    Optional<PrincipalRow> findPrincipalByUsername(@Param("username") String username);
+
+    @Query("select u.credits from User u where u.id = :id")
+    Credits findCreditsById(@Param("id") UUID id);
+
+    // The credit updates are native: JPQL has no arithmetic on converted types, so the amount is bound as milli-credits
+    @Modifying(flushAutomatically = true)
+    @Query(value = "update players set credits = credits - :#{#amount.milli} where id = :id and credits >= :#{#amount.milli}", nativeQuery = true)
+    int debitIfSufficient(@Param("id") UUID id, @Param("amount") Credits amount);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "update players set credits = credits + :#{#amount.milli} where id = :id", nativeQuery = true)
+    int credit(@Param("id") UUID id, @Param("amount") Credits amount);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "update players set credits = coalesce(credits, 0) + :#{#amount.milli}", nativeQuery = true)
+    int creditAll(@Param("amount") Credits amount);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "update players set credits = coalesce(credits, 0) + :#{#amount.milli} where id in :ids", nativeQuery = true)
+    int creditAll(@Param("ids") List<UUID> ids, @Param("amount") Credits amount);
+
+    // Credits exactly the players that got a ledger row with this description and timestamp, so a bulk payout's
+    // balances and ledger rows always cover the same players, whoever registers while it runs
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            update players set credits = coalesce(credits, 0) + :#{#amount.milli}
+            where id in (select t.user_id from transaction t where t.created_on = :createdOn and t.description = :description)
+            """, nativeQuery = true)
+    int creditAllWithLedgerRow(@Param("amount") Credits amount, @Param("description") String description, @Param("createdOn") LocalDateTime createdOn);
+
+    // Only the hash column, so a rehash on sign-in never writes back a stale copy of the player's credits
+    @Modifying
+    @Query("update User u set u.password = :password where u.id = :id")
+    int updatePassword(@Param("id") UUID id, @Param("password") String password);
+
+    @Query("select u.id from User u where u.id > :after order by u.id")
+    List<UUID> findIdsAfter(@Param("after") UUID after, Limit limit);
+}
@@ -0,0 +1,141 @@
+package app.user.service;
+
+import app.cache.SingleFlight;
+import app.config.CacheConfiguration;
+import app.user.model.PlayerRow;
+import app.user.model.PlayerSnapshot;
+import app.user.repository.UserRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// One cached snapshot per player plus two small rosters of ids ("active" and "all"). List views are
+// assembled from those, so a change to one player evicts one entry instead of every cached list.
+// Misses go through a single-flight per key, so a burst of requests for a cold entry costs one query.
+@Component
+public class PlayerCache {
+
+    private static final String ACTIVE = "active";
+    private static final String ALL = "all";
+
+    private final UserRepository userRepository;
+    private final Cache players;
+    private final Cache rosters;
+    private final SingleFlight<UUID, PlayerSnapshot> playerLoads = new SingleFlight<>();
+    private final SingleFlight<String, List<UUID>> rosterLoads = new SingleFlight<>();
+    // Bumped by every eviction; a load that started before an eviction may have read the old row, so
+    // its result is returned to its callers but not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    @Autowired
+    public PlayerCache(UserRepository userRepository, CacheManager cacheManager, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.players = Objects.requireNonNull(cacheManager.getCache(CacheConfiguration.PLAYERS));
+        this.rosters = Objects.requireNonNull(cacheManager.getCache(CacheConfiguration.PLAYER_ROSTERS));
+        FunctionCounter.builder("cache.loads.coalesced", playerLoads, SingleFlight::getCoalesced)
+                .tag("cache", CacheConfiguration.PLAYERS)
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.loads.coalesced", rosterLoads, SingleFlight::getCoalesced)
+                .tag("cache", CacheConfiguration.PLAYER_ROSTERS)
+                .register(meterRegistry);
+    }
+
+    public PlayerSnapshot get(UUID id) {
+        return cached(players, id, playerLoads,
+                () -> userRepository.findPlayerRowById(id).map(PlayerSnapshot::of).orElse(null));
+    }
+
+    public List<PlayerSnapshot> getActive() {
+        return resolve(cached(rosters, ACTIVE, rosterLoads, () -> load(userRepository::findActivePlayerRows)));
+    }
+
+    public List<PlayerSnapshot> getAll() {
+        return resolve(cached(rosters, ALL, rosterLoads, () -> load(userRepository::findPlayerRows)));
+    }
+
+    // A player's displayed fields changed
+    public void evict(UUID id) {
+        afterCommit(() -> {
+            generation.incrementAndGet();
+            players.evict(id);
+        });
+    }
+
+    // A player joined, left or switched between active and banned
+    public void evictMembership(UUID id) {
+        afterCommit(() -> {
+            generation.incrementAndGet();
+            players.evict(id);
+            rosters.evict(ACTIVE);
+            rosters.evict(ALL);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private <K, V> V cached(Cache cache, K key, SingleFlight<K, V> loads, Supplier<V> loader) {
+        Cache.ValueWrapper hit = cache.get(key);
+        if (hit != null) {
+            return (V) hit.get();
+        }
+        return loads.load(key, () -> {
+            long started = generation.get();
+            V value = loader.get();
+            if (generation.get() == started) {
+                cache.put(key, value);
+            }
+            return value;
+        });
+    }
+
+    // Loading a roster warms the per-player entries from the same query, so a cold list costs one select
+    private List<UUID> load(Supplier<List<PlayerRow>> query) {
+        long started = generation.get();
+        List<PlayerRow> rows = query.get();
+        boolean current = generation.get() == started;
+        List<UUID> ids = new ArrayList<>(rows.size());
+        for (PlayerRow row : rows) {
+            if (current) {
+                players.putIfAbsent(row.getId(), PlayerSnapshot.of(row));
+            }
+            ids.add(row.getId());
+        }
+        return List.copyOf(ids);
+    }
+
+    private List<PlayerSnapshot> resolve(List<UUID> ids) {
+        List<PlayerSnapshot> snapshots = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            PlayerSnapshot snapshot = get(id);
+            if (snapshot != null) {
+                snapshots.add(snapshot);
+            }
+        }
+        return snapshots;
+    }
+
+    // Evicting before commit would let a concurrent read cache the old row again
+    private void afterCommit(Runnable eviction) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        } else {
+            eviction.run();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package app.user.service;
+
+import app.config.CacheConfiguration;
+import app.security.AuthenticationMetadata;
+import app.user.model.PrincipalRow;
+import app.user.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Sign-in lookups by username, so repeated logins skip the players table. Every change to a cached field - hash,
+// role or active flag - evicts the entry, so a ban or a role change applies to the very next sign-in.
+// Unknown usernames are not cached.
+@Component
+public class PrincipalCache {
+
+    private final UserRepository userRepository;
+    private final Cache principals;
+    // Same guard as PlayerCache: a load that raced an eviction is used once but not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    @Autowired
+    public PrincipalCache(UserRepository userRepository, CacheManager cacheManager) {
+        this.userRepository = userRepository;
+        this.principals = Objects.requireNonNull(cacheManager.getCache(CacheConfiguration.PRINCIPALS));
+    }
+
+    public Optional<AuthenticationMetadata> get(String username) {
+        PrincipalRow row = principals.get(username, PrincipalRow.class);
+        if (row == null) {
+            long started = generation.get();
+            row = userRepository.findPrincipalByUsername(username).orElse(null);
+            if (row == null) {
+                return Optional.empty();
+            }
+            if (generation.get() == started) {
+                principals.put(username, row);
+            }
+        }
+        // AuthenticationMetadata is mutable, so every sign-in gets a fresh one
+        return Optional.of(row.toMetadata());
+    }
+
+    public void evict(String username) {
+        afterCommit(() -> {
+            generation.incrementAndGet();
+            principals.evict(username);
+        });
+    }
+
+    // Evicting before commit would let a concurrent sign-in cache the old row again
+    private void afterCommit(Runnable eviction) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        } else {
+            eviction.run();
+        }
+    }
+}
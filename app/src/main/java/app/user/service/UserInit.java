@@ -1,5 +1,6 @@
 package app.user.service;
 
+import app.credit.model.Credits;
 import app.user.model.User;
 import app.user.model.UserRole;
 import app.web.dto.RegisterRequest;
@@ -32,7 +33,7 @@ public class UserInit implements CommandLineRunner {
                 .username("KrisRoot")
                 .password("123123")
                 .createdOn(LocalDateTime.now())
-                .credits(999.0)
+                .credits(Credits.of(999))
                 .userRank(999)
                 .isActive(true)
                 .role(UserRole.ADMIN)
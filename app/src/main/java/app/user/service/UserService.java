@@ -1,9 +1,15 @@
 package app.user.service;
 
+import app.credit.model.Credits;
+import app.credit.service.CreditTransferService;
 import app.exception.DomainException;
+import app.metrics.GameMetrics;
+import app.scoreboard.model.ScoreboardEntry;
+import app.scoreboard.service.ScoreboardService;
 import app.security.AuthenticationMetadata;
 import app.transaction.model.TransactionType;
 import app.transaction.service.TransactionService;
+import app.user.model.PlayerSnapshot;
 import app.user.model.User;
 import app.user.model.UserRole;
 import app.user.repository.UserRepository;
@@ -17,11 +23,10 @@ import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.CacheManager;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -34,27 +39,37 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 
+import static app.constant.Constants.RANK_UP_PRICE;
+
 @Slf4j
 @Service
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final TransactionService transactionService;
-
-    @Autowired
-    private CacheManager cacheManager;
+    private final CreditTransferService creditTransferService;
+    private final ScoreboardService scoreboardService;
+    private final PlayerCache playerCache;
+    private final PrincipalCache principalCache;
+    private final GameMetrics gameMetrics;
 
     @Autowired
     public UserService(UserRepository userRepository,
-                       PasswordEncoder passwordEncoder, TransactionService transactionService) {
+                       PasswordEncoder passwordEncoder, TransactionService transactionService,
+                       CreditTransferService creditTransferService, ScoreboardService scoreboardService,
+                       PlayerCache playerCache, PrincipalCache principalCache, GameMetrics gameMetrics) {
 
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.transactionService = transactionService;
+        this.creditTransferService = creditTransferService;
+        this.scoreboardService = scoreboardService;
+        this.playerCache = playerCache;
+        this.principalCache = principalCache;
+        this.gameMetrics = gameMetrics;
     }
 
-    @CacheEvict(value = "users", allEntries = true)
     @Transactional
     public User register(RegisterRequest registerRequest) {
 
@@ -67,6 +82,8 @@ public class UserService implements UserDetailsService {
         }
 
         User user = userRepository.save(initializeUser(registerRequest));
+        scoreboardService.refresh(user);
+        playerCache.evictMembership(user.getId());
 
         log.info("Successfully create new user account for username [%s] and id [%s]".formatted(user.getUsername(), user.getId()));
 
@@ -84,18 +101,18 @@ public class UserService implements UserDetailsService {
                 .password(passwordEncoder.encode(registerRequest.getPassword()))
                 .role(UserRole.USER)
                 .isActive(true)
-                .credits((double) 0)
+                .credits(Credits.ZERO)
                 .userRank(0)
                 .createdOn(LocalDateTime.now())
                 .build();
     }
 
-    public void decreaseCredits(User user, int amount) {
-        user.setCredits(user.getCredits() - amount);
+    public void decreaseCredits(User user, Credits amount) {
+        user.setCredits(user.getCredits().minus(amount));
     }
 
-    public void increaseCredits(User user, int amount) {
-        user.setCredits(user.getCredits() + amount);
+    public void increaseCredits(User user, Credits amount) {
+        user.setCredits(user.getCredits().plus(amount));
     }
 
     public void initializeRootUser(User user) {
@@ -111,57 +128,58 @@ public class UserService implements UserDetailsService {
                 .createdOn(user.getCreatedOn())
                 .build();
 
-        userRepository.save(user1);
+        User saved = userRepository.save(user1);
+        scoreboardService.refresh(saved);
+        playerCache.evictMembership(saved.getId());
     }
 
 
-    @Cacheable("users")
-    public List<User> getAllUsers() {
-
-        log.info("Contacted DB");
-        return userRepository.findAllByisActiveTrue();
-
+    public List<PlayerSnapshot> getAllUsers() {
+        return playerCache.getActive();
     }
 
-    @Cacheable("usersOrdered")
-    public List<User> getAllUsersOrdered() {
-
-        log.info("Contacted DB");
-        return userRepository.findAllByisActiveTrueOrderByUserRankDesc();
-
+    // Served from the in-memory scoreboard index, never from the database
+    public List<ScoreboardEntry> getScoreboard(int page, int size) {
+        return scoreboardService.getPage(page, size);
     }
 
-    @Cacheable("userHistory")
-    public List<User> getUserHistory(String username) {
-
-        log.info("Contacted DB");
-        return userRepository.findAllByisActiveTrueOrderByUserRankDesc();
-
+    public int getScoreboardPosition(UUID userId) {
+        return scoreboardService.getPosition(userId);
     }
 
-    @Cacheable("usersExceptMe")
-    public List<User> getAllUsersExceptMe(String username) {
-        log.info("Contacted DB");
-        List<User> all = userRepository.findAllByisActiveTrue();
-        all.removeIf(u -> u.getUsername().equals(username));
-        return all;
+    public int getScoreboardSize() {
+        return scoreboardService.getSize();
+    }
 
+    public List<PlayerSnapshot> getAllUsersExceptMe(String username) {
+        return playerCache.getActive().stream()
+                .filter(player -> !player.getUsername().equals(username))
+                .toList();
     }
-    @Cacheable("usersExceptMeFull")
-    public List<User> getAllUsersExceptMeFull(String username) {
-        log.info("Contacted DB");
-        List<User> all = userRepository.findAll();
-        all.removeIf(u -> u.getUsername().equals(username));
-        return all;
 
+    public List<PlayerSnapshot> getAllUsersExceptMeFull(String username) {
+        return playerCache.getAll().stream()
+                .filter(player -> !player.getUsername().equals(username))
+                .toList();
     }
 
+    // The cached view of a player, for pages that only show who is logged in
+    public PlayerSnapshot getSnapshot(UUID id) {
+        PlayerSnapshot snapshot = playerCache.get(id);
+        if (snapshot == null) {
+            throw new DomainException("User with id [%s] does not exist.".formatted(id));
+        }
+        return snapshot;
+    }
 
     public User getById(UUID id) {
         return userRepository.findById(id).orElseThrow(() -> new DomainException("User with id [%s] does not exist.".formatted(id)));
     }
 
-    @CacheEvict(value = "users", allEntries = true)
+    public User getWithDefenses(String username) {
+        return userRepository.findWithDefensesByUsername(username).orElseThrow(() -> new DomainException("User with this username does not exist."));
+    }
+
     public void switchStatus(UUID userId) {
 
         User user = getById(userId);
@@ -177,9 +195,11 @@ public class UserService implements UserDetailsService {
         // true -> false
         user.setActive(!user.isActive());
         userRepository.save(user);
+        scoreboardService.refresh(user);
+        playerCache.evictMembership(userId);
+        principalCache.evict(user.getUsername());
     }
 
-    @CacheEvict(value = "users", allEntries = true)
     public void switchRole(UUID userId) {
 
         User user = getById(userId);
@@ -191,6 +211,8 @@ public class UserService implements UserDetailsService {
         }
 
         userRepository.save(user);
+        playerCache.evict(userId);
+        principalCache.evict(user.getUsername());
     }
 
 //     Всеки пък, когато потребител се логва, Spring Security ще извиква този метод
@@ -198,9 +220,19 @@ public class UserService implements UserDetailsService {
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
 
-        User user = userRepository.findByUsername(username).orElseThrow(() -> new DomainException("User with this username does not exist."));
+        return principalCache.get(username).orElseThrow(() -> new DomainException("User with this username does not exist."));
+    }
+
+    // Spring Security calls this after a successful sign-in whose stored hash was made with a different cost
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        AuthenticationMetadata metadata = (AuthenticationMetadata) userDetails;
+        userRepository.updatePassword(metadata.getUserId(), newPassword);
+        principalCache.evict(metadata.getUsername());
+        metadata.setPassword(newPassword);
 
-        return new AuthenticationMetadata(user.getId(), username, user.getPassword(), user.getRole(), user.isActive());
+        return metadata;
     }
 
     public void resetPassword(@Valid PasswordRequest passwordRequest) {
@@ -210,12 +242,13 @@ public class UserService implements UserDetailsService {
         }
         user.setPassword(passwordEncoder.encode("000000"));
         userRepository.save(user);
+        principalCache.evict(user.getUsername());
     }
 
-    @CacheEvict(value = {"users", "usersOrdered", "usersExceptMe"}, allEntries = true)
     public void editUserDetails(@Valid UUID id, UserEditRequest userEditRequest) {
         Optional<User> byId = userRepository.findById(id);
         User user = byId.orElseThrow(() -> new DomainException("User with this username does not exist."));
+        String previousUsername = user.getUsername();
         if(!userEditRequest.getUsername().isEmpty())
             user.setUsername(userEditRequest.getUsername());
 
@@ -225,34 +258,38 @@ public class UserService implements UserDetailsService {
         user.setProfilePicture(userEditRequest.getProfilePicture());
         try {
         userRepository.save(user);
+        scoreboardService.refresh(user);
+        playerCache.evict(id);
+        principalCache.evict(previousUsername);
+        principalCache.evict(user.getUsername());
     }catch (Exception e) {
         throw new DomainException("Username is taken");
     }
     }
 
-    public void logoutUser() {
+    // Only the logging-out player's own entries are dropped; everyone else's stay warm
+    public void logoutUser(Authentication authentication) {
         SecurityContextHolder.clearContext();
 
-        if (cacheManager != null) {
-            for (String cacheName : cacheManager.getCacheNames()) {
-                Objects.requireNonNull(cacheManager.getCache(cacheName)).clear();
-            }
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticationMetadata principal) {
+            playerCache.evict(principal.getUserId());
+            log.info("User [%s] logged out.".formatted(principal.getUsername()));
         }
-
-        log.info("User logged out. All caches cleared.");
     }
 
     public User getByUsername(String username) {
         return userRepository.getUsersByUsername(username);
     }
 
-    @CacheEvict(value = "usersOrdered", allEntries = true)
+    @Transactional
     public void rankUpUser(User user) {
-        if(user.getCredits() >= 50) {
-            user.setCredits(user.getCredits() - 50);
-            transactionService.createTransaction(user, 50.0, "Rank Up", TransactionType.SEND);
+        if(!user.getCredits().isLessThan(RANK_UP_PRICE) && creditTransferService.tryDebit(user, RANK_UP_PRICE)) {
+            transactionService.createTransaction(user, RANK_UP_PRICE, "Rank Up", TransactionType.SEND);
             user.setUserRank(user.getUserRank() + 1);
             userRepository.save(user);
+            scoreboardService.refresh(user);
+            playerCache.evict(user.getId());
+            gameMetrics.recordRankUp();
         } else throw new DomainException("You need 50 credits to rank up!");
     }
 
@@ -260,27 +297,33 @@ public class UserService implements UserDetailsService {
         return user.getRole() == UserRole.ADMIN;
     }
 
-    @CacheEvict(value = {"users", "usersOrdered", "usersExceptMe", "usersExceptMeFull"}, allEntries = true)
     public void banUser(User user) {
         user.setActive(false);
         userRepository.save(user);
+        scoreboardService.refresh(user);
+        playerCache.evictMembership(user.getId());
+        principalCache.evict(user.getUsername());
     }
 
-    @CacheEvict(value = {"users", "usersOrdered", "usersExceptMe", "usersExceptMeFull"}, allEntries = true)
     public void unbanUser(User user) {
         user.setActive(true);
         userRepository.save(user);
+        scoreboardService.refresh(user);
+        playerCache.evictMembership(user.getId());
+        principalCache.evict(user.getUsername());
     }
 
-    @CacheEvict(value = {"users", "usersOrdered", "usersExceptMe", "usersExceptMeFull"}, allEntries = true)
     public void promoteUser(User user) {
         user.setRole(UserRole.ADMIN);
         userRepository.save(user);
+        playerCache.evict(user.getId());
+        principalCache.evict(user.getUsername());
     }
 
-    @CacheEvict(value = {"users", "usersOrdered", "usersExceptMe", "usersExceptMeFull"}, allEntries = true)
     public void demoteUser(User user) {
         user.setRole(UserRole.USER);
         userRepository.save(user);
+        playerCache.evict(user.getId());
+        principalCache.evict(user.getUsername());
     }
 }
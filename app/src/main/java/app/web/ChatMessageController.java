@@ -0,0 +1,54 @@
+package app.web;
+
+import app.chatMessage.service.ChatMessageService;
+import app.chatMessage.service.InvalidChatMessageException;
+import app.exception.DomainException;
+import app.user.model.PlayerSnapshot;
+import app.web.dto.Message;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/darknet")
+public class ChatMessageController {
+
+    private final ChatMessageService chatMessageService;
+
+    public ChatMessageController(ChatMessageService chatMessageService) {
+        this.chatMessageService = chatMessageService;
+    }
+
+    // Pass the sentAt of the newest message already shown to get only the ones after it
+    @GetMapping
+    public ResponseEntity<List<Message>> getChatMessages(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime after) {
+        return ResponseEntity.ok(chatMessageService.getMessages(after));
+    }
+
+
+    // Returns as soon as the message is in the outbox; a full outbox means the chat has been down for a while.
+    // A message that can never be sent is the player's to fix, so it gets a 400 rather than a 503.
+    @PostMapping
+    public ResponseEntity<String> sendMessage(@CurrentPlayer PlayerSnapshot user, @RequestParam String message) {
+        log.info("Sending chat message");
+        try {
+            chatMessageService.sendMessage(user.getUsername(), message);
+        } catch (InvalidChatMessageException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (DomainException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        }
+        return ResponseEntity.ok("Message sent successfully");
+    }
+}
+
@@ -0,0 +1,13 @@
+package app.web;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Marks a handler parameter that receives the logged-in player, either as a cached PlayerSnapshot
+// (for pages that only show who is logged in) or as a managed User (for handlers that change it)
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CurrentPlayer {
+}
@@ -0,0 +1,74 @@
+package app.web;
+
+import app.exception.DomainException;
+import app.security.AuthenticationMetadata;
+import app.user.model.PlayerSnapshot;
+import app.user.model.User;
+import app.user.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+// Resolves @CurrentPlayer parameters from the session's principal. Whatever is loaded is kept on the request,
+// so a request costs at most one player lookup however often it asks. A PlayerSnapshot comes from the player
+// cache and usually costs no query at all; it is built from the User instead when the request already has one.
+@Component
+public class CurrentPlayerArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private static final String USER = CurrentPlayerArgumentResolver.class.getName() + ".user";
+    private static final String SNAPSHOT = CurrentPlayerArgumentResolver.class.getName() + ".snapshot";
+
+    private final UserService userService;
+
+    @Autowired
+    public CurrentPlayerArgumentResolver(UserService userService) {
+        this.userService = userService;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentPlayer.class)
+                && (parameter.getParameterType() == User.class || parameter.getParameterType() == PlayerSnapshot.class);
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        if (parameter.getParameterType() == User.class) {
+            User user = (User) webRequest.getAttribute(USER, RequestAttributes.SCOPE_REQUEST);
+            if (user == null) {
+                user = userService.getById(principal().getUserId());
+                remember(webRequest, USER, user);
+            }
+            return user;
+        }
+        PlayerSnapshot snapshot = (PlayerSnapshot) webRequest.getAttribute(SNAPSHOT, RequestAttributes.SCOPE_REQUEST);
+        if (snapshot == null) {
+            User user = (User) webRequest.getAttribute(USER, RequestAttributes.SCOPE_REQUEST);
+            snapshot = user != null ? PlayerSnapshot.of(user) : userService.getSnapshot(principal().getUserId());
+            remember(webRequest, SNAPSHOT, snapshot);
+        }
+        return snapshot;
+    }
+
+    private static AuthenticationMetadata principal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof AuthenticationMetadata principal)) {
+            throw new DomainException("No player is logged in.");
+        }
+        return principal;
+    }
+
+    private static void remember(NativeWebRequest webRequest, String name, Object value) {
+        if (value != null) {
+            webRequest.setAttribute(name, value, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package app.web;
 
+import app.credit.model.Credits;
 import app.exception.DomainException;
-import app.hack.model.Hack;
+import app.hack.model.HackHistoryPage;
 import app.hack.model.HackStatus;
 import app.hack.service.HackService;
 import app.security.AuthenticationMetadata;
+import app.user.model.PlayerSnapshot;
 import app.user.model.User;
 import app.user.service.UserService;
 import app.web.Mapper.DtoMapper;
@@ -29,6 +31,8 @@ import java.util.UUID;
 @Slf4j
 @Controller
 public class HackController {
+    private static final int HISTORY_PAGE_SIZE = 25;
+
     private final HackService hackService;
     private final UserService userService;
 
@@ -62,17 +66,13 @@ public class HackController {
             return modelAndView;
         }
 
-            User defender = userService.getById(id);
-        User attacker = userService.getByUsername(authenticationMetadata.getUsername());
-        hackService.createNewHack(attacker, defender, userHackRequest.getCredits());
+        hackService.createNewHack(authenticationMetadata.getUserId(), id, userHackRequest.getCredits() == null ? null : Credits.valueOf(userHackRequest.getCredits()));
 
         return new ModelAndView("redirect:/hack-on");
     }
 
     @GetMapping("/defend/{id}")
-    public ModelAndView defendUser(@PathVariable UUID id, @AuthenticationPrincipal AuthenticationMetadata authenticationMetadata) {
-        String usernameOfSession = authenticationMetadata.getUsername();
-        User userOfSession = userService.getByUsername(usernameOfSession);
+    public ModelAndView defendUser(@PathVariable UUID id, @CurrentPlayer User userOfSession) {
         User userToDefend = userService.getById(id);
         hackService.changeUserDefense(userOfSession, userToDefend);
         return new ModelAndView("redirect:/hack-on");
@@ -82,7 +82,7 @@ public class HackController {
     public ModelAndView getCreditsPage(@AuthenticationPrincipal AuthenticationMetadata authenticationMetadata) {
 
         String username = authenticationMetadata.getUsername();
-        User user = userService.getByUsername(username);
+        User user = userService.getWithDefenses(username);
 
         ModelAndView modelAndView = new ModelAndView();
         modelAndView.setViewName("credits");
@@ -94,7 +94,7 @@ public class HackController {
     public ModelAndView rankUp(@AuthenticationPrincipal AuthenticationMetadata authenticationMetadata) {
 
         String username = authenticationMetadata.getUsername();
-        User user = userService.getByUsername(username);
+        User user = userService.getWithDefenses(username);
         ModelAndView modelAndView = new ModelAndView();
         modelAndView.setViewName("credits");
         modelAndView.addObject("user", user);
@@ -107,15 +107,16 @@ public class HackController {
     }
 
     @GetMapping("/history")
-    public ModelAndView getHistory(@AuthenticationPrincipal AuthenticationMetadata authenticationMetadata) {
+    public ModelAndView getHistory(@CurrentPlayer PlayerSnapshot user,
+                                   @RequestParam(required = false) String before) {
 
-        String username = authenticationMetadata.getUsername();
-        User user = userService.getByUsername(username);
         ModelAndView modelAndView = new ModelAndView();
         modelAndView.setViewName("history");
         modelAndView.addObject("user", user);
-        List<Hack> hacks = hackService.getUserHistory(user);
-        modelAndView.addObject("hacks", hacks);
+        HackHistoryPage history = hackService.getUserHistoryPage(user.getId(), before, HISTORY_PAGE_SIZE);
+        modelAndView.addObject("hacks", history.getEntries());
+        modelAndView.addObject("nextCursor", history.getNextCursor());
+        modelAndView.addObject("firstPage", before == null || before.isBlank());
         modelAndView.addObject("hackStatusDefended", HackStatus.Defended);
         return modelAndView;
     }
@@ -2,9 +2,11 @@ package app.web;
 
 import app.message.WelcomeMessage;
 import app.exception.DomainException;
-import app.security.AuthenticationMetadata;
-import app.transaction.model.Transaction;
+import app.scoreboard.model.ScoreboardEntry;
+import app.security.PasswordHashingBusyException;
+import app.transaction.model.TransactionFeedPage;
 import app.transaction.service.TransactionService;
+import app.user.model.PlayerSnapshot;
 import app.user.model.User;
 import app.user.service.UserService;
 import app.web.dto.LoginRequest;
@@ -13,14 +15,22 @@ import app.web.dto.RegisterRequest;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Random;
 
@@ -29,6 +39,9 @@ import java.util.Random;
 @Controller
 public class IndexController {
 
+    private static final int SCOREBOARD_PAGE_SIZE = 50;
+    private static final int TRANSACTION_PAGE_SIZE = 50;
+
     private final UserService userService;
     private final TransactionService transactionService;
 
@@ -45,15 +58,15 @@ public class IndexController {
     }
 
     @GetMapping("/darknet")
-    public ModelAndView getDarknetPage(@AuthenticationPrincipal AuthenticationMetadata authenticationMetadata) {
-        User user = userService.getById(authenticationMetadata.getUserId());
+    public ModelAndView getDarknetPage(@CurrentPlayer PlayerSnapshot user) {
         ModelAndView modelAndView = new ModelAndView("darknet");
         modelAndView.addObject("user", user);
         return modelAndView;
     }
 
     @GetMapping("/login")
-    public ModelAndView getLoginPage(@RequestParam(value = "error", required = false) String errorParam) {
+    public ModelAndView getLoginPage(@RequestParam(value = "error", required = false) String errorParam,
+                                     @RequestParam(value = "busy", required = false) String busyParam) {
 
         ModelAndView modelAndView = new ModelAndView();
         modelAndView.setViewName("login");
@@ -62,6 +75,9 @@ public class IndexController {
         if (errorParam != null) {
             modelAndView.addObject("errorMessage", "Incorrect username or password!");
         }
+        if (busyParam != null) {
+            modelAndView.addObject("errorMessage", PasswordHashingBusyException.MESSAGE);
+        }
 
         return modelAndView;
     }
@@ -138,9 +154,7 @@ public class IndexController {
 
 
     @GetMapping("/home")
-    public ModelAndView getHomePage(@AuthenticationPrincipal AuthenticationMetadata authenticationMetadata) {
-
-        User user = userService.getById(authenticationMetadata.getUserId());
+    public ModelAndView getHomePage(@CurrentPlayer PlayerSnapshot user) {
 
         ModelAndView modelAndView = new ModelAndView();
         modelAndView.setViewName("home");
@@ -157,10 +171,9 @@ public class IndexController {
     }
 
     @GetMapping("/hack-on")
-    public ModelAndView getHackPage(@AuthenticationPrincipal AuthenticationMetadata authenticationMetadata) {
+    public ModelAndView getHackPage(@CurrentPlayer PlayerSnapshot user) {
 
-        User user = userService.getById(authenticationMetadata.getUserId());
-        List<User> allUsersExceptMe = userService.getAllUsersExceptMe(authenticationMetadata.getUsername());
+        List<PlayerSnapshot> allUsersExceptMe = userService.getAllUsersExceptMe(user.getUsername());
         ModelAndView modelAndView = new ModelAndView();
         modelAndView.setViewName("hack-on");
         modelAndView.addObject("user", user);
@@ -169,45 +182,74 @@ public class IndexController {
     }
 
     @GetMapping("/scoreboard")
-    public ModelAndView getScoreboard(@AuthenticationPrincipal AuthenticationMetadata authenticationMetadata) {
+    public ModelAndView getScoreboard(@CurrentPlayer PlayerSnapshot user,
+                                      @RequestParam(defaultValue = "0") int page) {
 
         ModelAndView modelAndView = new ModelAndView();
         modelAndView.setViewName("scoreboard");
-        List<User> allUsers = userService.getAllUsersOrdered();
-        User user = userService.getByUsername(authenticationMetadata.getUsername());
+        int currentPage = Math.max(page, 0);
+        List<ScoreboardEntry> allUsers = userService.getScoreboard(currentPage, SCOREBOARD_PAGE_SIZE);
         modelAndView.addObject("allUsers", allUsers);
         modelAndView.addObject("user", user);
+        modelAndView.addObject("position", userService.getScoreboardPosition(user.getId()));
+        modelAndView.addObject("page", currentPage);
+        modelAndView.addObject("pageOffset", currentPage * SCOREBOARD_PAGE_SIZE);
+        modelAndView.addObject("hasNext", (currentPage + 1) * SCOREBOARD_PAGE_SIZE < userService.getScoreboardSize());
         log.info("Passing view with all users");
         return modelAndView;
     }
 
     @GetMapping("/upgrades")
-    public ModelAndView getUpgradePage(@AuthenticationPrincipal AuthenticationMetadata authenticationMetadata) {
+    public ModelAndView getUpgradePage(@CurrentPlayer PlayerSnapshot user) {
 
         ModelAndView modelAndView = new ModelAndView();
         modelAndView.setViewName("upgrades");
-        User user = userService.getByUsername(authenticationMetadata.getUsername());
         modelAndView.addObject("user", user);
         return modelAndView;
     }
 
+    // Like the export below, the role is checked on a freshly loaded User, so an admin demoted on another
+    // instance loses the panel at once instead of when the cached snapshot expires
     @GetMapping("/dashboard")
-    public ModelAndView getAdminPanel(@AuthenticationPrincipal AuthenticationMetadata authenticationMetadata) {
+    public ModelAndView getAdminPanel(@CurrentPlayer User admin,
+                                      @RequestParam(required = false) String before) {
 
-        User user = userService.getById(authenticationMetadata.getUserId());
-        if(!userService.isAdmin(user))
+        PlayerSnapshot user = PlayerSnapshot.of(admin);
+        if(!userService.isAdmin(admin))
         {
             ModelAndView modelAndView = new ModelAndView("redirect:/home");
             modelAndView.addObject("user", user);
             return modelAndView;
         }
-        List<User> allUsersExceptMe = userService.getAllUsersExceptMeFull(authenticationMetadata.getUsername());
-        List<Transaction> allTransactions = transactionService.getAllTransactions();
+        List<PlayerSnapshot> allUsersExceptMe = userService.getAllUsersExceptMeFull(user.getUsername());
+        TransactionFeedPage transactions = transactionService.getTransactionFeed(before, TRANSACTION_PAGE_SIZE);
         ModelAndView modelAndView = new ModelAndView();
         modelAndView.setViewName("dashboard");
         modelAndView.addObject("user", user);
         modelAndView.addObject("allUsersExceptMe", allUsersExceptMe);
-        modelAndView.addObject("allTransactions", allTransactions);
+        modelAndView.addObject("allTransactions", transactions.getEntries());
+        modelAndView.addObject("nextCursor", transactions.getNextCursor());
+        modelAndView.addObject("firstPage", before == null || before.isBlank());
         return modelAndView;
     }
+
+    // Streams the whole ledger as CSV in chunks, for admins who need more than the paged feed. The role is
+    // checked on a freshly loaded User, not the cached snapshot.
+    @GetMapping("/dashboard/transactions/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(@CurrentPlayer User user) {
+
+        if (!userService.isAdmin(user)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            long rows = transactionService.exportTransactions(writer);
+            writer.flush();
+            log.info("Exported %d transactions for [%s]".formatted(rows, user.getUsername()));
+        };
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"transactions.csv\"")
+                .body(body);
+    }
 }
@@ -22,7 +22,7 @@ public class DtoMapper {
     public static HackRequest mapHackToHackRequest(Hack hack) {
 
         return HackRequest.builder()
-                .credits(hack.getCredits())
+                .credits(hack.getCredits() == null ? null : hack.getCredits().toDouble())
                 .build();
     }
 
@@ -5,8 +5,6 @@ import app.exception.DomainException;
 import app.hack.model.Hack;
 import app.hack.service.HackService;
 import app.security.AuthenticationMetadata;
-import app.transaction.model.Transaction;
-import app.transaction.service.TransactionService;
 import app.user.model.User;
 import app.user.repository.UserRepository;
 import app.user.service.UserService;
@@ -24,7 +22,6 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.servlet.ModelAndView;
 
-import java.util.List;
 import java.util.UUID;
 
 @Controller
@@ -32,22 +29,18 @@ import java.util.UUID;
 public class UserController {
     private final UserService userService;
     private final HackService hackService;
-    private final TransactionService transactionService;
     private final UserRepository userRepository;
 
     @Autowired
-    public UserController(UserService userService, HackService hackService, TransactionService transactionService, UserRepository userRepository) {
+    public UserController(UserService userService, HackService hackService, UserRepository userRepository) {
         this.userService = userService;
         this.hackService = hackService;
-        this.transactionService = transactionService;
         this.userRepository = userRepository;
     }
 
     @GetMapping("/profile")
-    public ModelAndView getProfileMenu(@AuthenticationPrincipal AuthenticationMetadata authenticationMetadata) {
+    public ModelAndView getProfileMenu(@CurrentPlayer User user) {
 
-        UUID id = authenticationMetadata.getUserId();
-        User user = userService.getById(id);
 
         ModelAndView modelAndView = new ModelAndView();
         modelAndView.setViewName("settings");
@@ -87,9 +80,10 @@ public class UserController {
         return new ModelAndView("redirect:/home");
     }
 
+    // The admin checks below run on a freshly loaded User, never on the cached snapshot, so a demotion made on
+    // another instance takes effect on the next request
     @GetMapping("/profile/{id}")
-    public ModelAndView getEditUser(@AuthenticationPrincipal AuthenticationMetadata authenticationMetadata, @PathVariable UUID id) {
-        User admin = userService.getById(authenticationMetadata.getUserId());
+    public ModelAndView getEditUser(@CurrentPlayer User admin, @PathVariable UUID id) {
         if(!userService.isAdmin(admin)) {
             return new ModelAndView("redirect:/");
         }
@@ -102,9 +96,8 @@ public class UserController {
     }
 
     @PutMapping("/profile/{id}")
-    public ModelAndView updateUserProfile(@Valid UserEditRequest userEditRequest, BindingResult bindingResult, @AuthenticationPrincipal AuthenticationMetadata authenticationMetadata, @PathVariable UUID id) {
+    public ModelAndView updateUserProfile(@Valid UserEditRequest userEditRequest, BindingResult bindingResult, @CurrentPlayer User admin, @PathVariable UUID id) {
 
-        User admin = userService.getById(authenticationMetadata.getUserId());
         if(!userService.isAdmin(admin)) {
             return new ModelAndView("redirect:/");
         }
@@ -133,8 +126,7 @@ public class UserController {
     }
 
     @GetMapping("/ban/{id}")
-    public ModelAndView banUser(@AuthenticationPrincipal AuthenticationMetadata authenticationMetadata, @PathVariable UUID id) {
-        User user = userService.getById(authenticationMetadata.getUserId());
+    public ModelAndView banUser(@CurrentPlayer User user, @PathVariable UUID id) {
         if(!userService.isAdmin(user))
         {
             ModelAndView modelAndView = new ModelAndView("redirect:/home");
@@ -143,19 +135,11 @@ public class UserController {
         }
         User userToBan = userService.getById(id);
         userService.banUser(userToBan);
-        List<User> allUsersExceptMe = userService.getAllUsersExceptMe(authenticationMetadata.getUsername());
-        List<Transaction> allTransactions = transactionService.getAllTransactions();
-        ModelAndView modelAndView = new ModelAndView();
-        modelAndView.setViewName("redirect:/dashboard");
-        modelAndView.addObject("user", user);
-        modelAndView.addObject("allUsersExceptMe", allUsersExceptMe);
-        modelAndView.addObject("allTransactions", allTransactions);
-        return modelAndView;
+        return new ModelAndView("redirect:/dashboard");
     }
 
     @GetMapping("/unban/{id}")
-    public ModelAndView unbanUser(@AuthenticationPrincipal AuthenticationMetadata authenticationMetadata, @PathVariable UUID id) {
-        User user = userService.getById(authenticationMetadata.getUserId());
+    public ModelAndView unbanUser(@CurrentPlayer User user, @PathVariable UUID id) {
         if(!userService.isAdmin(user))
         {
             ModelAndView modelAndView = new ModelAndView("redirect:/home");
@@ -164,19 +148,11 @@ public class UserController {
         }
         User userToUnban = userService.getById(id);
         userService.unbanUser(userToUnban);
-        List<User> allUsersExceptMe = userService.getAllUsersExceptMe(authenticationMetadata.getUsername());
-        List<Transaction> allTransactions = transactionService.getAllTransactions();
-        ModelAndView modelAndView = new ModelAndView();
-        modelAndView.setViewName("redirect:/dashboard");
-        modelAndView.addObject("user", user);
-        modelAndView.addObject("allUsersExceptMe", allUsersExceptMe);
-        modelAndView.addObject("allTransactions", allTransactions);
-        return modelAndView;
+        return new ModelAndView("redirect:/dashboard");
     }
 
     @GetMapping("/promote/{id}")
-    public ModelAndView promoteUser(@AuthenticationPrincipal AuthenticationMetadata authenticationMetadata, @PathVariable UUID id) {
-        User user = userService.getById(authenticationMetadata.getUserId());
+    public ModelAndView promoteUser(@CurrentPlayer User user, @PathVariable UUID id) {
         if(!userService.isAdmin(user))
         {
             ModelAndView modelAndView = new ModelAndView("redirect:/home");
@@ -185,19 +161,11 @@ public class UserController {
         }
         User userToPromote = userService.getById(id);
         userService.promoteUser(userToPromote);
-        List<User> allUsersExceptMe = userService.getAllUsersExceptMe(authenticationMetadata.getUsername());
-        List<Transaction> allTransactions = transactionService.getAllTransactions();
-        ModelAndView modelAndView = new ModelAndView();
-        modelAndView.setViewName("redirect:/dashboard");
-        modelAndView.addObject("user", user);
-        modelAndView.addObject("allUsersExceptMe", allUsersExceptMe);
-        modelAndView.addObject("allTransactions", allTransactions);
-        return modelAndView;
+        return new ModelAndView("redirect:/dashboard");
     }
 
     @GetMapping("/demote/{id}")
-    public ModelAndView demoteUser(@AuthenticationPrincipal AuthenticationMetadata authenticationMetadata, @PathVariable UUID id) {
-        User user = userService.getById(authenticationMetadata.getUserId());
+    public ModelAndView demoteUser(@CurrentPlayer User user, @PathVariable UUID id) {
         if(!userService.isAdmin(user))
         {
             ModelAndView modelAndView = new ModelAndView("redirect:/home");
@@ -206,14 +174,7 @@ public class UserController {
         }
         User userToDemote = userService.getById(id);
         userService.demoteUser(userToDemote);
-        List<User> allUsersExceptMe = userService.getAllUsersExceptMe(authenticationMetadata.getUsername());
-        List<Transaction> allTransactions = transactionService.getAllTransactions();
-        ModelAndView modelAndView = new ModelAndView();
-        modelAndView.setViewName("redirect:/dashboard");
-        modelAndView.addObject("user", user);
-        modelAndView.addObject("allUsersExceptMe", allUsersExceptMe);
-        modelAndView.addObject("allTransactions", allTransactions);
-        return modelAndView;
+        return new ModelAndView("redirect:/dashboard");
     }
 
 }
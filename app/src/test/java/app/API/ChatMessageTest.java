@@ -1,7 +1,10 @@
 package app.API;
 
 import app.chatMessage.service.ChatMessageService;
+import app.chatMessage.service.InvalidChatMessageException;
+import app.exception.DomainException;
 import app.security.AuthenticationMetadata;
+import app.user.model.PlayerSnapshot;
 import app.user.model.User;
 import app.user.model.UserRole;
 import app.user.service.UserService;
@@ -86,7 +89,7 @@ public class ChatMessageTest {
         Message message2 = createTestMessage("user2", "Hi there");
         List<Message> mockMessages = List.of(message1, message2);
 
-        when(chatMessageService.getMessages()).thenReturn(mockMessages);
+        when(chatMessageService.getMessages(null)).thenReturn(mockMessages);
 
         // Act & Assert
         mockMvc.perform(get("/api/darknet")
@@ -102,13 +105,28 @@ public class ChatMessageTest {
                 .andExpect(jsonPath("$[1].sentAt", notNullValue()));
     }
 
+    @Test
+    public void getMessages_WithAfterCursor_ReturnsOnlyNewerMessages() throws Exception {
+        // Arrange
+        LocalDateTime after = LocalDateTime.of(2024, 1, 2, 3, 4, 5, 123456000);
+        when(chatMessageService.getMessages(after)).thenReturn(List.of(createTestMessage("user3", "New one")));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/darknet")
+                        .param("after", "2024-01-02T03:04:05.123456")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].message", is("New one")));
+    }
+
     @Test
     public void sendMessage_ValidRequest_ReturnsSuccess() throws Exception {
         // Arrange
         User user = createTestUser();
         String testMessage = "Test message";
 
-        when(userService.getByUsername("testUser")).thenReturn(user);
+        when(userService.getSnapshot(any())).thenReturn(PlayerSnapshot.of(user));
 
         // Act & Assert
         mockMvc.perform(post("/api/darknet")
@@ -144,7 +162,7 @@ public class ChatMessageTest {
     @Test
     public void sendMessage_UserNotFound_ReturnsServerError() throws Exception {
         // Arrange
-        when(userService.getByUsername("testUser")).thenReturn(null);
+        when(userService.getSnapshot(any())).thenReturn(null);
 
         // Act & Assert
         mockMvc.perform(post("/api/darknet")
@@ -157,7 +175,7 @@ public class ChatMessageTest {
     public void sendMessage_ServiceThrowsException_ReturnsServerError() throws Exception {
         // Arrange
         User user = createTestUser();
-        when(userService.getByUsername("testUser")).thenReturn(user);
+        when(userService.getSnapshot(any())).thenReturn(PlayerSnapshot.of(user));
         doThrow(new RuntimeException("Service failure"))
                 .when(chatMessageService).sendMessage(anyString(), anyString());
 
@@ -167,4 +185,36 @@ public class ChatMessageTest {
                         .param("message", "test"))
                 .andExpect(status().isInternalServerError());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void sendMessage_ChatUnavailable_ReturnsServiceUnavailable() throws Exception {
+        // Arrange
+        User user = createTestUser();
+        when(userService.getSnapshot(any())).thenReturn(PlayerSnapshot.of(user));
+        doThrow(new DomainException("Chat is busy, please try again in a moment."))
+                .when(chatMessageService).sendMessage(anyString(), anyString());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/darknet")
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                        .param("message", "test"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(content().string("Chat is busy, please try again in a moment."));
+    }
+
+    @Test
+    public void sendMessage_InvalidMessage_ReturnsBadRequest() throws Exception {
+        // Arrange
+        User user = createTestUser();
+        when(userService.getSnapshot(any())).thenReturn(PlayerSnapshot.of(user));
+        doThrow(new InvalidChatMessageException("Message must be at most 1000 characters."))
+                .when(chatMessageService).sendMessage(anyString(), anyString());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/darknet")
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                        .param("message", "test"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Message must be at most 1000 characters."));
+    }
+}
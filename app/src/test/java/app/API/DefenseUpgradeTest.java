@@ -1,5 +1,6 @@
 package app.API;
 
+import app.credit.model.Credits;
 import app.defenseUpgrade.service.DefenseUpgradeService;
 import app.exception.DomainException;
 import app.security.AuthenticationMetadata;
@@ -46,7 +47,7 @@ public class DefenseUpgradeTest {
         user.setUsername("testUser");
         user.setActive(true);
         user.setRole(UserRole.USER);
-        user.setCredits(100.0);
+        user.setCredits(Credits.of(100));
         return user;
     }
 
@@ -75,7 +76,7 @@ public class DefenseUpgradeTest {
     public void buyDefenseUpgrade_SuccessfulPurchase_ReturnsUpgradesView() throws Exception {
         // Arrange
         User user = createTestUser();
-        when(userService.getByUsername("testUser")).thenReturn(user);
+        when(userService.getById(any())).thenReturn(user);
 
         // Act & Assert
         mockMvc.perform(get("/buy-defense-upgrade"))
@@ -93,7 +94,7 @@ public class DefenseUpgradeTest {
         User user = createTestUser();
         String errorMessage = "Not enough credits";
 
-        when(userService.getByUsername("testUser")).thenReturn(user);
+        when(userService.getById(any())).thenReturn(user);
         doThrow(new DomainException(errorMessage))
                 .when(defenseUpgradeService).buyDefenseUpgrade(user);
 
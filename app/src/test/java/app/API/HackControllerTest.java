@@ -1,9 +1,12 @@
 package app.API;
 
+import app.credit.model.Credits;
 import app.exception.DomainException;
 import app.hack.model.Hack;
+import app.hack.model.HackHistoryPage;
 import app.hack.service.HackService;
 import app.security.AuthenticationMetadata;
+import app.user.model.PlayerSnapshot;
 import app.user.model.User;
 import app.user.model.UserRole;
 import app.user.service.UserService;
@@ -23,6 +26,9 @@ import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -47,7 +53,7 @@ public class HackControllerTest {
         user.setUsername("testUser");
         user.setActive(true);
         user.setRole(UserRole.USER);
-        user.setCredits(100.0);
+        user.setCredits(Credits.of(100));
         return user;
     }
     private AuthenticationMetadata createAuthMetadata(User user) {
@@ -88,19 +94,13 @@ public class HackControllerTest {
     @Test
     public void attackUser_ValidRequest_RedirectsToHackOn() throws Exception {
         UUID targetId = UUID.randomUUID();
-        User attacker = createTestUser();
-        User defender = createTestUser();
-        defender.setId(targetId);
-
-        when(userService.getByUsername("testUser")).thenReturn(attacker);
-        when(userService.getById(targetId)).thenReturn(defender);
 
         mockMvc.perform(post("/hack/{id}", targetId)
                         .param("credits", "10.0")) // Instead of flash attributes
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/hack-on"));
 
-        verify(hackService).createNewHack(attacker, defender, 10.0);
+        verify(hackService).createNewHack(any(), eq(targetId), eq(Credits.of(10)));
     }
 
     @Test
@@ -123,7 +123,9 @@ public class HackControllerTest {
         User targetUser = createTestUser();
         targetUser.setId(targetId);
 
-        when(userService.getByUsername("testUser")).thenReturn(currentUser);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                createAuthMetadata(currentUser), null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"))));
+        when(userService.getById(currentUser.getId())).thenReturn(currentUser);
         when(userService.getById(targetId)).thenReturn(targetUser);
 
         mockMvc.perform(get("/defend/{id}", targetId))
@@ -136,7 +138,7 @@ public class HackControllerTest {
     @Test
     public void getCreditsPage_ReturnsCreditsViewWithUser() throws Exception {
         User user = createTestUser();
-        when(userService.getByUsername("testUser")).thenReturn(user);
+        when(userService.getWithDefenses("testUser")).thenReturn(user);
 
         mockMvc.perform(get("/credits"))
                 .andExpect(status().isOk())
@@ -147,7 +149,7 @@ public class HackControllerTest {
     @Test
     public void rankUp_Success_ReturnsCreditsView() throws Exception {
         User user = createTestUser();
-        when(userService.getByUsername("testUser")).thenReturn(user);
+        when(userService.getWithDefenses("testUser")).thenReturn(user);
 
         mockMvc.perform(get("/rank-up"))
                 .andExpect(status().isOk())
@@ -162,7 +164,7 @@ public class HackControllerTest {
         User user = createTestUser();
         String errorMessage = "Not enough credits";
 
-        when(userService.getByUsername("testUser")).thenReturn(user);
+        when(userService.getWithDefenses("testUser")).thenReturn(user);
         doThrow(new DomainException(errorMessage)).when(userService).rankUpUser(user);
 
         mockMvc.perform(get("/rank-up"))
@@ -171,4 +173,19 @@ public class HackControllerTest {
                 .andExpect(model().attributeExists("error"))
                 .andExpect(model().attribute("error", errorMessage));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void getHistory_ReturnsPageOfHistoryWithCursor() throws Exception {
+        User user = createTestUser();
+        HackHistoryPage page = new HackHistoryPage(List.of(), "2024-01-01T00:00|" + UUID.randomUUID());
+
+        when(userService.getSnapshot(any())).thenReturn(PlayerSnapshot.of(user));
+        when(hackService.getUserHistoryPage(eq(user.getId()), eq("cursor"), anyInt())).thenReturn(page);
+
+        mockMvc.perform(get("/history").param("before", "cursor"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("history"))
+                .andExpect(model().attribute("nextCursor", page.getNextCursor()))
+                .andExpect(model().attribute("firstPage", false));
+    }
+}
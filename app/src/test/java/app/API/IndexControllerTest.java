@@ -1,8 +1,12 @@
 package app.API;
 
+import app.scoreboard.model.ScoreboardEntry;
 import app.security.AuthenticationMetadata;
+import app.security.PasswordHashingBusyException;
 import app.transaction.model.Transaction;
+import app.transaction.model.TransactionFeedPage;
 import app.transaction.service.TransactionService;
+import app.user.model.PlayerSnapshot;
 import app.user.model.User;
 import app.user.model.UserRole;
 import app.user.service.UserService;
@@ -16,12 +20,18 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.Writer;
 import java.util.List;
 import java.util.UUID;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -88,6 +98,13 @@ public class IndexControllerTest {
                 .andExpect(model().attribute("errorMessage", "Incorrect username or password!"));
     }
 
+    @Test
+    public void getLoginPage_WithBusyParam_AsksToTryAgain() throws Exception {
+        mockMvc.perform(get("/login").param("busy", ""))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("errorMessage", PasswordHashingBusyException.MESSAGE));
+    }
+
     @Test
     public void getRegisterPage_ReturnsRegisterView() throws Exception {
         mockMvc.perform(get("/register"))
@@ -99,20 +116,43 @@ public class IndexControllerTest {
     @Test
     public void getDarknetPage_Authenticated_ReturnsDarknetViewWithUser() throws Exception {
         User user = createTestUser();
-        when(userService.getById(user.getId())).thenReturn(user);
+        PlayerSnapshot snapshot = PlayerSnapshot.of(user);
+        when(userService.getSnapshot(user.getId())).thenReturn(snapshot);
 
         mockMvc.perform(get("/darknet")
                         .with(authentication(createAuthentication(user))))
                 .andExpect(status().isOk())
                 .andExpect(view().name("darknet"))
                 .andExpect(model().attributeExists("user"))
-                .andExpect(model().attribute("user", user));
+                .andExpect(model().attribute("user", snapshot));
+
+        // Served from the player cache, so the page never loads the player entity
+        verify(userService, never()).getById(any());
+        verify(userService, never()).getByUsername(any());
+    }
+
+    @Test
+    public void getScoreboard_Authenticated_ReturnsPageFromIndexWithPosition() throws Exception {
+        User user = createTestUser();
+        List<ScoreboardEntry> entries = List.of(ScoreboardEntry.of(user));
+        when(userService.getSnapshot(user.getId())).thenReturn(PlayerSnapshot.of(user));
+        when(userService.getScoreboard(1, 50)).thenReturn(entries);
+        when(userService.getScoreboardPosition(user.getId())).thenReturn(51);
+        when(userService.getScoreboardSize()).thenReturn(120);
+
+        mockMvc.perform(get("/scoreboard").param("page", "1")
+                        .with(authentication(createAuthentication(user))))
+                .andExpect(status().isOk())
+                .andExpect(view().name("scoreboard"))
+                .andExpect(model().attribute("allUsers", entries))
+                .andExpect(model().attribute("position", 51))
+                .andExpect(model().attribute("hasNext", true));
     }
 
     @Test
     public void getHomePage_Authenticated_ReturnsHomeViewWithUserAndMessage() throws Exception {
         User user = createTestUser();
-        when(userService.getById(user.getId())).thenReturn(user);
+        when(userService.getSnapshot(user.getId())).thenReturn(PlayerSnapshot.of(user));
 
         mockMvc.perform(get("/home")
                         .with(authentication(createAuthentication(user))))
@@ -125,16 +165,17 @@ public class IndexControllerTest {
     @Test
     public void getHackPage_Authenticated_ReturnsHackViewWithUsers() throws Exception {
         User user = createTestUser();
-        List<User> otherUsers = List.of(createTestUser(), createTestUser());
+        PlayerSnapshot me = PlayerSnapshot.of(user);
+        List<PlayerSnapshot> otherUsers = List.of(PlayerSnapshot.of(createTestUser()), PlayerSnapshot.of(createTestUser()));
 
-        when(userService.getById(user.getId())).thenReturn(user);
+        when(userService.getSnapshot(user.getId())).thenReturn(me);
         when(userService.getAllUsersExceptMe(user.getUsername())).thenReturn(otherUsers);
 
         mockMvc.perform(get("/hack-on")
                         .with(authentication(createAuthentication(user))))
                 .andExpect(status().isOk())
                 .andExpect(view().name("hack-on"))
-                .andExpect(model().attribute("user", user))
+                .andExpect(model().attribute("user", me))
                 .andExpect(model().attribute("allUsersExceptMe", otherUsers));
     }
     @Test
@@ -149,6 +190,54 @@ public class IndexControllerTest {
                 .andExpect(redirectedUrl("/home"));
     }
 
+    @Test
+    public void getDashboard_AdminUser_ReturnsFirstPageOfTransactions() throws Exception {
+        User admin = createTestUser();
+        admin.setRole(UserRole.ADMIN);
+        TransactionFeedPage page = new TransactionFeedPage(List.of(), "2024-01-01T00:00|" + UUID.randomUUID());
+        when(userService.getById(admin.getId())).thenReturn(admin);
+        when(userService.isAdmin(admin)).thenReturn(true);
+        when(transactionService.getTransactionFeed(null, 50)).thenReturn(page);
+
+        mockMvc.perform(get("/dashboard")
+                        .with(authentication(createAuthentication(admin))))
+                .andExpect(status().isOk())
+                .andExpect(view().name("dashboard"))
+                .andExpect(model().attribute("nextCursor", page.getNextCursor()))
+                .andExpect(model().attribute("firstPage", true));
+    }
+
+    @Test
+    public void exportTransactions_AdminUser_StreamsCsv() throws Exception {
+        User admin = createTestUser();
+        when(userService.getById(admin.getId())).thenReturn(admin);
+        when(userService.isAdmin(admin)).thenReturn(true);
+        when(transactionService.exportTransactions(any())).thenAnswer(invocation -> {
+            invocation.getArgument(0, Writer.class).write("id,username\n");
+            return 0L;
+        });
+
+        MvcResult result = mockMvc.perform(get("/dashboard/transactions/export")
+                        .with(authentication(createAuthentication(admin))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string("id,username\n"));
+    }
+
+    @Test
+    public void exportTransactions_NonAdminUser_IsForbidden() throws Exception {
+        User regularUser = createTestUser();
+        when(userService.getById(regularUser.getId())).thenReturn(regularUser);
+        when(userService.isAdmin(regularUser)).thenReturn(false);
+
+        mockMvc.perform(get("/dashboard/transactions/export")
+                        .with(authentication(createAuthentication(regularUser))))
+                .andExpect(status().isForbidden());
+    }
+
     @Test
     public void postForgotPassword_ValidRequest_ShowsSuccess() throws Exception {
         PasswordRequest request = new PasswordRequest();
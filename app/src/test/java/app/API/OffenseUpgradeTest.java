@@ -1,5 +1,6 @@
 package app.API;
 
+import app.credit.model.Credits;
 import app.exception.DomainException;
 import app.offenseUpgrade.service.OffenseUpgradeService;
 import app.security.AuthenticationMetadata;
@@ -50,7 +51,7 @@ public class OffenseUpgradeTest {
         user.setPassword("testPassword");
         user.setActive(true);
         user.setRole(UserRole.USER);
-        user.setCredits(100.00);
+        user.setCredits(Credits.of(100));
         user.setCreatedOn(LocalDateTime.now());
 
         // Create properly constructed AuthenticationMetadata
@@ -70,7 +71,7 @@ public class OffenseUpgradeTest {
         );
 
         // Mock services
-        when(userService.getByUsername("testUser")).thenReturn(user);
+        when(userService.getById(user.getId())).thenReturn(user);
 
         // Act & Assert
         mockMvc.perform(get("/buy-offense-upgrade")
@@ -89,7 +90,7 @@ public class OffenseUpgradeTest {
         user.setPassword("testPassword");
         user.setActive(true);
         user.setRole(UserRole.USER);
-        user.setCredits(100.00);
+        user.setCredits(Credits.of(100));
         user.setCreatedOn(LocalDateTime.now());
         String errorMessage = "You do not have enough credits";
 
@@ -109,7 +110,7 @@ public class OffenseUpgradeTest {
         );
 
         // Mock services - KEY FIX HERE
-        when(userService.getByUsername("testUser")).thenReturn(user);
+        when(userService.getById(user.getId())).thenReturn(user);
         doThrow(new DomainException(errorMessage))
                 .when(offenseUpgradeService).createOffenseUpgrade(user);  // Correct syntax for void methods
 
@@ -152,7 +153,7 @@ public class OffenseUpgradeTest {
                 authMetadata.getAuthorities()
         );
 
-        when(userService.getByUsername("testUser")).thenReturn(null);
+        when(userService.getById(authMetadata.getUserId())).thenReturn(null);
 
         // Act & Assert
         mockMvc.perform(get("/buy-offense-upgrade")
@@ -184,7 +185,7 @@ public class OffenseUpgradeTest {
                 authMetadata.getAuthorities()
         );
 
-        when(userService.getByUsername("testUser")).thenReturn(user);
+        when(userService.getById(user.getId())).thenReturn(user);
         doThrow(new RuntimeException("Service failure"))
                 .when(offenseUpgradeService).createOffenseUpgrade(user);
 
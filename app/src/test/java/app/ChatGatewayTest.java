@@ -0,0 +1,115 @@
+package app;
+
+import app.chatMessage.client.ChatGateway;
+import app.chatMessage.client.ChatRejectedException;
+import app.chatMessage.client.CircuitBreaker;
+import app.exception.DomainException;
+import app.web.dto.Message;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpTimeoutException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ChatGatewayTest {
+
+    private StubChatServer stub;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = new StubChatServer();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    @Test
+    void shouldSendAndFetchMessages() {
+        ChatGateway gateway = gateway(2000, 5, 3, 1000);
+
+        gateway.send(Message.builder().author("neo").message("Wake up").sentAt(LocalDateTime.now()).build()).join();
+        List<Message> messages = gateway.fetchMessages().join();
+
+        assertThat(messages).extracting(Message::getAuthor, Message::getMessage).containsExactly(tuple("neo", "Wake up"));
+    }
+
+    @Test
+    void shouldGiveUpOnSlowBackend_AfterRequestTimeout() {
+        stub.delay(2000);
+        ChatGateway gateway = gateway(100, 5, 3, 1000);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> gateway.fetchMessages().join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(HttpTimeoutException.class);
+        assertThat((System.nanoTime() - start) / 1_000_000).isLessThan(1500);
+    }
+
+    @Test
+    void shouldOpenCircuit_AfterConsecutiveFailures_AndStopCallingBackend() {
+        stub.failWith(503);
+        ChatGateway gateway = gateway(2000, 5, 2, 60_000);
+
+        assertThatThrownBy(() -> gateway.fetchMessages().join()).hasCauseInstanceOf(DomainException.class);
+        assertThatThrownBy(() -> gateway.fetchMessages().join()).hasCauseInstanceOf(DomainException.class);
+        assertThat(gateway.getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        CompletableFuture<List<Message>> shortCircuited = gateway.fetchMessages();
+        assertThat(shortCircuited).isCompletedExceptionally();
+        assertThatThrownBy(shortCircuited::join).hasMessageContaining("unavailable");
+        assertThat(stub.hits()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldCloseCircuit_WhenTrialCallSucceeds() throws Exception {
+        stub.failWith(500);
+        ChatGateway gateway = gateway(2000, 5, 1, 100);
+        assertThatThrownBy(() -> gateway.fetchMessages().join()).hasCauseInstanceOf(DomainException.class);
+        assertThat(gateway.getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        stub.failWith(0);
+        Thread.sleep(150);
+
+        assertThat(gateway.fetchMessages().join()).isEmpty();
+        assertThat(gateway.getCircuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void shouldNotOpenCircuit_WhenBackendRefusesTheRequest() {
+        stub.failWith(400);
+        ChatGateway gateway = gateway(2000, 5, 1, 60_000);
+
+        assertThatThrownBy(() -> gateway.send(Message.builder().author("neo").message("").sentAt(LocalDateTime.now()).build()).join())
+                .hasCauseInstanceOf(ChatRejectedException.class);
+        assertThat(gateway.getCircuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void shouldRejectCalls_OverConcurrencyLimit_WithoutQueueing() {
+        stub.delay(300);
+        ChatGateway gateway = gateway(2000, 1, 3, 1000);
+
+        CompletableFuture<List<Message>> inFlight = gateway.fetchMessages();
+        CompletableFuture<List<Message>> rejected = gateway.fetchMessages();
+
+        assertThat(rejected).isCompletedExceptionally();
+        assertThatThrownBy(rejected::join).hasMessageContaining("busy");
+        assertThat(inFlight.join()).isEmpty();
+        assertThat(gateway.getCircuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    private ChatGateway gateway(long requestTimeoutMillis, int maxConcurrentCalls, int failureThreshold, long openMillis) {
+        return new ChatGateway(new ObjectMapper().findAndRegisterModules(), new SimpleMeterRegistry(), stub.url(),
+                500, requestTimeoutMillis, maxConcurrentCalls, failureThreshold, openMillis);
+    }
+}
@@ -0,0 +1,110 @@
+package app;
+
+import app.chatMessage.client.ChatGateway;
+import app.chatMessage.service.ChatMessageCache;
+import app.exception.DomainException;
+import app.web.dto.Message;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChatMessageCacheTest {
+
+    @Mock
+    private ChatGateway chatGateway;
+
+    private ChatMessageCache chatMessageCache;
+
+    private final LocalDateTime now = LocalDateTime.of(2024, 1, 2, 3, 4);
+
+    @BeforeEach
+    void setUp() {
+        chatMessageCache = new ChatMessageCache(chatGateway, 3);
+    }
+
+    @Test
+    void shouldAppendOnlyMessagesNewerThanCache_OldestFirst() {
+        when(chatGateway.fetchMessages())
+                .thenReturn(CompletableFuture.completedFuture(List.of(message("b", 2), message("a", 1))))
+                .thenReturn(CompletableFuture.completedFuture(List.of(message("a", 1), message("b", 2), message("c", 3))));
+
+        assertThat(chatMessageCache.refresh().join()).isEqualTo(2);
+        assertThat(chatMessageCache.refresh().join()).isEqualTo(1);
+
+        assertThat(chatMessageCache.after(null)).extracting(Message::getMessage).containsExactly("a", "b", "c");
+    }
+
+    @Test
+    void shouldReturnOnlyMessagesAfterCursor() {
+        when(chatGateway.fetchMessages()).thenReturn(CompletableFuture.completedFuture(List.of(message("a", 1), message("b", 2), message("c", 3))));
+        chatMessageCache.refresh().join();
+
+        assertThat(chatMessageCache.after(now.plusSeconds(1))).extracting(Message::getMessage).containsExactly("b", "c");
+        assertThat(chatMessageCache.after(now.plusSeconds(3))).isEmpty();
+    }
+
+    @Test
+    void shouldDropOldestMessages_WhenRingIsFull() {
+        when(chatGateway.fetchMessages()).thenReturn(CompletableFuture.completedFuture(
+                List.of(message("a", 1), message("b", 2), message("c", 3), message("d", 4), message("e", 5))));
+
+        chatMessageCache.refresh().join();
+
+        assertThat(chatMessageCache.after(null)).extracting(Message::getMessage).containsExactly("c", "d", "e");
+    }
+
+    @Test
+    void shouldKeepMessagesFromSameInstant_WithoutDuplicating() {
+        when(chatGateway.fetchMessages())
+                .thenReturn(CompletableFuture.completedFuture(List.of(message("a", 1))))
+                .thenReturn(CompletableFuture.completedFuture(List.of(message("a", 1), message("twin", 1))));
+
+        chatMessageCache.refresh().join();
+        chatMessageCache.refresh().join();
+
+        assertThat(chatMessageCache.after(null)).extracting(Message::getMessage).containsExactly("a", "twin");
+    }
+
+    @Test
+    void shouldKeepServingCachedMessages_WhenChatServiceFails() {
+        when(chatGateway.fetchMessages())
+                .thenReturn(CompletableFuture.completedFuture(List.of(message("a", 1))))
+                .thenReturn(CompletableFuture.failedFuture(new DomainException("Chat service is unavailable, please try again later.")));
+
+        chatMessageCache.refresh().join();
+        assertThat(chatMessageCache.refresh().join()).isZero();
+
+        assertThat(chatMessageCache.after(null)).extracting(Message::getMessage).containsExactly("a");
+    }
+
+    @Test
+    void shouldShareRunningRefresh_AndNeverCallChatServiceForReads() {
+        CompletableFuture<List<Message>> remote = new CompletableFuture<>();
+        when(chatGateway.fetchMessages()).thenReturn(remote);
+
+        CompletableFuture<Integer> first = chatMessageCache.refresh();
+        CompletableFuture<Integer> second = chatMessageCache.refresh();
+        for (int reader = 0; reader < 100; reader++) {
+            chatMessageCache.after(null);
+        }
+        remote.complete(List.of(message("a", 1)));
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.join()).isEqualTo(1);
+        verify(chatGateway, times(1)).fetchMessages();
+    }
+
+    private Message message(String text, int second) {
+        return Message.builder().author("neo").message(text).sentAt(now.plusSeconds(second)).build();
+    }
+}
@@ -0,0 +1,57 @@
+package app;
+
+import app.chatMessage.service.ChatMessageCache;
+import app.chatMessage.service.ChatMessageService;
+import app.chatMessage.service.ChatOutboxService;
+import app.exception.DomainException;
+import app.web.dto.Message;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChatMessageServiceTest {
+
+    @Mock
+    private ChatOutboxService chatOutboxService;
+
+    @Mock
+    private ChatMessageCache chatMessageCache;
+
+    @InjectMocks
+    private ChatMessageService chatMessageService;
+
+    @Test
+    void shouldReadMessagesFromCache_WithoutCallingChatService() {
+        LocalDateTime after = LocalDateTime.now().minusMinutes(1);
+        List<Message> messages = List.of(Message.builder().author("trinity").message("Follow").sentAt(LocalDateTime.now()).build());
+        when(chatMessageCache.after(after)).thenReturn(messages);
+
+        assertThat(chatMessageService.getMessages(after)).isEqualTo(messages);
+        verifyNoInteractions(chatOutboxService);
+    }
+
+    @Test
+    void shouldWriteMessageToOutbox_WithoutCallingChatService() {
+        chatMessageService.sendMessage("neo", "Wake up");
+
+        verify(chatOutboxService).enqueue("neo", "Wake up");
+        verifyNoInteractions(chatMessageCache);
+    }
+
+    @Test
+    void shouldPassBackpressure_ToCaller() {
+        doThrow(new DomainException("Chat is busy, please try again in a moment.")).when(chatOutboxService).enqueue(any(), any());
+
+        assertThatThrownBy(() -> chatMessageService.sendMessage("neo", "Wake up")).isInstanceOf(DomainException.class);
+    }
+}
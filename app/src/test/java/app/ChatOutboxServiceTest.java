@@ -0,0 +1,151 @@
+package app;
+
+import app.chatMessage.client.ChatGateway;
+import app.chatMessage.client.ChatRejectedException;
+import app.chatMessage.model.OutboxDispatchReport;
+import app.chatMessage.model.OutboxMessage;
+import app.chatMessage.repository.OutboxMessageRepository;
+import app.chatMessage.service.ChatMessageCache;
+import app.chatMessage.service.ChatOutboxService;
+import app.chatMessage.service.InvalidChatMessageException;
+import app.exception.DomainException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChatOutboxServiceTest {
+
+    @Mock
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Mock
+    private ChatGateway chatGateway;
+
+    @Mock
+    private ChatMessageCache chatMessageCache;
+
+    private ChatOutboxService chatOutboxService;
+
+    @BeforeEach
+    void setUp() {
+        chatOutboxService = new ChatOutboxService(outboxMessageRepository, chatGateway, chatMessageCache, new SimpleMeterRegistry(), 10, 2, 0);
+    }
+
+    @Test
+    void shouldSaveMessage_WhenOutboxHasRoom() {
+        when(outboxMessageRepository.countByRejectedOnIsNull()).thenReturn(1L);
+
+        chatOutboxService.enqueue("neo", "Wake up");
+
+        verify(outboxMessageRepository).save(argThat(m -> m.getAuthor().equals("neo") && m.getMessage().equals("Wake up") && m.getSentAt() != null));
+        verifyNoInteractions(chatGateway);
+    }
+
+    @Test
+    void shouldRefuseMessage_WhenOutboxIsFull() {
+        when(outboxMessageRepository.countByRejectedOnIsNull()).thenReturn(2L);
+
+        assertThatThrownBy(() -> chatOutboxService.enqueue("neo", "Wake up"))
+                .isInstanceOf(DomainException.class)
+                .hasMessageContaining("busy");
+        verify(outboxMessageRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldRefuseMessageLongerThanTheColumn_WithoutTouchingTheOutbox() {
+        String tooLong = "x".repeat(OutboxMessage.MAX_MESSAGE_LENGTH + 1);
+
+        assertThatThrownBy(() -> chatOutboxService.enqueue("neo", tooLong))
+                .isInstanceOf(InvalidChatMessageException.class);
+        verifyNoInteractions(outboxMessageRepository);
+    }
+
+    @Test
+    void shouldCountTheOutboxOncePerRecountInterval_AndAddWhatThisNodeQueued() {
+        chatOutboxService = new ChatOutboxService(outboxMessageRepository, chatGateway, chatMessageCache, new SimpleMeterRegistry(), 10, 2, 60_000);
+        when(outboxMessageRepository.countByRejectedOnIsNull()).thenReturn(1L);
+
+        chatOutboxService.enqueue("neo", "Wake up");
+
+        assertThatThrownBy(() -> chatOutboxService.enqueue("neo", "Follow the white rabbit"))
+                .isInstanceOf(DomainException.class)
+                .hasMessageContaining("busy");
+        verify(outboxMessageRepository, times(1)).countByRejectedOnIsNull();
+        verify(outboxMessageRepository, times(1)).save(any());
+    }
+
+    @Test
+    void shouldDeleteDelivered_ParkRefused_AndKeepFailedMessages() {
+        OutboxMessage delivered = outboxMessage("neo");
+        OutboxMessage refused = outboxMessage("smith");
+        OutboxMessage failed = outboxMessage("trinity");
+        when(outboxMessageRepository.findPending(any())).thenReturn(List.of(delivered, refused, failed));
+        when(chatGateway.send(argThat(m -> m != null && m.getAuthor().equals("neo")))).thenReturn(CompletableFuture.completedFuture(null));
+        when(chatGateway.send(argThat(m -> m != null && m.getAuthor().equals("smith"))))
+                .thenReturn(CompletableFuture.supplyAsync(() -> { throw new ChatRejectedException("Chat service refused the request with status [400]."); }));
+        when(chatGateway.send(argThat(m -> m != null && m.getAuthor().equals("trinity"))))
+                .thenReturn(CompletableFuture.failedFuture(new DomainException("Chat service is unavailable, please try again later.")));
+
+        OutboxDispatchReport report = chatOutboxService.dispatchBatch();
+
+        assertThat(report.getDelivered()).isEqualTo(1);
+        assertThat(report.getRejected()).isEqualTo(1);
+        assertThat(report.getFailed()).isEqualTo(1);
+        verify(outboxMessageRepository).deleteAllByIdInBatch(List.of(delivered.getId()));
+        verify(outboxMessageRepository).markRejected(eq(List.of(refused.getId())), any());
+        verify(chatMessageCache).refresh();
+    }
+
+    @Test
+    void shouldStopAtTheFirstFailure_SoLaterMessagesNeverOvertakeIt() {
+        OutboxMessage failed = outboxMessage("neo");
+        OutboxMessage later = outboxMessage("trinity");
+        when(outboxMessageRepository.findPending(any())).thenReturn(List.of(failed, later));
+        when(chatGateway.send(any())).thenReturn(CompletableFuture.failedFuture(new DomainException("Chat service is unavailable, please try again later.")));
+
+        OutboxDispatchReport report = chatOutboxService.dispatchBatch();
+
+        assertThat(report.getFailed()).isEqualTo(2);
+        verify(chatGateway, times(1)).send(any());
+        verify(outboxMessageRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    void shouldLeaveBatchInOutbox_WhenChatServiceIsDown() {
+        when(outboxMessageRepository.findPending(any())).thenReturn(List.of(outboxMessage("neo"), outboxMessage("trinity")));
+        when(chatGateway.send(any())).thenReturn(CompletableFuture.failedFuture(new DomainException("Chat service is unavailable, please try again later.")));
+
+        OutboxDispatchReport report = chatOutboxService.dispatchBatch();
+
+        assertThat(report.getFailed()).isEqualTo(2);
+        verify(outboxMessageRepository, never()).deleteAllByIdInBatch(any());
+        verify(outboxMessageRepository, never()).markRejected(any(), any());
+        verifyNoInteractions(chatMessageCache);
+    }
+
+    @Test
+    void shouldDoNothing_WhenOutboxIsEmpty() {
+        when(outboxMessageRepository.findPending(any())).thenReturn(List.of());
+
+        assertThat(chatOutboxService.dispatchBatch().isEmpty()).isTrue();
+        verifyNoInteractions(chatGateway, chatMessageCache);
+    }
+
+    private static OutboxMessage outboxMessage(String author) {
+        LocalDateTime now = LocalDateTime.now();
+        return OutboxMessage.builder().id(UUID.randomUUID()).author(author).message("Knock, knock").sentAt(now).createdOn(now).build();
+    }
+}
@@ -0,0 +1,104 @@
+package app;
+
+import app.credit.model.Credits;
+import app.credit.service.CreditTransferService;
+import app.exception.DomainException;
+import app.user.model.User;
+import app.user.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CreditTransferServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private CreditTransferService creditTransferService;
+
+    private User attacker;
+    private User defender;
+
+    @BeforeEach
+    void setUp() {
+        creditTransferService = new CreditTransferService(userRepository, new SimpleMeterRegistry(), 3, 0);
+        attacker = User.builder().id(UUID.randomUUID()).username("attacker").credits(Credits.of(100)).build();
+        defender = User.builder().id(UUID.randomUUID()).username("defender").credits(Credits.of(80)).build();
+    }
+
+    @Test
+    void shouldTransferRequestedAmount_WhenSourceCanAffordIt() {
+        when(userRepository.findCreditsById(defender.getId())).thenReturn(Credits.of(80), Credits.of(30));
+        when(userRepository.findCreditsById(attacker.getId())).thenReturn(Credits.of(150));
+        when(userRepository.debitIfSufficient(defender.getId(), Credits.of(50))).thenReturn(1);
+
+        Credits moved = creditTransferService.transferUpTo(defender, attacker, Credits.of(50));
+
+        assertThat(moved).isEqualTo(Credits.of(50));
+        assertThat(defender.getCredits()).isEqualTo(Credits.of(30));
+        assertThat(attacker.getCredits()).isEqualTo(Credits.of(150));
+        verify(userRepository).credit(attacker.getId(), Credits.of(50));
+        assertThat(creditTransferService.getConflictCount()).isZero();
+    }
+
+    @Test
+    void shouldRetryWithFreshBalance_WhenSourceWasDrainedConcurrently() {
+        when(userRepository.findCreditsById(defender.getId())).thenReturn(Credits.of(80), Credits.of(20), Credits.of(0));
+        when(userRepository.findCreditsById(attacker.getId())).thenReturn(Credits.of(120));
+        when(userRepository.debitIfSufficient(defender.getId(), Credits.of(50))).thenReturn(0);
+        when(userRepository.debitIfSufficient(defender.getId(), Credits.of(20))).thenReturn(1);
+
+        Credits moved = creditTransferService.transferUpTo(defender, attacker, Credits.of(50));
+
+        assertThat(moved).isEqualTo(Credits.of(20));
+        verify(userRepository).credit(attacker.getId(), Credits.of(20));
+        assertThat(creditTransferService.getConflictCount()).isEqualTo(1.0);
+        assertThat(creditTransferService.getRetryCount()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldGiveUp_AfterMaxAttempts() {
+        when(userRepository.findCreditsById(defender.getId())).thenReturn(Credits.of(80));
+        when(userRepository.debitIfSufficient(defender.getId(), Credits.of(50))).thenReturn(0);
+
+        assertThatThrownBy(() -> creditTransferService.transferUpTo(defender, attacker, Credits.of(50)))
+                .isInstanceOf(DomainException.class);
+
+        verify(userRepository, never()).credit(any(), any());
+        assertThat(creditTransferService.getConflictCount()).isEqualTo(3.0);
+        assertThat(creditTransferService.getRetryCount()).isEqualTo(2.0);
+    }
+
+    @Test
+    void shouldRejectDebit_WhenBalanceIsTooLow_WithoutCountingAConflict() {
+        when(userRepository.findCreditsById(attacker.getId())).thenReturn(Credits.of(100));
+
+        boolean debited = creditTransferService.tryDebit(attacker, Credits.of(250));
+
+        assertThat(debited).isFalse();
+        assertThat(attacker.getCredits()).isEqualTo(Credits.of(100));
+        verify(userRepository, never()).debitIfSufficient(any(), any());
+        assertThat(creditTransferService.getConflictCount()).isZero();
+    }
+
+    @Test
+    void shouldCountAConflict_WhenTheBalanceWasDrainedBetweenReadAndUpdate() {
+        when(userRepository.findCreditsById(attacker.getId())).thenReturn(Credits.of(300), Credits.of(100));
+        when(userRepository.debitIfSufficient(attacker.getId(), Credits.of(250))).thenReturn(0);
+
+        boolean debited = creditTransferService.tryDebit(attacker, Credits.of(250));
+
+        assertThat(debited).isFalse();
+        assertThat(attacker.getCredits()).isEqualTo(Credits.of(100));
+        assertThat(creditTransferService.getConflictCount()).isEqualTo(1.0);
+    }
+}
@@ -0,0 +1,121 @@
+package app;
+
+import app.exception.DomainException;
+import app.security.AuthenticationMetadata;
+import app.user.model.PlayerSnapshot;
+import app.user.model.User;
+import app.user.model.UserRole;
+import app.user.service.UserService;
+import app.web.CurrentPlayer;
+import app.web.CurrentPlayerArgumentResolver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.MethodParameter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CurrentPlayerArgumentResolverTest {
+
+    @Mock
+    private UserService userService;
+
+    @InjectMocks
+    private CurrentPlayerArgumentResolver resolver;
+
+    private User user;
+    private MethodParameter userParameter;
+    private MethodParameter snapshotParameter;
+    private MethodParameter plainParameter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        user = User.builder().id(UUID.randomUUID()).username("neo").role(UserRole.USER).isActive(true).userRank(1).build();
+        AuthenticationMetadata principal = new AuthenticationMetadata(user.getId(), user.getUsername(), "password", UserRole.USER, true);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+
+        Method handler = Handlers.class.getDeclaredMethod("handle", User.class, PlayerSnapshot.class, User.class);
+        userParameter = new MethodParameter(handler, 0);
+        snapshotParameter = new MethodParameter(handler, 1);
+        plainParameter = new MethodParameter(handler, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldOnlySupportAnnotatedPlayerParameters() {
+        assertThat(resolver.supportsParameter(userParameter)).isTrue();
+        assertThat(resolver.supportsParameter(snapshotParameter)).isTrue();
+        assertThat(resolver.supportsParameter(plainParameter)).isFalse();
+    }
+
+    @Test
+    void shouldLoadUserOncePerRequest() {
+        when(userService.getById(user.getId())).thenReturn(user);
+        NativeWebRequest request = newRequest();
+
+        assertThat(resolver.resolveArgument(userParameter, null, request, null)).isSameAs(user);
+        assertThat(resolver.resolveArgument(userParameter, null, request, null)).isSameAs(user);
+
+        verify(userService, times(1)).getById(user.getId());
+    }
+
+    @Test
+    void shouldServeSnapshotFromCache_WithoutLoadingUser() {
+        PlayerSnapshot snapshot = PlayerSnapshot.of(user);
+        when(userService.getSnapshot(user.getId())).thenReturn(snapshot);
+
+        assertThat(resolver.resolveArgument(snapshotParameter, null, newRequest(), null)).isSameAs(snapshot);
+        verify(userService, never()).getById(any());
+    }
+
+    @Test
+    void shouldBuildSnapshotFromUser_AlreadyLoadedForTheRequest() {
+        when(userService.getById(user.getId())).thenReturn(user);
+        NativeWebRequest request = newRequest();
+        resolver.resolveArgument(userParameter, null, request, null);
+
+        PlayerSnapshot snapshot = (PlayerSnapshot) resolver.resolveArgument(snapshotParameter, null, request, null);
+
+        assertThat(snapshot.getUsername()).isEqualTo("neo");
+        verify(userService, never()).getSnapshot(any());
+    }
+
+    @Test
+    void shouldThrow_WhenNoPlayerIsLoggedIn() {
+        SecurityContextHolder.clearContext();
+
+        assertThatThrownBy(() -> resolver.resolveArgument(snapshotParameter, null, newRequest(), null))
+                .isInstanceOf(DomainException.class);
+        verifyNoInteractions(userService);
+    }
+
+    private static NativeWebRequest newRequest() {
+        return new ServletWebRequest(new MockHttpServletRequest());
+    }
+
+    private static class Handlers {
+        @SuppressWarnings("unused")
+        void handle(@CurrentPlayer User user, @CurrentPlayer PlayerSnapshot snapshot, User plain) {
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package app;
+
+import app.metrics.GameMetrics;
+import app.scheduler.DailyBonus;
+import app.scheduler.model.BonusRunReport;
+import app.scheduler.service.BonusPayoutService;
+import app.scheduler.service.SchedulerLeaseService;
+import app.scoreboard.service.ScoreboardService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static app.constant.Constants.DAILY_BONUS;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DailyBonusTest {
+
+    // Long enough that the current window cannot change while a test runs
+    private static final long PERIOD_MILLIS = Duration.ofDays(3650).toMillis();
+
+    @Mock
+    private BonusPayoutService bonusPayoutService;
+
+    @Mock
+    private SchedulerLeaseService schedulerLeaseService;
+
+    @Mock
+    private ScoreboardService scoreboardService;
+
+    @Mock
+    private GameMetrics gameMetrics;
+
+    private DailyBonus dailyBonus;
+    private long window;
+
+    @BeforeEach
+    void setUp() {
+        dailyBonus = new DailyBonus(bonusPayoutService, schedulerLeaseService, scoreboardService, gameMetrics, PERIOD_MILLIS, 1000);
+        window = System.currentTimeMillis() / PERIOD_MILLIS;
+    }
+
+    @Test
+    void shouldNotReload_WhenAnotherInstanceHoldsTheLeaseAndNoRunFinished() {
+        when(schedulerLeaseService.tryAcquire(any(), any())).thenReturn(false);
+        when(bonusPayoutService.lastCompletedWindow()).thenReturn(Optional.empty());
+
+        dailyBonus.addCreditsToAllUsers();
+
+        verify(bonusPayoutService, never()).payWindow(anyLong(), any());
+        verifyNoInteractions(scoreboardService);
+    }
+
+    @Test
+    void shouldReloadOncePerRun_ThatAnotherInstanceFinished() {
+        when(schedulerLeaseService.tryAcquire(any(), any())).thenReturn(false);
+        when(bonusPayoutService.lastCompletedWindow()).thenReturn(Optional.of(window));
+
+        dailyBonus.addCreditsToAllUsers();
+        dailyBonus.addCreditsToAllUsers();
+
+        verify(scoreboardService, times(1)).reload();
+    }
+
+    @Test
+    void shouldPayTheSkippedWindowFirst_WhenATickSteppedOverIt() {
+        when(schedulerLeaseService.tryAcquire(any(), any())).thenReturn(true);
+        when(bonusPayoutService.lastCompletedWindow()).thenReturn(Optional.of(window - 2), Optional.of(window));
+        when(bonusPayoutService.payWindow(anyLong(), eq(DAILY_BONUS))).thenReturn(Optional.of(mock(BonusRunReport.class)));
+
+        dailyBonus.addCreditsToAllUsers();
+
+        verify(bonusPayoutService).payWindow(window - 1, DAILY_BONUS);
+        verify(bonusPayoutService).payWindow(window, DAILY_BONUS);
+        verify(gameMetrics, times(2)).recordBonusRun(any(), eq(DAILY_BONUS));
+        verify(schedulerLeaseService).release(any());
+        verify(scoreboardService).reload();
+    }
+
+    @Test
+    void shouldPayOnlyTheCurrentWindow_AfterDowntime() {
+        when(schedulerLeaseService.tryAcquire(any(), any())).thenReturn(true);
+        when(bonusPayoutService.lastCompletedWindow()).thenReturn(Optional.of(window - 5), Optional.of(window));
+        when(bonusPayoutService.payWindow(window, DAILY_BONUS)).thenReturn(Optional.of(mock(BonusRunReport.class)));
+
+        dailyBonus.addCreditsToAllUsers();
+
+        verify(bonusPayoutService, times(1)).payWindow(anyLong(), any());
+        verify(scoreboardService).reload();
+    }
+}
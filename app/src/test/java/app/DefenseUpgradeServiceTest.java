@@ -1,9 +1,13 @@
 package app;
 
+import app.credit.model.Credits;
+import app.credit.service.CreditTransferService;
 import app.defenseUpgrade.model.DefenseUpgrade;
 import app.defenseUpgrade.repository.DefenseUpgradeRepository;
 import app.defenseUpgrade.service.DefenseUpgradeService;
 import app.exception.DomainException;
+import app.metrics.GameMetrics;
+import app.scoreboard.service.ScoreboardService;
 import app.transaction.model.TransactionType;
 import app.transaction.service.TransactionService;
 import app.user.model.User;
@@ -23,7 +27,7 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class DefenseUpgradeServiceTest {
 
-    private static final double DEFENSE_UPGRADE_PRICE = 200.0;
+    private static final Credits DEFENSE_UPGRADE_PRICE = Credits.of(200);
 
     @Mock
     private DefenseUpgradeRepository defenseUpgradeRepository;
@@ -34,6 +38,15 @@ class DefenseUpgradeServiceTest {
     @Mock
     private TransactionService transactionService;
 
+    @Mock
+    private CreditTransferService creditTransferService;
+
+    @Mock
+    private ScoreboardService scoreboardService;
+
+    @Mock
+    private GameMetrics gameMetrics;
+
     @InjectMocks
     private DefenseUpgradeService defenseUpgradeService;
 
@@ -44,17 +57,18 @@ class DefenseUpgradeServiceTest {
         user = User.builder()
                 .id(UUID.randomUUID())
                 .username("testuser")
-                .credits(200.0) // Enough credits
+                .credits(Credits.of(200)) // Enough credits
                 .build();
     }
 
     @Test
     void shouldBuyDefenseUpgradeSuccessfully_WhenUserHasNoUpgrade() {
         when(defenseUpgradeRepository.save(any(DefenseUpgrade.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(creditTransferService.tryDebit(user, DEFENSE_UPGRADE_PRICE)).thenReturn(true);
 
         defenseUpgradeService.buyDefenseUpgrade(user);
 
-        assertThat(user.getCredits()).isEqualTo(0); // <-- Fix this to match the correct deduction
+        verify(creditTransferService).tryDebit(user, DEFENSE_UPGRADE_PRICE);
         assertThat(user.getDefenseUpgrade()).isNotNull();
         assertThat(user.getDefenseUpgrade().getUses()).isEqualTo(1);
         verify(transactionService).createTransaction(user, DEFENSE_UPGRADE_PRICE, "Bought Defense Upgrade", TransactionType.SEND);
@@ -67,13 +81,14 @@ class DefenseUpgradeServiceTest {
     void shouldIncreaseUses_WhenUserAlreadyHasDefenseUpgrade() {
         DefenseUpgrade existingUpgrade = DefenseUpgrade.builder().owner(user).uses(2).build();
         user.setDefenseUpgrade(existingUpgrade);
-        user.setCredits(300.0); // Ensure initial credits match test expectation
+        user.setCredits(Credits.of(300)); // Ensure initial credits match test expectation
 
         when(defenseUpgradeRepository.save(any(DefenseUpgrade.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(creditTransferService.tryDebit(user, DEFENSE_UPGRADE_PRICE)).thenReturn(true);
 
         defenseUpgradeService.buyDefenseUpgrade(user);
 
-        assertThat(user.getCredits()).isEqualTo(100.0); // Verify correct deduction (300 - 200)
+        verify(creditTransferService).tryDebit(user, DEFENSE_UPGRADE_PRICE);
         assertThat(user.getDefenseUpgrade().getUses()).isEqualTo(3);
         verify(transactionService).createTransaction(user, DEFENSE_UPGRADE_PRICE, "Bought Defense Upgrade", TransactionType.SEND);
         verify(defenseUpgradeRepository).save(existingUpgrade);
@@ -83,13 +98,13 @@ class DefenseUpgradeServiceTest {
 
     @Test
     void shouldThrowException_WhenUserHasInsufficientCredits() {
-        user.setCredits(50.0); // Not enough credits
+        user.setCredits(Credits.of(50)); // Not enough credits
 
         assertThatThrownBy(() -> defenseUpgradeService.buyDefenseUpgrade(user))
                 .isInstanceOf(DomainException.class)
                 .hasMessage("You do not have enough credits");
 
-        verify(transactionService, never()).createTransaction(any(), anyDouble(), anyString(), any());
+        verify(transactionService, never()).createTransaction(any(), any(), anyString(), any());
         verify(defenseUpgradeRepository, never()).save(any());
         verify(userRepository, never()).save(any());
     }
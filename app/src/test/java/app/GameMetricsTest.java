@@ -0,0 +1,64 @@
+package app;
+
+import app.credit.model.Credits;
+import app.hack.model.HackStatus;
+import app.metrics.GameMetrics;
+import app.scheduler.model.BonusRunReport;
+import app.scheduler.model.PayoutMode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GameMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private GameMetrics gameMetrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        gameMetrics = new GameMetrics(registry);
+    }
+
+    @Test
+    void shouldRegisterEverySeriesUpFront() {
+        assertThat(registry.find("hack.resolution").timers()).hasSize(HackStatus.values().length);
+        assertThat(registry.find("ledger.insert").timers()).hasSize(2);
+        assertThat(registry.find("upgrades.purchased").counters()).hasSize(2);
+        assertThat(registry.get("player.rank.ups").counter().count()).isZero();
+    }
+
+    @Test
+    void shouldTimeHacksByStatus_AndCountOnlyCreditsThatMoved() {
+        gameMetrics.recordHack(HackStatus.Succeeded, TimeUnit.MILLISECONDS.toNanos(4), Credits.of(30));
+        gameMetrics.recordHack(HackStatus.Defended, TimeUnit.MILLISECONDS.toNanos(2), Credits.ZERO);
+
+        assertThat(registry.get("hack.resolution").tag("status", "Succeeded").timer().count()).isEqualTo(1);
+        assertThat(registry.get("hack.resolution").tag("status", "Defended").timer().totalTime(TimeUnit.MILLISECONDS)).isEqualTo(2.0);
+        assertThat(registry.get("credits.moved").tag("source", "hack").counter().count()).isEqualTo(30.0);
+    }
+
+    @Test
+    void shouldRecordBonusRunDurationRowsAndCredits() {
+        gameMetrics.recordBonusRun(BonusRunReport.builder()
+                .mode(PayoutMode.BULK).playersPaid(10).ledgerRows(10).durationMillis(25).build(), Credits.of(5));
+
+        assertThat(registry.get("bonus.run").tag("mode", "BULK").timer().totalTime(TimeUnit.MILLISECONDS)).isEqualTo(25.0);
+        assertThat(registry.get("bonus.players.paid").counter().count()).isEqualTo(10.0);
+        assertThat(registry.get("bonus.ledger.rows").counter().count()).isEqualTo(10.0);
+        assertThat(registry.get("credits.moved").tag("source", "bonus").counter().count()).isEqualTo(50.0);
+    }
+
+    @Test
+    void shouldCountLedgerRowsPerWriteMode() {
+        gameMetrics.recordLedgerInsert(GameMetrics.LEDGER_BATCH, 500, 1_000_000);
+        gameMetrics.recordLedgerInsert(GameMetrics.LEDGER_SINGLE, 1, 100_000);
+
+        assertThat(registry.get("ledger.rows").tag("mode", "batch").counter().count()).isEqualTo(500.0);
+        assertThat(registry.get("ledger.insert").tag("mode", "single").timer().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,287 @@
+package app;
+
+import app.archive.repository.ArchiveJdbcRepository;
+import app.credit.model.Credits;
+import app.credit.service.CreditTransferService;
+import app.defenseUpgrade.model.DefenseUpgrade;
+import app.defenseUpgrade.service.DefenseUpgradeService;
+import app.exception.DomainException;
+import app.hack.model.Hack;
+import app.hack.model.HackHistoryEntry;
+import app.hack.model.HackHistoryPage;
+import app.hack.model.HackOutcome;
+import app.hack.model.HackStatus;
+import app.hack.repository.HackRepository;
+import app.hack.service.HackService;
+import app.hack.service.PlayerLockRegistry;
+import app.metrics.GameMetrics;
+import app.offenseUpgrade.model.OffenseUpgrade;
+import app.offenseUpgrade.service.OffenseUpgradeService;
+import app.scoreboard.service.ScoreboardService;
+import app.transaction.model.TransactionType;
+import app.transaction.service.TransactionService;
+import app.user.model.User;
+import app.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HackServiceTest {
+
+    @Mock
+    private HackRepository hackRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private OffenseUpgradeService offenseUpgradeService;
+
+    @Mock
+    private DefenseUpgradeService defenseUpgradeService;
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private CreditTransferService creditTransferService;
+
+    @Mock
+    private ScoreboardService scoreboardService;
+
+    @Spy
+    private PlayerLockRegistry playerLockRegistry = new PlayerLockRegistry(16);
+
+    @Mock
+    private GameMetrics gameMetrics;
+
+    @Mock
+    private ArchiveJdbcRepository archiveJdbcRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private HackService hackService;
+
+    private User attacker;
+    private User defender;
+
+    @BeforeEach
+    void setUp() {
+        attacker = User.builder()
+                .id(UUID.randomUUID())
+                .username("attackerUser")
+                .credits(Credits.of(500))
+                .build();
+
+        defender = User.builder()
+                .id(UUID.randomUUID())
+                .username("defenderUser")
+                .credits(Credits.of(300))
+                .build();
+
+        lenient().when(userRepository.findForAttackById(attacker.getId())).thenReturn(Optional.of(attacker));
+        lenient().when(userRepository.findForAttackById(defender.getId())).thenReturn(Optional.of(defender));
+    }
+
+    @Test
+    void shouldCreateNewHackAsDefended_WhenDefenderHasSetDefense() {
+        defender.setDefense(attacker);
+
+        hackService.createNewHack(attacker.getId(), defender.getId(), Credits.of(100));
+
+        verify(hackRepository).save(argThat(hack -> hack.getStatus() == HackStatus.Defended));
+        verifyNoInteractions(transactionService);
+        verify(userRepository, never()).save(any());
+        verify(gameMetrics).recordHack(eq(HackStatus.Defended), anyLong(), eq(Credits.ZERO));
+    }
+
+    @Test
+    void shouldCreateNewHackAsDefended_WhenDefenderHasDefenseUpgrade() {
+        DefenseUpgrade defenseUpgrade = DefenseUpgrade.builder().owner(defender).uses(1).build();
+        defender.setDefenseUpgrade(defenseUpgrade);
+
+        hackService.createNewHack(attacker.getId(), defender.getId(), Credits.of(100));
+
+        verify(defenseUpgradeService).decreaseUses(defenseUpgrade, defender);
+        verify(hackRepository).save(argThat(hack -> hack.getStatus() == HackStatus.Defended));
+        verifyNoInteractions(transactionService);
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldCreateNewHackAsSucceeded_WhenAttackSucceeds() {
+        when(hackRepository.save(any(Hack.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        doNothing().when(transactionService).createTransaction(any(), any(), anyString(), any());
+        when(creditTransferService.transferUpTo(defender, attacker, Credits.of(100))).thenReturn(Credits.of(100));
+        hackService.createNewHack(attacker.getId(), defender.getId(), Credits.of(100));
+
+        verify(creditTransferService).transferUpTo(defender, attacker, Credits.of(100));
+        verify(transactionService).createTransaction(attacker, Credits.of(100), "Hack", TransactionType.RECEIVE);
+        verify(transactionService).createTransaction(defender, Credits.of(100), "Hack", TransactionType.SEND);
+        verify(userRepository, never()).save(any());
+        verify(hackRepository).save(argThat(hack -> hack.getStatus() == HackStatus.Succeeded));
+        verify(gameMetrics).recordHack(eq(HackStatus.Succeeded), anyLong(), eq(Credits.of(100)));
+    }
+
+    @Test
+    void shouldLimitHackToAvailableCredits_WhenDefenderHasLessThanRequested() {
+        when(hackRepository.save(any(Hack.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        doNothing().when(transactionService).createTransaction(any(), any(), anyString(), any());
+        when(creditTransferService.transferUpTo(defender, attacker, Credits.of(300))).thenReturn(Credits.of(300));
+        hackService.createNewHack(attacker.getId(), defender.getId(), Credits.of(400)); // More than defender's credits
+
+        verify(creditTransferService).transferUpTo(defender, attacker, Credits.of(300));
+        verify(transactionService).createTransaction(attacker, Credits.of(300), "Hack", TransactionType.RECEIVE);
+        verify(transactionService).createTransaction(defender, Credits.of(300), "Hack", TransactionType.SEND);
+        verify(hackRepository).save(argThat(hack -> hack.getStatus() == HackStatus.Succeeded));
+    }
+
+    @Test
+    void shouldApplyOffenseUpgrade_WhenAttackerHasOne() {
+        OffenseUpgrade offenseUpgrade = OffenseUpgrade.builder().owner(attacker).build();
+        attacker.setOffenseUpgrade(offenseUpgrade);
+        when(offenseUpgradeService.calculateCredits(Credits.of(100))).thenReturn(Credits.of(150)); // Simulating upgrade bonus
+        when(creditTransferService.transferUpTo(defender, attacker, Credits.of(150))).thenReturn(Credits.of(150));
+
+        hackService.createNewHack(attacker.getId(), defender.getId(), Credits.of(100));
+
+        verify(offenseUpgradeService).calculateCredits(Credits.of(100));
+        verify(transactionService).createTransaction(attacker, Credits.of(150), "Hack", TransactionType.RECEIVE);
+        verify(transactionService).createTransaction(defender, Credits.of(150), "Hack", TransactionType.SEND);
+    }
+
+    @Test
+    void shouldLoadBothPlayers_OnlyOnceTheirLocksAreHeld_InATransactionOpenedInsideThem() {
+        hackService.createNewHack(attacker.getId(), defender.getId(), Credits.of(100));
+
+        InOrder inOrder = inOrder(playerLockRegistry, transactionManager, userRepository);
+        inOrder.verify(playerLockRegistry).withPlayersLocked(eq(attacker.getId()), eq(defender.getId()), any());
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(userRepository).findForAttackById(attacker.getId());
+        inOrder.verify(userRepository).findForAttackById(defender.getId());
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void shouldRejectHack_WhenThePlayerDoesNotExist() {
+        UUID missing = UUID.randomUUID();
+        when(userRepository.findForAttackById(missing)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> hackService.createNewHack(attacker.getId(), missing, Credits.of(100)))
+                .isInstanceOf(DomainException.class);
+        verifyNoInteractions(hackRepository, creditTransferService);
+    }
+
+    @Test
+    void shouldResolveHackInMemory_WithoutTouchingRepositories() {
+        HackOutcome outcome = hackService.resolveHack(attacker, defender, Credits.of(400));
+
+        assertThat(outcome.getStatus()).isEqualTo(HackStatus.Succeeded);
+        assertThat(outcome.getCredits()).isEqualTo(Credits.of(300));
+        assertThat(defender.getCredits()).isEqualTo(Credits.of(300));
+        verifyNoInteractions(hackRepository, userRepository, transactionService, creditTransferService);
+    }
+
+    @Test
+    void shouldChangeUserDefense() {
+        User newDefender = User.builder().id(UUID.randomUUID()).username("newDefender").build();
+
+        hackService.changeUserDefense(attacker, newDefender);
+
+        assertThat(attacker.getDefense()).isEqualTo(newDefender);
+    }
+
+    @Test
+    void shouldNotChangeDefense_WhenCurrentUserIsSameAsDefenseUser() {
+        attacker.setDefense(null);
+
+        hackService.changeUserDefense(attacker, attacker);
+
+        assertThat(attacker.getDefense()).isNull();
+    }
+
+    @Test
+    void shouldGetUserHackHistory() {
+        List<Hack> hacks = List.of(Hack.builder().attacker(attacker).defender(defender).status(HackStatus.Succeeded).build());
+        when(hackRepository.findByAttackerOrDefenderOrderByCreatedOnDesc(attacker, attacker)).thenReturn(hacks);
+
+        List<Hack> result = hackService.getUserHistory(attacker);
+
+        assertThat(result).isNotEmpty();
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getStatus()).isEqualTo(HackStatus.Succeeded);
+        verify(hackRepository).findByAttackerOrDefenderOrderByCreatedOnDesc(attacker, attacker);
+    }
+
+    @Test
+    void shouldMergeBothSidesNewestFirst_AndReturnCursorForNextPage() {
+        LocalDateTime now = LocalDateTime.now();
+        HackHistoryEntry attack1 = new HackHistoryEntry(UUID.randomUUID(), "defenderUser", Credits.of(10), HackStatus.Succeeded, now, true);
+        HackHistoryEntry attack2 = new HackHistoryEntry(UUID.randomUUID(), "defenderUser", Credits.of(5), HackStatus.Succeeded, now.minusMinutes(2), true);
+        HackHistoryEntry defense = new HackHistoryEntry(UUID.randomUUID(), "defenderUser", null, HackStatus.Defended, now.minusMinutes(1), false);
+        when(hackRepository.findAttacksBefore(eq(attacker.getId()), any(), any(), any())).thenReturn(List.of(attack1, attack2));
+        when(hackRepository.findDefensesBefore(eq(attacker.getId()), any(), any(), any())).thenReturn(List.of(defense));
+
+        HackHistoryPage page = hackService.getUserHistoryPage(attacker.getId(), null, 2);
+
+        assertThat(page.getEntries()).containsExactly(attack1, defense);
+        assertThat(page.getNextCursor()).isEqualTo(defense.getCreatedOn() + "|" + defense.getId());
+        verify(archiveJdbcRepository, never()).findHistoryBefore(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void shouldContinueIntoArchive_WhenHotHistoryRunsOut() {
+        LocalDateTime now = LocalDateTime.now();
+        HackHistoryEntry attack = new HackHistoryEntry(UUID.randomUUID(), "defenderUser", Credits.of(10), HackStatus.Succeeded, now, true);
+        HackHistoryEntry archived1 = new HackHistoryEntry(UUID.randomUUID(), "defenderUser", Credits.of(3), HackStatus.Succeeded, now.minusDays(200), true);
+        HackHistoryEntry archived2 = new HackHistoryEntry(UUID.randomUUID(), "defenderUser", null, HackStatus.Defended, now.minusDays(201), false);
+        when(hackRepository.findAttacksBefore(eq(attacker.getId()), any(), any(), any())).thenReturn(List.of(attack));
+        when(hackRepository.findDefensesBefore(eq(attacker.getId()), any(), any(), any())).thenReturn(List.of());
+        when(archiveJdbcRepository.findHistoryBefore(eq(attacker.getId()), any(), any(), eq(2))).thenReturn(List.of(archived1, archived2));
+
+        HackHistoryPage page = hackService.getUserHistoryPage(attacker.getId(), null, 2);
+
+        assertThat(page.getEntries()).containsExactly(attack, archived1);
+        assertThat(page.getNextCursor()).isEqualTo(archived1.getCreatedOn() + "|" + archived1.getId());
+    }
+
+    @Test
+    void shouldPassCursorToBothQueries_AndEndWhenNothingIsLeft() {
+        LocalDateTime createdOn = LocalDateTime.of(2024, 1, 2, 3, 4, 5);
+        UUID id = UUID.randomUUID();
+        when(hackRepository.findAttacksBefore(eq(attacker.getId()), eq(createdOn), eq(id), any())).thenReturn(List.of());
+        when(hackRepository.findDefensesBefore(eq(attacker.getId()), eq(createdOn), eq(id), any())).thenReturn(List.of());
+
+        HackHistoryPage page = hackService.getUserHistoryPage(attacker.getId(), createdOn + "|" + id, 25);
+
+        assertThat(page.getEntries()).isEmpty();
+        assertThat(page.hasNext()).isFalse();
+    }
+
+    @Test
+    void shouldRejectMalformedHistoryCursor() {
+        assertThatThrownBy(() -> hackService.getUserHistoryPage(attacker.getId(), "not-a-cursor", 25))
+                .isInstanceOf(DomainException.class);
+    }
+}
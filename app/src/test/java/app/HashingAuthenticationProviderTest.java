@@ -0,0 +1,70 @@
+package app;
+
+import app.security.HashingAuthenticationProvider;
+import app.security.PasswordHashingBusyException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HashingAuthenticationProviderTest {
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private UserDetailsPasswordService userDetailsPasswordService;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    private HashingAuthenticationProvider provider;
+    private UserDetails alice;
+
+    @BeforeEach
+    void setUp() {
+        provider = new HashingAuthenticationProvider(userDetailsService, userDetailsPasswordService, passwordEncoder);
+        alice = User.withUsername("alice").password("$2a$04$hash").roles("USER").build();
+        when(userDetailsService.loadUserByUsername("alice")).thenReturn(alice);
+        // DaoAuthenticationProvider hashes a dummy password once, for its timing-attack protection
+        lenient().when(passwordEncoder.encode("userNotFoundPassword")).thenReturn("$2a$04$dummy");
+    }
+
+    @Test
+    void shouldSignIn_OnTheExistingHash_WhenThePoolTurnsAwayTheRehash() {
+        when(passwordEncoder.matches("password", alice.getPassword())).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding(alice.getPassword())).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("")).thenReturn(false);
+        when(passwordEncoder.encode("password")).thenThrow(new PasswordHashingBusyException());
+
+        Authentication result = provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("alice", "password"));
+
+        assertThat(result.isAuthenticated()).isTrue();
+        assertThat(result.getPrincipal()).isSameAs(alice);
+        assertThat(result.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+        verify(userDetailsPasswordService, never()).updatePassword(any(), any());
+    }
+
+    @Test
+    void shouldFailTheSignIn_WhenThePoolTurnsAwayThePasswordCheck() {
+        when(passwordEncoder.matches("password", alice.getPassword())).thenThrow(new PasswordHashingBusyException());
+
+        assertThatThrownBy(() -> provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("alice", "password")))
+                .isInstanceOf(AuthenticationServiceException.class);
+    }
+}
@@ -0,0 +1,111 @@
+package app;
+
+import app.security.HashingPasswordEncoder;
+import app.security.PasswordHashingBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HashingPasswordEncoderTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private HashingPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        encoder.close();
+    }
+
+    @Test
+    void shouldHashOnThePoolWithTheConfiguredCost() {
+        encoder = new HashingPasswordEncoder(5, 1, 4, registry);
+
+        String hash = encoder.encode("password");
+
+        assertThat(hash).startsWith("$2a$05$");
+        assertThat(encoder.matches("password", hash)).isTrue();
+        assertThat(encoder.matches("wrong", hash)).isFalse();
+        assertThat(registry.get("password.hashing").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldUpgradeOnlyHashesWithADifferentCost() {
+        encoder = new HashingPasswordEncoder(5, 1, 4, registry);
+
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password"))).isTrue();
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("password"))).isTrue();
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(5).encode("password"))).isFalse();
+        assertThat(encoder.upgradeEncoding("not a bcrypt hash")).isFalse();
+        assertThat(encoder.upgradeEncoding(null)).isFalse();
+    }
+
+    @Test
+    void shouldRejectAtOnce_WhenThePoolAndQueueAreFull() throws Exception {
+        encoder = new HashingPasswordEncoder(4, 1, 1, registry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CharSequence stuck = new BlockingPassword(started, release);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode(stuck));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("queued"));
+        while (registry.get("password.hashing.queued").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        assertThatThrownBy(() -> encoder.encode("rejected")).isInstanceOf(PasswordHashingBusyException.class);
+        assertThat(registry.get("password.hashing.rejected").counter().count()).isEqualTo(1);
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(5).encode("password"))).isFalse();
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).startsWith("$2a$04$");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).startsWith("$2a$04$");
+    }
+
+    @Test
+    void shouldCalibrateWithinTheBounds() {
+        encoder = new HashingPasswordEncoder(4, 1, 1, registry);
+
+        assertThat(HashingPasswordEncoder.calibrateCost(Duration.ZERO, 4, 8)).isEqualTo(4);
+        assertThat(HashingPasswordEncoder.calibrateCost(Duration.ofHours(1), 4, 6)).isEqualTo(6);
+    }
+
+    // BCrypt reads the password through toString(), which holds the only hashing thread until released
+    private record BlockingPassword(CountDownLatch started, CountDownLatch release) implements CharSequence {
+
+        @Override
+        public String toString() {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "password";
+        }
+
+        @Override
+        public int length() {
+            return toString().length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return toString().charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().subSequence(start, end);
+        }
+    }
+}
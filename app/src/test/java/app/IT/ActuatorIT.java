@@ -0,0 +1,62 @@
+package app.IT;
+
+import app.user.service.UserService;
+import app.web.dto.RegisterRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability  // Metrics export is switched off in tests unless asked for
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ActuatorIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void healthIsOpenForPlatformProbes() throws Exception {
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void prometheusNeedsCredentials() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void prometheusIsForbiddenForPlayers() throws Exception {
+        userService.register(RegisterRequest.builder()
+                .username("scraper").email("scraper@example.com").password("password").confirmPassword("password").build());
+
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("scraper", "password")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void prometheusServesGameMetricsToAdmins() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("KrisRoot", "123123")))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("hack_resolution_seconds_count{status=\"Succeeded\"}")))
+                .andExpect(content().string(containsString("credits_moved_credits_total{source=\"hack\"}")))
+                .andExpect(content().string(containsString("cache_hit_ratio{cache=\"players\"}")));
+    }
+}
@@ -0,0 +1,106 @@
+package app.IT;
+
+import app.chatMessage.client.ChatGateway;
+import app.chatMessage.model.OutboxMessage;
+import app.chatMessage.repository.OutboxMessageRepository;
+import app.chatMessage.service.ChatMessageService;
+import app.chatMessage.service.ChatOutboxService;
+import app.exception.DomainException;
+import app.scheduler.ChatOutboxDispatch;
+import app.scheduler.service.SchedulerLeaseService;
+import app.web.dto.Message;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = {"app.chat.outbox.batch-size=2", "app.chat.outbox.max-pending=3"})
+@ActiveProfiles("test")
+@Transactional
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ChatOutboxIT {
+
+    @MockBean
+    private ChatGateway chatGateway;
+
+    @Autowired
+    private ChatMessageService chatMessageService;
+
+    @Autowired
+    private ChatOutboxService chatOutboxService;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private SchedulerLeaseService schedulerLeaseService;
+
+    @Test
+    void shouldKeepMessagesThroughOutage_AndDeliverThemInOrderOnceChatIsBack() {
+        chatMessageService.sendMessage("neo", "one");
+        chatMessageService.sendMessage("trinity", "two");
+        chatMessageService.sendMessage("morpheus", "three");
+        ChatOutboxDispatch dispatch = new ChatOutboxDispatch(chatOutboxService, schedulerLeaseService, true, 1, 60_000, 30_000);
+
+        when(chatGateway.send(any())).thenReturn(CompletableFuture.failedFuture(new DomainException("Chat service is unavailable, please try again later.")));
+        dispatch.dispatchOutbox();
+        assertEquals(3, outboxMessageRepository.count());
+
+        reset(chatGateway);
+        when(chatGateway.send(any())).thenReturn(CompletableFuture.completedFuture(null));
+        when(chatGateway.fetchMessages()).thenReturn(CompletableFuture.completedFuture(List.of()));
+        new ChatOutboxDispatch(chatOutboxService, schedulerLeaseService, true, 1, 60_000, 30_000).dispatchOutbox();
+
+        assertEquals(0, outboxMessageRepository.count());
+        verify(chatGateway, times(3)).send(any(Message.class));
+        verify(chatGateway).send(argThat(m -> m.getAuthor().equals("neo") && m.getMessage().equals("one")));
+        verify(chatGateway).send(argThat(m -> m.getAuthor().equals("morpheus") && m.getMessage().equals("three")));
+    }
+
+    @Test
+    void shouldBackOff_AfterWholeBatchFails() {
+        chatMessageService.sendMessage("neo", "one");
+        ChatOutboxDispatch dispatch = new ChatOutboxDispatch(chatOutboxService, schedulerLeaseService, true, 60_000, 60_000, 30_000);
+        when(chatGateway.send(any())).thenReturn(CompletableFuture.failedFuture(new DomainException("Chat service is unavailable, please try again later.")));
+
+        dispatch.dispatchOutbox();
+        dispatch.dispatchOutbox();
+
+        verify(chatGateway, times(1)).send(any());
+        assertEquals(1, outboxMessageRepository.count());
+    }
+
+    @Test
+    void shouldRefuseNewMessages_WhenOutboxIsFull() {
+        chatMessageService.sendMessage("neo", "one");
+        chatMessageService.sendMessage("neo", "two");
+        chatMessageService.sendMessage("neo", "three");
+
+        assertThrows(DomainException.class, () -> chatMessageService.sendMessage("neo", "four"));
+        assertEquals(3, outboxMessageRepository.count());
+    }
+
+    @Test
+    void shouldStopOfferingParkedMessages() {
+        chatMessageService.sendMessage("neo", "one");
+        chatMessageService.sendMessage("neo", "two");
+        List<OutboxMessage> pending = outboxMessageRepository.findPending(Limit.of(10));
+
+        outboxMessageRepository.markRejected(List.of(pending.get(0).getId()), LocalDateTime.now());
+
+        assertEquals(1, outboxMessageRepository.countByRejectedOnIsNull());
+        assertEquals("two", outboxMessageRepository.findPending(Limit.of(10)).get(0).getMessage());
+    }
+}
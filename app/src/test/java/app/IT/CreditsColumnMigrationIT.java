@@ -0,0 +1,54 @@
+package app.IT;
+
+import app.credit.repository.CreditsColumnMigration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not @Transactional: the migration alters tables, which commits on H2
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class CreditsColumnMigrationIT {
+
+    @Autowired
+    private CreditsColumnMigration creditsColumnMigration;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("drop table if exists legacy_credits");
+    }
+
+    @Test
+    void migrateColumn_RescalesDoublesToMilliCredits_Once() {
+        jdbcTemplate.execute("create table legacy_credits (id int primary key, credits double precision)");
+        jdbcTemplate.update("insert into legacy_credits values (1, 12.5), (2, 0.1), (3, null)");
+
+        assertTrue(creditsColumnMigration.migrateColumn("legacy_credits", "credits"));
+        assertFalse(creditsColumnMigration.migrateColumn("legacy_credits", "credits"));
+
+        List<Long> credits = jdbcTemplate.queryForList("select credits from legacy_credits order by id", Long.class);
+        assertEquals(12500L, credits.get(0));
+        assertEquals(100L, credits.get(1));
+        assertNull(credits.get(2));
+    }
+
+    @Test
+    void migrate_LeavesFreshSchemaAlone() {
+        assertFalse(creditsColumnMigration.migrateColumn("players", "credits"));
+        assertFalse(creditsColumnMigration.migrateColumn("transaction", "credits"));
+        assertFalse(creditsColumnMigration.migrateColumn("hack_archive", "credits"));
+        assertFalse(creditsColumnMigration.migrateColumn("balance_snapshot", "drift"));
+    }
+}
@@ -0,0 +1,175 @@
+package app.IT;
+
+import app.credit.model.Credits;
+import app.scheduler.model.BonusRunReport;
+import app.scheduler.model.PayoutMode;
+import app.scheduler.model.BonusRun;
+import app.scheduler.model.BonusRunStatus;
+import app.scheduler.repository.BonusRunRepository;
+import app.scheduler.service.BonusPayoutService;
+import app.scheduler.service.SchedulerLeaseService;
+import app.transaction.model.Transaction;
+import app.transaction.repository.TransactionRepository;
+import app.user.model.User;
+import app.user.model.UserRole;
+import app.user.repository.UserRepository;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "app.bonus.chunk-size=2")
+@ActiveProfiles("test")  // Use the test profile
+@Transactional  // Ensures changes are rolled back after each test
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)  // Reset context
+class DailyBonusIT {
+
+    @Autowired
+    private BonusPayoutService bonusPayoutService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private BonusRunRepository bonusRunRepository;
+
+    @Autowired
+    private SchedulerLeaseService schedulerLeaseService;
+
+    private long players;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 5; i++) {
+            userRepository.save(User.builder()
+                    .username("player" + i)
+                    .email("player" + i + "@example.com")
+                    .password("hashedpassword")
+                    .role(UserRole.USER)
+                    .isActive(true)
+                    .credits(Credits.of(10))
+                    .createdOn(LocalDateTime.now())
+                    .build());
+        }
+        userRepository.flush();
+        players = userRepository.count();  // Includes any seeded accounts
+    }
+
+    @Test
+    void testPayBulk_ShouldCreditEveryPlayerAndWriteOneLedgerRowEach() {
+        // When
+        BonusRunReport report = bonusPayoutService.payWindow(1L, Credits.of(5)).orElseThrow();
+
+        // Then
+        assertEquals(PayoutMode.BULK, report.getMode());
+        assertEquals(players, report.getPlayersPaid());
+        assertEquals(players, report.getLedgerRows());
+        assertPaid();
+    }
+
+    @Test
+    void testPayBulk_ShouldCreditOnlyThePlayersOfItsOwnLedgerRows() {
+        // Given
+        bonusPayoutService.payWindow(1L, Credits.of(5));
+
+        // When
+        BonusRunReport report = bonusPayoutService.payWindow(2L, Credits.of(5)).orElseThrow();
+
+        // Then
+        assertEquals(players, report.getPlayersPaid());
+        userRepository.findAll().stream()
+                .filter(user -> user.getUsername().startsWith("player"))
+                .forEach(user -> assertEquals(Credits.of(20), user.getCredits()));
+        assertEquals(2L * players, transactionRepository.count());
+    }
+
+    @Test
+    void testPayChunked_ShouldCreditEveryPlayerAcrossChunks() {
+        // Given
+        bonusRunRepository.saveAndFlush(BonusRun.builder()
+                .payoutWindow(2L)
+                .status(BonusRunStatus.RUNNING)
+                .lastPlayerId(new UUID(0, 0))
+                .startedOn(LocalDateTime.now())
+                .build());
+
+        // When
+        BonusRunReport report = bonusPayoutService.payChunked(2L, new UUID(0, 0), Credits.of(5));
+
+        // Then
+        assertEquals(PayoutMode.CHUNKED, report.getMode());
+        assertEquals(players, report.getPlayersPaid());
+        assertEquals(players, report.getLedgerRows());
+        assertPaid();
+    }
+
+    @Test
+    void testPayWindow_ShouldNotPayACompletedWindowTwice() {
+        // Given
+        bonusPayoutService.payWindow(3L, Credits.of(5));
+
+        // When / Then
+        assertTrue(bonusPayoutService.payWindow(3L, Credits.of(5)).isEmpty());
+        assertEquals(BonusRunStatus.COMPLETED, bonusRunRepository.findById(3L).orElseThrow().getStatus());
+        assertPaid();
+    }
+
+    @Test
+    void testPayWindow_ShouldResumeAfterLastCommittedChunk() {
+        // Given a run that crashed after paying the first two players
+        List<UUID> firstChunk = userRepository.findIdsAfter(new UUID(0, 0), Limit.of(2));
+        bonusRunRepository.saveAndFlush(BonusRun.builder()
+                .payoutWindow(4L)
+                .status(BonusRunStatus.RUNNING)
+                .lastPlayerId(firstChunk.get(1))
+                .playersPaid(2)
+                .ledgerRows(2)
+                .startedOn(LocalDateTime.now())
+                .build());
+
+        // When
+        BonusRunReport report = bonusPayoutService.payWindow(4L, Credits.of(5)).orElseThrow();
+
+        // Then
+        assertEquals(PayoutMode.CHUNKED, report.getMode());
+        assertEquals(players - 2, report.getPlayersPaid());
+        userRepository.findAllById(firstChunk).stream()
+                .filter(user -> user.getUsername().startsWith("player"))
+                .forEach(user -> assertEquals(Credits.of(10), user.getCredits()));
+        assertEquals(players, bonusRunRepository.findById(4L).orElseThrow().getPlayersPaid());
+    }
+
+    @Test
+    void testTryAcquire_ShouldGrantLeaseToOneHolderUntilReleased() {
+        // Given
+        assertTrue(schedulerLeaseService.tryAcquire("test-job", Duration.ofMinutes(1)));
+
+        // When / Then
+        assertTrue(schedulerLeaseService.tryAcquire("test-job", Duration.ofMinutes(1)));  // Re-entrant for the holder
+        schedulerLeaseService.release("test-job");
+        assertTrue(schedulerLeaseService.tryAcquire("test-job", Duration.ofMinutes(1)));
+    }
+
+    private void assertPaid() {
+        userRepository.findAll().stream()
+                .filter(user -> user.getUsername().startsWith("player"))
+                .forEach(user -> assertEquals(Credits.of(15), user.getCredits()));
+        List<Transaction> ledger = transactionRepository.findAll();
+        assertEquals(players, ledger.size());
+        assertTrue(ledger.stream().allMatch(t -> BonusPayoutService.DESCRIPTION.equals(t.getDescription()) && t.getCredits().equals(Credits.of(5))));
+    }
+}
@@ -1,5 +1,6 @@
 package app.IT;
 
+import app.credit.model.Credits;
 import app.defenseUpgrade.model.DefenseUpgrade;
 import app.defenseUpgrade.repository.DefenseUpgradeRepository;
 import app.defenseUpgrade.service.DefenseUpgradeService;
@@ -48,7 +49,7 @@ class DefenseUpgradeServiceIT {
                 .email("test@example.com")
                 .password("password")
                 .role(UserRole.USER)
-                .credits(400.0) // Enough to buy at least one defense upgrade
+                .credits(Credits.of(400)) // Enough to buy at least one defense upgrade
                 .createdOn(LocalDateTime.now())
                 .build();
         userRepository.save(user);
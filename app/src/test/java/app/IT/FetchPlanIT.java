@@ -0,0 +1,167 @@
+package app.IT;
+
+import app.credit.model.Credits;
+import app.defenseUpgrade.model.DefenseUpgrade;
+import app.defenseUpgrade.repository.DefenseUpgradeRepository;
+import app.hack.model.Hack;
+import app.hack.model.HackStatus;
+import app.hack.repository.HackRepository;
+import app.hack.service.HackService;
+import app.offenseUpgrade.model.OffenseUpgrade;
+import app.offenseUpgrade.repository.OffenseUpgradeRepository;
+import app.scoreboard.service.ScoreboardService;
+import app.user.model.User;
+import app.user.model.UserRole;
+import app.user.repository.UserRepository;
+import app.user.service.UserService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Pins the number of statements each use case costs. Every player defends the next one and owns both
+// upgrades, which is the worst case for the associations that used to be loaded eagerly.
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class FetchPlanIT {
+
+    private static final int PLAYERS = 10;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private HackService hackService;
+
+    @Autowired
+    private ScoreboardService scoreboardService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private HackRepository hackRepository;
+
+    @Autowired
+    private DefenseUpgradeRepository defenseUpgradeRepository;
+
+    @Autowired
+    private OffenseUpgradeRepository offenseUpgradeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final List<User> players = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < PLAYERS; i++) {
+            User player = userRepository.save(User.builder()
+                    .username("player" + i)
+                    .email("player" + i + "@example.com")
+                    .password("hashedpassword")
+                    .role(UserRole.USER)
+                    .credits(Credits.of(100))
+                    .userRank(i)
+                    .isActive(true)
+                    .createdOn(LocalDateTime.now())
+                    .build());
+            player.setDefenseUpgrade(defenseUpgradeRepository.save(DefenseUpgrade.builder().owner(player).uses(3).build()));
+            player.setOffenseUpgrade(offenseUpgradeRepository.save(OffenseUpgrade.builder().owner(player).build()));
+            if (!players.isEmpty()) {
+                players.get(players.size() - 1).setDefense(player);
+            }
+            players.add(player);
+        }
+        for (int i = 1; i < PLAYERS; i++) {
+            hackRepository.save(Hack.builder().attacker(players.get(0)).defender(players.get(i))
+                    .credits(Credits.of(1)).status(HackStatus.Succeeded).createdOn(LocalDateTime.now()).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void loadingAPlayer_DoesNotFollowTheDefenseChain() {
+        QueryCounter queries = QueryCounter.start(entityManagerFactory);
+
+        User first = userService.getById(players.get(0).getId());
+
+        queries.assertAtMost(1, "getById");
+        assertFalse(Hibernate.isInitialized(first.getDefense()));
+        assertEquals(players.get(1).getId(), first.getDefense().getId());
+        assertEquals(1, queries.count());
+    }
+
+    @Test
+    void attackPlan_LoadsBothUpgradesWithThePlayer() {
+        QueryCounter queries = QueryCounter.start(entityManagerFactory);
+
+        User attacker = userRepository.findForAttackById(players.get(0).getId()).orElseThrow();
+        User defender = userRepository.findForAttackById(players.get(1).getId()).orElseThrow();
+        int uses = defender.getDefenseUpgrade().getUses();
+
+        queries.assertAtMost(2, "loading attacker and defender for a hack");
+        assertTrue(Hibernate.isInitialized(attacker.getOffenseUpgrade()));
+        assertEquals(3, uses);
+    }
+
+    @Test
+    void creditsPlan_LoadsTheDefendedPlayerAndDefenseUpgrade() {
+        QueryCounter queries = QueryCounter.start(entityManagerFactory);
+
+        User user = userService.getWithDefenses("player0");
+        String defended = user.getDefense().getUsername();
+        int uses = user.getDefenseUpgrade().getUses();
+
+        queries.assertAtMost(1, "credits page");
+        assertEquals("player1", defended);
+        assertEquals(3, uses);
+    }
+
+    @Test
+    void scoreboardAndPlayerList_AreOneProjectionQueryEach() {
+        QueryCounter scoreboard = QueryCounter.start(entityManagerFactory);
+        scoreboardService.reload();
+        scoreboard.assertAtMost(1, "scoreboard reload");
+        assertEquals(0, scoreboard.entitiesLoaded());
+
+        entityManager.clear();
+        QueryCounter playerList = QueryCounter.start(entityManagerFactory);
+        userService.getAllUsersExceptMe("player0");
+        playerList.assertAtMost(1, "hack-on player list");
+        assertEquals(0, playerList.entitiesLoaded());
+    }
+
+    @Test
+    void historyPlan_LoadsBothSidesOfEveryHackInOneStatement() {
+        User first = userRepository.findById(players.get(0).getId()).orElseThrow();
+        QueryCounter queries = QueryCounter.start(entityManagerFactory);
+
+        List<Hack> history = hackService.getUserHistory(first);
+        history.forEach(hack -> hack.getDefender().getUsername());
+
+        queries.assertAtMost(1, "hack history");
+        assertEquals(PLAYERS - 1, history.size());
+    }
+}
@@ -1,8 +1,12 @@
 package app.IT;
 
+import app.credit.model.Credits;
 import app.defenseUpgrade.model.DefenseUpgrade;
+import app.defenseUpgrade.repository.DefenseUpgradeRepository;
 import app.defenseUpgrade.service.DefenseUpgradeService;
 import app.hack.model.Hack;
+import app.hack.model.HackHistoryEntry;
+import app.hack.model.HackHistoryPage;
 import app.hack.model.HackStatus;
 import app.hack.repository.HackRepository;
 import app.hack.service.HackService;
@@ -25,10 +29,15 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
 @ActiveProfiles("test")
@@ -48,6 +57,9 @@ class HackServiceIT {
     @Autowired
     private OffenseUpgradeRepository offenseUpgradeRepository;
 
+    @Autowired
+    private DefenseUpgradeRepository defenseUpgradeRepository;
+
     @Autowired
     private TransactionRepository transactionRepository;
 
@@ -71,7 +83,7 @@ class HackServiceIT {
                 .email("attacker@example.com")
                 .password("hashedpassword")
                 .role(UserRole.USER)
-                .credits(200.0)
+                .credits(Credits.of(200))
                 .isActive(true)
                 .createdOn(LocalDateTime.now())
                 .build());
@@ -81,7 +93,7 @@ class HackServiceIT {
                 .email("defender@example.com")
                 .password("hashedpassword")
                 .role(UserRole.USER)
-                .credits(100.0)
+                .credits(Credits.of(100))
                 .isActive(true)
                 .createdOn(LocalDateTime.now())
                 .build());
@@ -90,10 +102,10 @@ class HackServiceIT {
     @Test
     void testCreateNewHack_SuccessfulHack_ShouldTransferCredits() {
         // Given
-        double hackAmount = 50.0;
+        Credits hackAmount = Credits.of(50);
 
         // When
-        hackService.createNewHack(attacker, defender, hackAmount);
+        hackService.createNewHack(attacker.getId(), defender.getId(), hackAmount);
 
         // Then
         User updatedAttacker = userRepository.findById(attacker.getId()).orElseThrow();
@@ -102,10 +114,10 @@ class HackServiceIT {
         Transaction attackerTransaction = (Transaction) transactionRepository.findByUserAndDescription(updatedAttacker, "Hack").get(0);
         Transaction defenderTransaction = (Transaction) transactionRepository.findByUserAndDescription(updatedDefender, "Hack").get(0);
 
-        assertEquals(250.0, updatedAttacker.getCredits()); // 200 + 50
-        assertEquals(50.0, updatedDefender.getCredits());  // 100 - 50
+        assertEquals(Credits.of(250), updatedAttacker.getCredits()); // 200 + 50
+        assertEquals(Credits.of(50), updatedDefender.getCredits());  // 100 - 50
         assertEquals(HackStatus.Succeeded, hack.getStatus());
-        assertEquals(50.0, hack.getCredits());
+        assertEquals(Credits.of(50), hack.getCredits());
         assertEquals(TransactionType.RECEIVE, attackerTransaction.getTransactionType());
         assertEquals(TransactionType.SEND, defenderTransaction.getTransactionType());
     }
@@ -117,33 +129,36 @@ class HackServiceIT {
         userRepository.save(defender);
 
         // When
-        hackService.createNewHack(attacker, defender, 50.0);
+        hackService.createNewHack(attacker.getId(), defender.getId(), Credits.of(50));
 
         // Then
         Hack hack = hackRepository.findAll().get(0);
         User updatedDefender = userRepository.findById(defender.getId()).orElseThrow();
 
         assertEquals(HackStatus.Defended, hack.getStatus());
-        assertEquals(100.0, updatedDefender.getCredits()); // Credits remain unchanged
-        assertEquals(200.0, attacker.getCredits()); // No transfer happened
+        assertEquals(Credits.of(100), updatedDefender.getCredits()); // Credits remain unchanged
+        assertEquals(Credits.of(200), attacker.getCredits()); // No transfer happened
     }
 
     @Test
     void testCreateNewHack_DefenderHasDefenseUpgrade_ShouldBeDefended() {
         // Given
-        DefenseUpgrade defenseUpgrade = DefenseUpgrade.builder().owner(defender).uses(1).build();
+        DefenseUpgrade defenseUpgrade = defenseUpgradeRepository.save(
+                DefenseUpgrade.builder().owner(defender).uses(1).build()
+        ); // Persisted, since the hack reloads the defender
+
         defender.setDefenseUpgrade(defenseUpgrade);
         userRepository.save(defender);
 
         // When
-        hackService.createNewHack(attacker, defender, 50.0);
+        hackService.createNewHack(attacker.getId(), defender.getId(), Credits.of(50));
 
         // Then
         Hack hack = hackRepository.findAll().get(0);
         User updatedDefender = userRepository.findById(defender.getId()).orElseThrow();
 
         assertEquals(HackStatus.Defended, hack.getStatus());
-        assertEquals(100.0, updatedDefender.getCredits()); // Credits remain unchanged
+        assertEquals(Credits.of(100), updatedDefender.getCredits()); // Credits remain unchanged
     }
 
     @Test
@@ -156,19 +171,19 @@ class HackServiceIT {
         attacker.setOffenseUpgrade(offenseUpgrade);
         userRepository.save(attacker); // Update attacker with offense upgrade
 
-        double hackAmount = 50.0;
-        double expectedStolen = 50.0 * 1.5; // Assuming OFFENSE_UPGRADE_MULTIPLER = 1.5
+        Credits hackAmount = Credits.of(50);
+        Credits expectedStolen = Credits.of(75); // 50 * 1.5 with the offense upgrade
 
         // When
-        hackService.createNewHack(attacker, defender, hackAmount);
+        hackService.createNewHack(attacker.getId(), defender.getId(), hackAmount);
 
         // Then
         User updatedAttacker = userRepository.findById(attacker.getId()).orElseThrow();
         User updatedDefender = userRepository.findById(defender.getId()).orElseThrow();
         Hack hack = hackRepository.findAll().get(0);
 
-        assertEquals(200.0 + expectedStolen, updatedAttacker.getCredits());
-        assertEquals(100.0 - expectedStolen, updatedDefender.getCredits());
+        assertEquals(Credits.of(200).plus(expectedStolen), updatedAttacker.getCredits());
+        assertEquals(Credits.of(100).minus(expectedStolen), updatedDefender.getCredits());
         assertEquals(HackStatus.Succeeded, hack.getStatus());
     }
 
@@ -176,21 +191,21 @@ class HackServiceIT {
     @Test
     void testCreateNewHack_DefenderHasLessCreditsThanHackAmount_ShouldStealOnlyAvailable() {
         // Given
-        defender.setCredits(30.0);
+        defender.setCredits(Credits.of(30));
         userRepository.save(defender);
 
         // When
-        hackService.createNewHack(attacker, defender, 50.0);
+        hackService.createNewHack(attacker.getId(), defender.getId(), Credits.of(50));
 
         // Then
         User updatedAttacker = userRepository.findById(attacker.getId()).orElseThrow();
         User updatedDefender = userRepository.findById(defender.getId()).orElseThrow();
         Hack hack = hackRepository.findAll().get(0);
 
-        assertEquals(200.0 + 30.0, updatedAttacker.getCredits());
-        assertEquals(0.0, updatedDefender.getCredits());
+        assertEquals(Credits.of(230), updatedAttacker.getCredits());
+        assertEquals(Credits.ZERO, updatedDefender.getCredits());
         assertEquals(HackStatus.Succeeded, hack.getStatus());
-        assertEquals(30.0, hack.getCredits());
+        assertEquals(Credits.of(30), hack.getCredits());
     }
 
     @Test
@@ -216,8 +231,8 @@ class HackServiceIT {
     @Test
     void testGetUserHistory_ShouldReturnHacks() {
         // Given
-        hackService.createNewHack(attacker, defender, 20.0);
-        hackService.createNewHack(defender, attacker, 15.0);
+        hackService.createNewHack(attacker.getId(), defender.getId(), Credits.of(20));
+        hackService.createNewHack(defender.getId(), attacker.getId(), Credits.of(15));
 
         // When
         List<Hack> attackerHistory = hackService.getUserHistory(attacker);
@@ -227,4 +242,30 @@ class HackServiceIT {
         assertEquals(2, attackerHistory.size()); // Attacker was involved in 2 hacks
         assertEquals(2, defenderHistory.size()); // Defender was involved in 2 hacks
     }
+
+    @Test
+    void testGetUserHistoryPage_ShouldPageThroughBothSidesWithoutGapsOrRepeats() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            hackService.createNewHack(attacker.getId(), defender.getId(), Credits.of(1));
+            hackService.createNewHack(defender.getId(), attacker.getId(), Credits.of(1));
+        }
+
+        // When
+        HackHistoryPage first = hackService.getUserHistoryPage(attacker.getId(), null, 4);
+        HackHistoryPage second = hackService.getUserHistoryPage(attacker.getId(), first.getNextCursor(), 4);
+
+        // Then
+        assertEquals(4, first.getEntries().size());
+        assertTrue(first.hasNext());
+        assertEquals(2, second.getEntries().size());
+        assertFalse(second.hasNext());
+        Set<UUID> seen = new HashSet<>();
+        first.getEntries().forEach(entry -> seen.add(entry.getId()));
+        second.getEntries().forEach(entry -> seen.add(entry.getId()));
+        assertEquals(6, seen.size());
+        assertEquals(3, first.getEntries().stream().filter(HackHistoryEntry::isAttacking).count()
+                + second.getEntries().stream().filter(HackHistoryEntry::isAttacking).count());
+        assertEquals("defender", first.getEntries().get(0).getOpponentUsername());
+    }
 }
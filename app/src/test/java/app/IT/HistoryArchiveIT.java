@@ -0,0 +1,199 @@
+package app.IT;
+
+import app.archive.model.ArchiveTable;
+import app.archive.repository.ArchiveJdbcRepository;
+import app.archive.service.ArchiveService;
+import app.credit.model.Credits;
+import app.hack.model.Hack;
+import app.hack.model.HackHistoryEntry;
+import app.hack.model.HackHistoryPage;
+import app.hack.model.HackStatus;
+import app.hack.repository.HackRepository;
+import app.hack.service.HackService;
+import app.metrics.GameMetrics;
+import app.transaction.model.Transaction;
+import app.transaction.model.TransactionFeedEntry;
+import app.transaction.model.TransactionFeedPage;
+import app.transaction.model.TransactionType;
+import app.transaction.repository.TransactionRepository;
+import app.transaction.service.TransactionService;
+import app.user.model.User;
+import app.user.model.UserRole;
+import app.user.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"app.archive.retention-days=90", "app.archive.batch-size=2"})
+@ActiveProfiles("test")
+@Transactional
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class HistoryArchiveIT {
+
+    @Autowired
+    private ArchiveService archiveService;
+
+    @Autowired
+    private ArchiveJdbcRepository archiveJdbcRepository;
+
+    @Autowired
+    private HackService hackService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private HackRepository hackRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private GameMetrics gameMetrics;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final LocalDateTime now = LocalDateTime.now();
+    private User attacker;
+    private final List<UUID> oldHacks = new ArrayList<>();
+    private final List<UUID> oldTransactions = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        attacker = player("attacker");
+        User defender = player("defender");
+
+        // Three hacks past the 90 day retention window and two recent ones
+        for (int days : new int[]{200, 201, 202}) {
+            oldHacks.add(hack(attacker, defender, now.minusDays(days)).getId());
+        }
+        hack(attacker, defender, now.minusDays(1));
+        hack(defender, attacker, now.minusDays(2));
+
+        for (int days : new int[]{100, 300, 400}) {
+            oldTransactions.add(transaction(attacker, now.minusDays(days)).getId());
+        }
+        transaction(attacker, now.minusDays(3));
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void archive_MovesOnlyRowsPastRetention_InBatches() {
+        long hacks = archiveService.archive(ArchiveTable.HACK, now);
+        long transactions = archiveService.archive(ArchiveTable.TRANSACTION, now);
+        entityManager.clear();
+
+        assertEquals(3, hacks);
+        assertEquals(3, transactions);
+        assertEquals(3, archiveJdbcRepository.count(ArchiveTable.HACK));
+        assertEquals(3, archiveJdbcRepository.count(ArchiveTable.TRANSACTION));
+        assertEquals(2, hackRepository.count());
+        oldHacks.forEach(id -> assertTrue(hackRepository.findById(id).isEmpty()));
+        oldTransactions.forEach(id -> assertTrue(transactionRepository.findById(id).isEmpty()));
+
+        // Nothing left to move
+        assertEquals(0, archiveService.archive(ArchiveTable.HACK, now));
+    }
+
+    @Test
+    void archive_StopsAfterMaxBatches_AndTheNextRunContinues() {
+        ArchiveService oneBatchPerRun = new ArchiveService(archiveJdbcRepository, transactionManager, gameMetrics, 90, 2, 1);
+
+        assertEquals(2, oneBatchPerRun.archive(ArchiveTable.HACK, now));
+        assertEquals(1, oneBatchPerRun.archive(ArchiveTable.HACK, now));
+        assertEquals(0, oneBatchPerRun.archive(ArchiveTable.HACK, now));
+        assertEquals(3, archiveJdbcRepository.count(ArchiveTable.HACK));
+    }
+
+    @Test
+    void historyPages_SpanHotAndArchivedHacks() {
+        List<HackHistoryEntry> before = allHistory();
+
+        archiveService.archive(ArchiveTable.HACK, now);
+        List<HackHistoryEntry> after = allHistory();
+
+        assertEquals(5, after.size());
+        assertEquals(before.stream().map(HackHistoryEntry::getId).toList(), after.stream().map(HackHistoryEntry::getId).toList());
+        assertEquals(oldHacks, after.subList(2, 5).stream().map(HackHistoryEntry::getId).toList());
+        assertTrue(after.get(2).isAttacking());
+        assertEquals("defender", after.get(4).getOpponentUsername());
+        assertEquals(HackStatus.Succeeded, after.get(4).getStatus());
+    }
+
+    @Test
+    void transactionFeedAndExport_SpanHotAndArchivedRows() throws Exception {
+        archiveService.archive(ArchiveTable.TRANSACTION, now);
+
+        List<UUID> feed = new ArrayList<>();
+        String cursor = null;
+        do {
+            TransactionFeedPage page = transactionService.getTransactionFeed(cursor, 2);
+            page.getEntries().stream().map(TransactionFeedEntry::getId).forEach(feed::add);
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        StringWriter export = new StringWriter();
+        long exported = transactionService.exportTransactions(export);
+
+        assertEquals(oldTransactions, feed.subList(feed.size() - 3, feed.size()));
+        assertEquals(feed.size(), exported);
+        oldTransactions.forEach(id -> assertTrue(export.toString().contains(id + ",attacker,RECEIVE,1,Hack,")));
+    }
+
+    private List<HackHistoryEntry> allHistory() {
+        List<HackHistoryEntry> entries = new ArrayList<>();
+        String cursor = null;
+        do {
+            HackHistoryPage page = hackService.getUserHistoryPage(attacker.getId(), cursor, 2);
+            entries.addAll(page.getEntries());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return entries;
+    }
+
+    private User player(String username) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("hashedpassword")
+                .role(UserRole.USER)
+                .isActive(true)
+                .credits(Credits.of(100))
+                .userRank(0)
+                .createdOn(now.minusYears(2))
+                .build());
+    }
+
+    private Hack hack(User attacker, User defender, LocalDateTime createdOn) {
+        return hackRepository.save(Hack.builder().attacker(attacker).defender(defender)
+                .credits(Credits.of(1)).status(HackStatus.Succeeded).createdOn(createdOn).build());
+    }
+
+    private Transaction transaction(User user, LocalDateTime createdOn) {
+        return transactionRepository.save(Transaction.builder().user(user).credits(Credits.of(1)).description("Hack")
+                .transactionType(TransactionType.RECEIVE).createdOn(createdOn).build());
+    }
+}
@@ -1,5 +1,6 @@
 package app.IT;
 
+import app.credit.model.Credits;
 import app.exception.DomainException;
 import app.offenseUpgrade.model.OffenseUpgrade;
 import app.offenseUpgrade.repository.OffenseUpgradeRepository;
@@ -43,8 +44,7 @@ class OffenseUpgradeServiceIT {
     @Autowired
     private TransactionService transactionService;
 
-    private static final double OFFENSE_UPGRADE_PRICE = 250.0;
-    private static final double OFFENSE_UPGRADE_MULTIPLER = 1.5;
+    private static final Credits OFFENSE_UPGRADE_PRICE = Credits.of(250);
 
     private User user;
 
@@ -56,7 +56,7 @@ class OffenseUpgradeServiceIT {
                 .email("test@example.com")
                 .password("hashedpassword")
                 .role(UserRole.USER)
-                .credits(300.00)  // Enough to buy upgrade
+                .credits(Credits.of(300))  // Enough to buy upgrade
                 .isActive(true)
                 .createdOn(LocalDateTime.now())
                 .build());
@@ -73,7 +73,7 @@ class OffenseUpgradeServiceIT {
         Transaction transaction = transactionRepository.findAll().get(0);
 
         assertNotNull(upgrade);
-        assertEquals(50.0, updatedUser.getCredits()); // 300 - 250 = 50
+        assertEquals(Credits.of(50), updatedUser.getCredits()); // 300 - 250 = 50
         assertEquals(OFFENSE_UPGRADE_PRICE, transaction.getCredits());
         assertEquals("Bough Offense Upgrade", transaction.getDescription());
     }
@@ -94,7 +94,7 @@ class OffenseUpgradeServiceIT {
     @Test
     void testCreateOffenseUpgrade_ShouldThrowException_WhenNotEnoughCredits() {
         // Given
-        user.setCredits(30.0); // Not enough for the upgrade
+        user.setCredits(Credits.of(30)); // Not enough for the upgrade
         userRepository.save(user);
 
         // When & Then
@@ -108,12 +108,12 @@ class OffenseUpgradeServiceIT {
     @Test
     void testCalculateCredits_ShouldApplyMultiplierCorrectly() {
         // Given
-        double baseCredits = 100.0;
+        Credits baseCredits = Credits.of(100);
 
         // When
-        double upgradedCredits = offenseUpgradeService.calculateCredits(baseCredits);
+        Credits upgradedCredits = offenseUpgradeService.calculateCredits(baseCredits);
 
         // Then
-        assertEquals(150.0, upgradedCredits);
+        assertEquals(Credits.of(150), upgradedCredits);
     }
 }
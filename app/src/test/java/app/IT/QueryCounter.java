@@ -0,0 +1,43 @@
+package app.IT;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+// Counts the JDBC statements Hibernate prepares from start() on, so a test can pin how many round trips a
+// use case costs and an N+1 regression fails the build. Relies on hibernate.generate_statistics, which the
+// test profile switches on; the counters are global, so only use it from single-threaded tests.
+public class QueryCounter {
+
+    private final Statistics statistics;
+
+    private QueryCounter(Statistics statistics) {
+        this.statistics = statistics;
+    }
+
+    public static QueryCounter start(EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (!statistics.isStatisticsEnabled()) {
+            throw new IllegalStateException("Hibernate statistics are off - set spring.jpa.properties.hibernate.generate_statistics=true");
+        }
+        statistics.clear();
+        return new QueryCounter(statistics);
+    }
+
+    public long count() {
+        return statistics.getPrepareStatementCount();
+    }
+
+    // Entities materialised into a persistence context - zero for pages built from projections
+    public long entitiesLoaded() {
+        return statistics.getEntityLoadCount();
+    }
+
+    public void assertAtMost(long expected, String useCase) {
+        long actual = count();
+        if (actual > expected) {
+            throw new AssertionError("%s ran %d statements, expected at most %d - is an association being loaded one row at a time?"
+                    .formatted(useCase, actual, expected));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package app.IT;
+
+import app.credit.model.Credits;
+import app.hack.service.HackService;
+import app.reconciliation.model.BalanceSnapshot;
+import app.reconciliation.model.ReconciliationReport;
+import app.reconciliation.repository.BalanceSnapshotRepository;
+import app.reconciliation.service.ReconciliationService;
+import app.user.model.User;
+import app.user.model.UserRole;
+import app.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not @Transactional: the reconciler reads on its own worker threads, which only see committed rows
+@SpringBootTest(properties = {"app.reconcile.settle-millis=0", "app.reconcile.partitions=4", "app.reconcile.threads=2"})
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ReconciliationIT {
+
+    @Autowired
+    private ReconciliationService reconciliationService;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @Autowired
+    private HackService hackService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User attacker;
+    private User defender;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        attacker = player("attacker" + suffix, Credits.of(100));
+        defender = player("defender" + suffix, Credits.of(50));
+    }
+
+    @Test
+    void reconcile_FollowsLedgerAcrossRuns_AndFlagsCreditsChangedBehindItsBack() {
+        ReconciliationReport opening = reconciliationService.reconcile(LocalDateTime.now());
+        assertEquals(userRepository.count(), opening.getPlayersChecked());
+        assertEquals(0, opening.getPlayersDrifted());
+        assertEquals(Credits.of(100), snapshot(attacker).getBalance());
+
+        hackService.createNewHack(attacker.getId(), defender.getId(), Credits.of(10));
+        ReconciliationReport afterHack = reconciliationService.reconcile(LocalDateTime.now());
+        assertEquals(0, afterHack.getPlayersDrifted());
+        assertEquals(Credits.of(110), snapshot(attacker).getBalance());
+        assertEquals(Credits.of(40), snapshot(defender).getBalance());
+
+        jdbcTemplate.update("update players set credits = credits + 7000 where id = ?", attacker.getId());
+        ReconciliationReport firstSighting = reconciliationService.reconcile(LocalDateTime.now());
+        ReconciliationReport secondSighting = reconciliationService.reconcile(LocalDateTime.now());
+
+        assertEquals(1, firstSighting.getPlayersDrifted());
+        assertEquals(0, firstSighting.getPlayersFlagged());
+        assertEquals(1, secondSighting.getPlayersFlagged());
+        assertEquals(Credits.of(7), snapshot(attacker).getDrift());
+        assertEquals(Credits.ZERO, snapshot(defender).getDrift());
+    }
+
+    private BalanceSnapshot snapshot(User player) {
+        return balanceSnapshotRepository.findById(player.getId()).orElseThrow();
+    }
+
+    private User player(String username, Credits credits) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("hashedpassword")
+                .role(UserRole.USER)
+                .isActive(true)
+                .credits(credits)
+                .userRank(0)
+                .createdOn(LocalDateTime.now())
+                .build());
+    }
+}
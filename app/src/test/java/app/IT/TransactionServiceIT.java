@@ -1,7 +1,11 @@
 package app.IT;
 
+import app.credit.model.Credits;
 import app.transaction.model.Transaction;
+import app.transaction.model.TransactionFeedEntry;
+import app.transaction.model.TransactionFeedPage;
 import app.transaction.model.TransactionType;
+import app.transaction.repository.LedgerJdbcRepository;
 import app.transaction.repository.TransactionRepository;
 import app.transaction.service.TransactionService;
 import app.user.model.User;
@@ -15,6 +19,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
@@ -36,6 +42,9 @@ class TransactionServiceIT {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private LedgerJdbcRepository ledgerJdbcRepository;
+
     private User sender;
     private User receiver;
 
@@ -64,7 +73,7 @@ class TransactionServiceIT {
     @Test
     void testCreateTransaction_ShouldSaveTransaction() {
         // Given
-        Double credits = 100.0;
+        Credits credits = Credits.of(100);
         String description = "Sent money";
         TransactionType type = TransactionType.SEND;
 
@@ -82,7 +91,7 @@ class TransactionServiceIT {
     @Test
     void testCreateTransaction_ShouldNotSaveTransaction_WhenCreditsAreZero() {
         // Given
-        Double credits = 0.0;
+        Credits credits = Credits.ZERO;
         String description = "Invalid transaction";
         TransactionType type = TransactionType.SEND;
 
@@ -99,7 +108,7 @@ class TransactionServiceIT {
         // Given
         Transaction savedTransaction = transactionRepository.save(Transaction.builder()
                 .user(sender)
-                .credits(50.0)
+                .credits(Credits.of(50))
                 .description("Test Transaction")
                 .transactionType(TransactionType.RECEIVE)
                 .createdOn(LocalDateTime.now())
@@ -127,7 +136,7 @@ class TransactionServiceIT {
         // Given
         Transaction t1 = transactionRepository.save(Transaction.builder()
                 .user(sender)
-                .credits(50.0)
+                .credits(Credits.of(50))
                 .description("Older Transaction")
                 .transactionType(TransactionType.SEND)
                 .createdOn(LocalDateTime.now().minusDays(1))
@@ -135,7 +144,7 @@ class TransactionServiceIT {
 
         Transaction t2 = transactionRepository.save(Transaction.builder()
                 .user(receiver)
-                .credits(100.0)
+                .credits(Credits.of(100))
                 .description("Newer Transaction")
                 .transactionType(TransactionType.RECEIVE)
                 .createdOn(LocalDateTime.now())
@@ -149,4 +158,56 @@ class TransactionServiceIT {
         assertEquals(t2.getId(), transactions.get(0).getId()); // Newest first
         assertEquals(t1.getId(), transactions.get(1).getId()); // Oldest last
     }
+
+    @Test
+    void testLedgerBatchInsert_ShouldPersistAllEntries() {
+        // Given
+        List<Transaction> batch = List.of(
+                Transaction.builder().id(UUID.randomUUID()).user(sender).credits(Credits.of(5)).description("Daily Bonus")
+                        .transactionType(TransactionType.RECEIVE).createdOn(LocalDateTime.now()).build(),
+                Transaction.builder().id(UUID.randomUUID()).user(receiver).credits(Credits.of(5)).description("Daily Bonus")
+                        .transactionType(TransactionType.RECEIVE).createdOn(LocalDateTime.now()).build());
+
+        userRepository.flush(); // JDBC writes bypass the persistence context
+
+        // When
+        ledgerJdbcRepository.batchInsert(batch);
+
+        // Then
+        List<Transaction> transactions = transactionRepository.findAll();
+        assertEquals(2, transactions.size());
+        assertEquals("Daily Bonus", transactions.get(0).getDescription());
+    }
+
+    @Test
+    void testGetTransactionFeed_ShouldPageNewestFirstAndExportEverything() throws IOException {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 5; i++) {
+            transactionRepository.save(Transaction.builder()
+                    .user(sender)
+                    .credits(Credits.of(10 + i))
+                    .description("Transfer " + i)
+                    .transactionType(TransactionType.SEND)
+                    .createdOn(now.minusMinutes(i))
+                    .build());
+        }
+        transactionRepository.flush();
+
+        // When
+        TransactionFeedPage first = transactionService.getTransactionFeed(null, 3);
+        TransactionFeedPage second = transactionService.getTransactionFeed(first.getNextCursor(), 3);
+        StringWriter csv = new StringWriter();
+        long exported = transactionService.exportTransactions(csv);
+
+        // Then
+        assertEquals(List.of("Transfer 0", "Transfer 1", "Transfer 2"),
+                first.getEntries().stream().map(TransactionFeedEntry::getDescription).toList());
+        assertEquals(List.of("Transfer 3", "Transfer 4"),
+                second.getEntries().stream().map(TransactionFeedEntry::getDescription).toList());
+        assertFalse(second.hasNext());
+        assertEquals("senderUser", first.getEntries().get(0).getUsername());
+        assertEquals(5, exported);
+        assertEquals(6, csv.toString().lines().count());
+    }
 }
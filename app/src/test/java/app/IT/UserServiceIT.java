@@ -1,6 +1,9 @@
 package app.IT;
 
+import app.credit.model.Credits;
 import app.exception.DomainException;
+import app.security.HashingAuthenticationProvider;
+import app.user.model.PlayerSnapshot;
 import app.user.model.User;
 import app.user.model.UserRole;
 import app.user.repository.UserRepository;
@@ -14,9 +17,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.transaction.TestTransaction;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -41,11 +48,16 @@ class UserServiceIT {
     @Autowired
     private CacheManager cacheManager;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @BeforeEach
     void clearCache() {
-        Cache cache = cacheManager.getCache("users");
-        if (cache != null) {
-            cache.clear();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
         }
     }
 
@@ -132,7 +144,7 @@ class UserServiceIT {
                 .build());
 
         // When
-        List<User> users = userService.getAllUsers();
+        List<PlayerSnapshot> users = userService.getAllUsers();
         users.forEach(u -> System.out.println(u.getUsername()));
         // Then
         assertEquals(2, users.size()); // We expect 2 because we always have KrisRoot as a default user init
@@ -238,7 +250,7 @@ class UserServiceIT {
                 .password(passwordEncoder.encode("password"))
                 .role(UserRole.USER)
                 .isActive(true)
-                .credits(30.0) // Not enough credits
+                .credits(Credits.of(30)) // Not enough credits
                 .createdOn(LocalDateTime.now())
                 .build());
 
@@ -257,7 +269,7 @@ class UserServiceIT {
                 .role(UserRole.USER)
                 .isActive(true)
                 .userRank(0)
-                .credits(60.0) // Enough credits
+                .credits(Credits.of(60)) // Enough credits
                 .createdOn(LocalDateTime.now())
                 .build());
 
@@ -266,7 +278,53 @@ class UserServiceIT {
         User updatedUser = userRepository.findById(user.getId()).orElseThrow();
 
         // Then
-        assertEquals(10.0, updatedUser.getCredits()); // 60 - 50 = 10
+        assertEquals(Credits.of(10), updatedUser.getCredits()); // 60 - 50 = 10
         assertEquals(1, updatedUser.getUserRank());
     }
+
+    @Test
+    void testSignIn_RehashesPasswordStoredWithAnotherCost() {
+        // Given a hash from before the cost changed
+        User user = userRepository.saveAndFlush(User.builder()
+                .username("oldHash")
+                .email("old@example.com")
+                .password(new BCryptPasswordEncoder(5).encode("password"))
+                .role(UserRole.USER)
+                .isActive(true)
+                .credits(Credits.of(30))
+                .createdOn(LocalDateTime.now())
+                .build());
+
+        // When
+        new HashingAuthenticationProvider(userService, userService, passwordEncoder).authenticate(new UsernamePasswordAuthenticationToken("oldHash", "password"));
+
+        // Then only the hash was rewritten, with the configured cost
+        String stored = jdbcTemplate.queryForObject("select password from players where id = ?", String.class, user.getId());
+        assertTrue(stored.startsWith("$2a$10$"));
+        assertTrue(passwordEncoder.matches("password", stored));
+        assertFalse(passwordEncoder.upgradeEncoding(stored));
+        assertEquals(Credits.of(30), userRepository.findCreditsById(user.getId()));
+    }
+
+    @Test
+    void testBan_AppliesToTheNextSignIn_EvenWithThePrincipalCached() {
+        // Given a player whose principal is already cached by an earlier sign-in
+        User user = userRepository.saveAndFlush(User.builder()
+                .username("soonBanned")
+                .email("banned@example.com")
+                .password(passwordEncoder.encode("password"))
+                .role(UserRole.USER)
+                .isActive(true)
+                .createdOn(LocalDateTime.now())
+                .build());
+        assertTrue(userService.loadUserByUsername("soonBanned").isEnabled());
+
+        // When the ban commits - the cache is evicted after commit, which the test transaction would otherwise never reach
+        userService.banUser(user);
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        // Then
+        assertFalse(userService.loadUserByUsername("soonBanned").isEnabled());
+    }
 }
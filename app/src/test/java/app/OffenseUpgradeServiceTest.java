@@ -1,10 +1,14 @@
 package app;
 
+import app.credit.model.Credits;
+import app.credit.service.CreditTransferService;
 
 import app.exception.DomainException;
+import app.metrics.GameMetrics;
 import app.offenseUpgrade.model.OffenseUpgrade;
 import app.offenseUpgrade.repository.OffenseUpgradeRepository;
 import app.offenseUpgrade.service.OffenseUpgradeService;
+import app.scoreboard.service.ScoreboardService;
 import app.transaction.model.TransactionType;
 import app.transaction.service.TransactionService;
 import app.user.model.User;
@@ -24,8 +28,6 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class OffenseUpgradeServiceTest {
 
-    private static final double OFFENSE_UPGRADE_PRICE = 100.0;
-    private static final double OFFENSE_UPGRADE_MULTIPLIER = 1.5;
 
     @Mock
     private UserRepository userRepository;
@@ -36,6 +38,15 @@ class OffenseUpgradeServiceTest {
     @Mock
     private TransactionService transactionService;
 
+    @Mock
+    private CreditTransferService creditTransferService;
+
+    @Mock
+    private ScoreboardService scoreboardService;
+
+    @Mock
+    private GameMetrics gameMetrics;
+
     @InjectMocks
     private OffenseUpgradeService offenseUpgradeService;
 
@@ -46,24 +57,25 @@ class OffenseUpgradeServiceTest {
         user = User.builder()
                 .id(UUID.randomUUID())
                 .username("testuser")
-                .credits(200.0) // Enough credits
+                .credits(Credits.of(200)) // Enough credits
                 .build();
     }
 
     @Test
     void shouldCreateOffenseUpgradeSuccessfully() {
-        user.setCredits(350.0); // Ensure enough credits before test
+        user.setCredits(Credits.of(350)); // Ensure enough credits before test
 
         when(offenseUpgradeRepository.save(any(OffenseUpgrade.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(creditTransferService.tryDebit(user, Credits.of(250))).thenReturn(true);
 
         offenseUpgradeService.createOffenseUpgrade(user);
 
-        assertThat(user.getCredits()).isEqualTo(100.0); // 350 - 250 = 100
+        verify(creditTransferService).tryDebit(user, Credits.of(250));
         assertThat(user.getOffenseUpgrade()).isNotNull();
         verify(offenseUpgradeRepository).save(any(OffenseUpgrade.class));
 
         // Update the expected transaction amount to match the actual behavior
-        verify(transactionService).createTransaction(user, 250.0, "Bough Offense Upgrade", TransactionType.SEND);
+        verify(transactionService).createTransaction(user, Credits.of(250), "Bough Offense Upgrade", TransactionType.SEND);
 
         verify(userRepository).save(user);
     }
@@ -79,29 +91,29 @@ class OffenseUpgradeServiceTest {
                 .hasMessage("Already owned!");
 
         verify(offenseUpgradeRepository, never()).save(any());
-        verify(transactionService, never()).createTransaction(any(), anyDouble(), anyString(), any());
+        verify(transactionService, never()).createTransaction(any(), any(), anyString(), any());
         verify(userRepository, never()).save(any());
     }
 
     @Test
     void shouldThrowExceptionWhenUserHasInsufficientCredits() {
-        user.setCredits(50.0); // Not enough
+        user.setCredits(Credits.of(50)); // Not enough
 
         assertThatThrownBy(() -> offenseUpgradeService.createOffenseUpgrade(user))
                 .isInstanceOf(DomainException.class)
                 .hasMessage("Not enough credits");
 
         verify(offenseUpgradeRepository, never()).save(any());
-        verify(transactionService, never()).createTransaction(any(), anyDouble(), anyString(), any());
+        verify(transactionService, never()).createTransaction(any(), any(), anyString(), any());
         verify(userRepository, never()).save(any());
     }
 
     @Test
     void shouldCalculateCreditsWithMultiplier() {
-        double credits = 200.0;
-        double expectedCredits = credits * OFFENSE_UPGRADE_MULTIPLIER;
+        Credits credits = Credits.of(200);
+        Credits expectedCredits = Credits.of(300);
 
-        double result = offenseUpgradeService.calculateCredits(credits);
+        Credits result = offenseUpgradeService.calculateCredits(credits);
 
         assertThat(result).isEqualTo(expectedCredits);
     }
@@ -0,0 +1,117 @@
+package app;
+
+import app.config.CacheConfiguration;
+import app.user.model.PlayerRow;
+import app.user.model.PlayerSnapshot;
+import app.user.model.User;
+import app.user.model.UserRole;
+import app.user.repository.UserRepository;
+import app.user.service.PlayerCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PlayerCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private CacheManager cacheManager;
+    private PlayerCache playerCache;
+
+    private User alice;
+    private User bob;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new CacheConfiguration().cacheManager(100, 60, 100, 60);
+        playerCache = new PlayerCache(userRepository, cacheManager, new SimpleMeterRegistry());
+        alice = User.builder().id(UUID.randomUUID()).username("alice").role(UserRole.USER).isActive(true).userRank(1).build();
+        bob = User.builder().id(UUID.randomUUID()).username("bob").role(UserRole.USER).isActive(true).userRank(2).build();
+    }
+
+    @Test
+    void shouldServeRosterAndPlayersFromOneQuery_WhenCold() {
+        when(userRepository.findActivePlayerRows()).thenReturn(new ArrayList<>(List.of(row(alice), row(bob))));
+
+        List<PlayerSnapshot> first = playerCache.getActive();
+        List<PlayerSnapshot> second = playerCache.getActive();
+
+        assertThat(first).extracting(PlayerSnapshot::getUsername).containsExactly("alice", "bob");
+        assertThat(second).extracting(PlayerSnapshot::getUsername).containsExactly("alice", "bob");
+        verify(userRepository, times(1)).findActivePlayerRows();
+        verify(userRepository, never()).findPlayerRowById(any());
+    }
+
+    @Test
+    void shouldReloadOnlyThatPlayer_WhenEvicted() {
+        when(userRepository.findActivePlayerRows()).thenReturn(new ArrayList<>(List.of(row(alice), row(bob))));
+        playerCache.getActive();
+
+        alice.setUserRank(7);
+        when(userRepository.findPlayerRowById(alice.getId())).thenReturn(Optional.of(row(alice)));
+        playerCache.evict(alice.getId());
+
+        assertThat(playerCache.getActive()).extracting(PlayerSnapshot::getUserRank).containsExactly(7, 2);
+        verify(userRepository, times(1)).findActivePlayerRows();
+        verify(userRepository, never()).findPlayerRowById(bob.getId());
+    }
+
+    @Test
+    void shouldRebuildRoster_WhenMembershipChanges() {
+        when(userRepository.findActivePlayerRows())
+                .thenReturn(new ArrayList<>(List.of(row(alice), row(bob))))
+                .thenReturn(new ArrayList<>(List.of(row(bob))));
+        playerCache.getActive();
+
+        alice.setActive(false);
+        playerCache.evictMembership(alice.getId());
+
+        assertThat(playerCache.getActive()).extracting(PlayerSnapshot::getUsername).containsExactly("bob");
+    }
+
+    @Test
+    void shouldRecordHitsAndMisses() {
+        when(userRepository.findPlayerRowById(alice.getId())).thenReturn(Optional.of(row(alice)));
+
+        playerCache.get(alice.getId());
+        playerCache.get(alice.getId());
+
+        Cache<?, ?> players = ((CaffeineCache) cacheManager.getCache(CacheConfiguration.PLAYERS)).getNativeCache();
+        assertThat(players.stats().missCount()).isEqualTo(1);
+        assertThat(players.stats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotCacheLoadThatRacedWithEviction() {
+        when(userRepository.findPlayerRowById(alice.getId())).thenAnswer(invocation -> {
+            playerCache.evict(alice.getId());  // Commit lands while the row is being read
+            return Optional.of(row(alice));
+        });
+
+        playerCache.get(alice.getId());
+        playerCache.get(alice.getId());
+
+        verify(userRepository, times(2)).findPlayerRowById(alice.getId());
+    }
+
+    private static PlayerRow row(User user) {
+        return new PlayerRow(user.getId(), user.getUsername(), user.getProfilePicture(), user.getUserRank(),
+                user.getCredits(), user.getRole(), user.isActive());
+    }
+}
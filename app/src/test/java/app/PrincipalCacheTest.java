@@ -0,0 +1,89 @@
+package app;
+
+import app.config.CacheConfiguration;
+import app.security.AuthenticationMetadata;
+import app.user.model.PrincipalRow;
+import app.user.model.UserRole;
+import app.user.repository.UserRepository;
+import app.user.service.PrincipalCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PrincipalCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private PrincipalCache principalCache;
+    private UUID aliceId;
+
+    @BeforeEach
+    void setUp() {
+        principalCache = new PrincipalCache(userRepository, new CacheConfiguration().cacheManager(100, 60, 100, 60));
+        aliceId = UUID.randomUUID();
+    }
+
+    @Test
+    void shouldQueryOnce_AndHandOutAFreshPrincipalEachTime() {
+        when(userRepository.findPrincipalByUsername("alice")).thenReturn(Optional.of(row(UserRole.USER, true)));
+
+        AuthenticationMetadata first = principalCache.get("alice").orElseThrow();
+        first.setPassword("changed by the caller");
+        AuthenticationMetadata second = principalCache.get("alice").orElseThrow();
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getUserId()).isEqualTo(aliceId);
+        assertThat(second.getPassword()).isEqualTo("hash");
+        verify(userRepository, times(1)).findPrincipalByUsername("alice");
+    }
+
+    @Test
+    void shouldReload_WhenEvicted() {
+        when(userRepository.findPrincipalByUsername("alice"))
+                .thenReturn(Optional.of(row(UserRole.USER, true)))
+                .thenReturn(Optional.of(row(UserRole.ADMIN, false)));
+        principalCache.get("alice");
+
+        principalCache.evict("alice");
+
+        AuthenticationMetadata reloaded = principalCache.get("alice").orElseThrow();
+        assertThat(reloaded.getRole()).isEqualTo(UserRole.ADMIN);
+        assertThat(reloaded.isEnabled()).isFalse();
+    }
+
+    @Test
+    void shouldNotCacheUnknownUsernames() {
+        when(userRepository.findPrincipalByUsername("nobody")).thenReturn(Optional.empty());
+
+        assertThat(principalCache.get("nobody")).isEmpty();
+        assertThat(principalCache.get("nobody")).isEmpty();
+        verify(userRepository, times(2)).findPrincipalByUsername("nobody");
+    }
+
+    @Test
+    void shouldNotCacheALoadThatRacedAnEviction() {
+        when(userRepository.findPrincipalByUsername("alice"))
+                .thenAnswer(invocation -> {
+                    principalCache.evict("alice");
+                    return Optional.of(row(UserRole.USER, true));
+                })
+                .thenReturn(Optional.of(row(UserRole.USER, false)));
+
+        assertThat(principalCache.get("alice").orElseThrow().isEnabled()).isTrue();
+        assertThat(principalCache.get("alice").orElseThrow().isEnabled()).isFalse();
+    }
+
+    private PrincipalRow row(UserRole role, boolean active) {
+        return new PrincipalRow(aliceId, "alice", "hash", role, active);
+    }
+}
@@ -0,0 +1,110 @@
+package app;
+
+import app.credit.model.Credits;
+import app.metrics.GameMetrics;
+import app.reconciliation.model.BalanceSnapshot;
+import app.reconciliation.model.ReconciliationReport;
+import app.reconciliation.repository.BalanceSnapshotRepository;
+import app.reconciliation.repository.ReconciliationJdbcRepository;
+import app.reconciliation.service.ReconciliationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReconciliationServiceTest {
+
+    @Mock
+    private ReconciliationJdbcRepository reconciliationJdbcRepository;
+
+    @Mock
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ReconciliationService reconciliationService;
+
+    private final UUID playerId = UUID.randomUUID();
+    private final LocalDateTime now = LocalDateTime.of(2024, 6, 1, 12, 0);
+    private final LocalDateTime asOf = now.minusMinutes(5);
+
+    @BeforeEach
+    void setUp() {
+        reconciliationService = new ReconciliationService(reconciliationJdbcRepository, balanceSnapshotRepository,
+                transactionManager, new GameMetrics(new SimpleMeterRegistry()), 300000, 1, 1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldOpenSnapshotFromStoredCredits_WhenPlayerIsNew() {
+        when(reconciliationJdbcRepository.findBalances(any(), any())).thenReturn(Map.of(playerId, Credits.of(120)));
+        when(balanceSnapshotRepository.findInRange(any(), any())).thenReturn(List.of());
+        when(reconciliationJdbcRepository.sumLedger(any(), any(), eq(asOf), isNull())).thenReturn(Map.of(playerId, Credits.of(20)));
+
+        ReconciliationReport report = reconciliationService.reconcile(now);
+
+        ArgumentCaptor<List<BalanceSnapshot>> saved = ArgumentCaptor.forClass(List.class);
+        verify(balanceSnapshotRepository).saveAll(saved.capture());
+        BalanceSnapshot snapshot = saved.getValue().get(0);
+        assertThat(snapshot.getBalance()).isEqualTo(Credits.of(100));  // The 20 credits after the position are not part of it
+        assertThat(snapshot.getAsOf()).isEqualTo(asOf);
+        assertThat(report.getPlayersChecked()).isEqualTo(1);
+        assertThat(report.getPlayersDrifted()).isZero();
+    }
+
+    @Test
+    void shouldReplayOnlyNewLedgerRows_AndAdvanceSnapshot() {
+        LocalDateTime previous = asOf.minusHours(1);
+        BalanceSnapshot snapshot = stored(Credits.of(100), previous);
+        when(reconciliationJdbcRepository.findBalances(any(), any())).thenReturn(Map.of(playerId, Credits.of(135)));
+        when(balanceSnapshotRepository.findInRange(any(), any())).thenReturn(List.of(snapshot));
+        when(reconciliationJdbcRepository.sumLedger(any(), any(), eq(previous), eq(asOf))).thenReturn(Map.of(playerId, Credits.of(30)));
+        when(reconciliationJdbcRepository.sumLedger(any(), any(), eq(asOf), isNull())).thenReturn(Map.of(playerId, Credits.of(5)));
+
+        ReconciliationReport report = reconciliationService.reconcile(now);
+
+        assertThat(snapshot.getBalance()).isEqualTo(Credits.of(130));
+        assertThat(snapshot.getAsOf()).isEqualTo(asOf);
+        assertThat(snapshot.getDrift()).isEqualTo(Credits.ZERO);
+        assertThat(report.getPlayersDrifted()).isZero();
+        verify(reconciliationJdbcRepository, never()).sumLedger(any(), any(), isNull(), any());
+    }
+
+    @Test
+    void shouldFlagPlayer_OnlyWhenDriftIsSeenTwiceInARow() {
+        BalanceSnapshot snapshot = stored(Credits.of(100), asOf.minusHours(1));
+        when(reconciliationJdbcRepository.findBalances(any(), any())).thenReturn(Map.of(playerId, Credits.of(107)));
+        when(balanceSnapshotRepository.findInRange(any(), any())).thenReturn(List.of(snapshot));
+        when(reconciliationJdbcRepository.sumLedger(any(), any(), any(), any())).thenReturn(Map.of());
+
+        ReconciliationReport first = reconciliationService.reconcile(now);
+        ReconciliationReport second = reconciliationService.reconcile(now.plusHours(1));
+
+        assertThat(first.getPlayersDrifted()).isEqualTo(1);
+        assertThat(first.getPlayersFlagged()).isZero();
+        assertThat(second.getPlayersFlagged()).isEqualTo(1);
+        assertThat(snapshot.getDrift()).isEqualTo(Credits.of(7));
+        assertThat(snapshot.getBalance()).isEqualTo(Credits.of(100));  // The snapshot follows the ledger, not the drifted credits
+    }
+
+    private BalanceSnapshot stored(Credits balance, LocalDateTime asOf) {
+        BalanceSnapshot snapshot = BalanceSnapshot.builder().playerId(playerId).balance(balance).asOf(asOf).drift(Credits.of(0)).build();
+        snapshot.setFresh(false);
+        return snapshot;
+    }
+}
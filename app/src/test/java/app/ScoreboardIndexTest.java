@@ -0,0 +1,108 @@
+package app;
+
+import app.credit.model.Credits;
+import app.scoreboard.model.ScoreboardEntry;
+import app.scoreboard.service.ScoreboardIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ScoreboardIndexTest {
+
+    private ScoreboardIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ScoreboardIndex();
+    }
+
+    @Test
+    void shouldOrderByRankThenCredits() {
+        ScoreboardEntry low = entry("low", 1, Credits.of(500));
+        ScoreboardEntry rich = entry("rich", 3, Credits.of(90));
+        ScoreboardEntry poor = entry("poor", 3, Credits.of(10));
+        index.upsert(low);
+        index.upsert(poor);
+        index.upsert(rich);
+
+        assertThat(index.top(10)).extracting(ScoreboardEntry::getUsername).containsExactly("rich", "poor", "low");
+        assertThat(index.positionOf(poor.getId())).isEqualTo(2);
+    }
+
+    @Test
+    void shouldMovePlayer_WhenUpsertedWithNewRank() {
+        ScoreboardEntry first = entry("first", 5, Credits.of(0));
+        ScoreboardEntry second = entry("second", 4, Credits.of(0));
+        index.upsert(first);
+        index.upsert(second);
+
+        index.upsert(new ScoreboardEntry(second.getId(), "second", null, 6, Credits.of(0)));
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.positionOf(second.getId())).isEqualTo(1);
+        assertThat(index.positionOf(first.getId())).isEqualTo(2);
+    }
+
+    @Test
+    void shouldDropPlayer_WhenRemoved() {
+        ScoreboardEntry banned = entry("banned", 2, Credits.of(0));
+        index.upsert(banned);
+        index.upsert(entry("other", 1, Credits.of(0)));
+
+        index.remove(banned.getId());
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.positionOf(banned.getId())).isZero();
+        assertThat(index.top(10)).extracting(ScoreboardEntry::getUsername).containsExactly("other");
+    }
+
+    @Test
+    void shouldReturnEmptyPage_WhenOffsetIsPastTheEnd() {
+        index.upsert(entry("only", 1, Credits.of(0)));
+
+        assertThat(index.page(1, 10)).isEmpty();
+        assertThat(index.page(0, 0)).isEmpty();
+    }
+
+    @Test
+    void shouldMatchSortedList_AfterRandomUpdates() {
+        Random random = new Random(42);
+        Map<UUID, ScoreboardEntry> expected = new HashMap<>();
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        for (int i = 0; i < 5000; i++) {
+            UUID id = ids.get(random.nextInt(ids.size()));
+            if (random.nextInt(10) == 0) {
+                index.remove(id);
+                expected.remove(id);
+            } else {
+                ScoreboardEntry entry = new ScoreboardEntry(id, id.toString(), null, random.nextInt(20), Credits.of(random.nextInt(1000)));
+                index.upsert(entry);
+                expected.put(id, entry);
+            }
+        }
+
+        List<ScoreboardEntry> sorted = new ArrayList<>(expected.values());
+        sorted.sort(ScoreboardEntry.ORDER);
+        assertThat(index.size()).isEqualTo(sorted.size());
+        assertThat(index.page(0, sorted.size())).containsExactlyElementsOf(sorted);
+        assertThat(index.page(37, 25)).containsExactlyElementsOf(sorted.subList(37, 62));
+        for (int i = 0; i < sorted.size(); i++) {
+            assertThat(index.positionOf(sorted.get(i).getId())).isEqualTo(i + 1);
+        }
+    }
+
+    private ScoreboardEntry entry(String username, int rank, Credits credits) {
+        return new ScoreboardEntry(UUID.randomUUID(), username, null, rank, credits);
+    }
+}
@@ -0,0 +1,94 @@
+package app;
+
+import app.credit.model.Credits;
+import app.scoreboard.model.ScoreboardEntry;
+import app.scoreboard.service.ScoreboardService;
+import app.user.model.PlayerRow;
+import app.user.model.User;
+import app.user.model.UserRole;
+import app.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ScoreboardServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private ScoreboardService scoreboardService;
+
+    @BeforeEach
+    void setUp() {
+        scoreboardService = new ScoreboardService(userRepository);
+    }
+
+    @Test
+    void reload_ShouldReplaceTheBoard_WithTheTable() {
+        User gone = player("gone", 5);
+        scoreboardService.refresh(gone);
+        when(userRepository.findActivePlayerRows()).thenReturn(List.of(row(player("kept", 1))));
+
+        scoreboardService.reload();
+
+        assertThat(scoreboardService.getTop(10)).extracting(ScoreboardEntry::getUsername).containsExactly("kept");
+        assertThat(scoreboardService.getPosition(gone.getId())).isZero();
+    }
+
+    @Test
+    void reload_ShouldKeepAnUpdate_AppliedWhileTheTableWasRead() {
+        User player = player("player", 1);
+        User rival = player("rival", 2);
+        when(userRepository.findActivePlayerRows()).thenAnswer(invocation -> {
+            PlayerRow before = row(player);
+            player.setUserRank(3);
+            scoreboardService.refresh(player);
+            return List.of(before, row(rival));
+        });
+
+        scoreboardService.reload();
+
+        assertThat(scoreboardService.getTop(10)).extracting(ScoreboardEntry::getUsername).containsExactly("player", "rival");
+        assertThat(scoreboardService.getTop(1).get(0).getUserRank()).isEqualTo(3);
+    }
+
+    @Test
+    void reload_ShouldKeepARemoval_AppliedWhileTheTableWasRead() {
+        User player = player("player", 1);
+        when(userRepository.findActivePlayerRows()).thenAnswer(invocation -> {
+            PlayerRow before = row(player);
+            player.setActive(false);
+            scoreboardService.refresh(player);
+            return List.of(before);
+        });
+
+        scoreboardService.reload();
+
+        assertThat(scoreboardService.getSize()).isZero();
+    }
+
+    private static User player(String username, int rank) {
+        return User.builder()
+                .id(UUID.randomUUID())
+                .username(username)
+                .userRank(rank)
+                .credits(Credits.of(100))
+                .role(UserRole.USER)
+                .isActive(true)
+                .build();
+    }
+
+    private static PlayerRow row(User user) {
+        return new PlayerRow(user.getId(), user.getUsername(), user.getProfilePicture(), user.getUserRank(),
+                user.getCredits(), user.getRole(), user.isActive());
+    }
+}
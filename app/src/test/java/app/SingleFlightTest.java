@@ -0,0 +1,85 @@
+package app;
+
+import app.cache.SingleFlight;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SingleFlightTest {
+
+    @Test
+    void shouldRunLoaderOnce_ForConcurrentCallersOfSameKey() throws Exception {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Future<Integer> leader = executor.submit(() -> singleFlight.load("key", () -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                await(release);
+                return 42;
+            }));
+            loading.await(5, TimeUnit.SECONDS);
+
+            List<Future<Integer>> followers = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                followers.add(executor.submit(() -> singleFlight.load("key", () -> {
+                    loads.incrementAndGet();
+                    return -1;
+                })));
+            }
+            while (singleFlight.getCoalesced() < 7) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo(42);
+            for (Future<Integer> follower : followers) {
+                assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo(42);
+            }
+            assertThat(loads).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldLoadAgain_OnceTheFirstLoadHasFinished() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+
+        singleFlight.load("key", loads::incrementAndGet);
+        singleFlight.load("key", loads::incrementAndGet);
+
+        assertThat(loads).hasValue(2);
+        assertThat(singleFlight.getCoalesced()).isZero();
+    }
+
+    @Test
+    void shouldPropagateLoaderFailure() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+
+        assertThatThrownBy(() -> singleFlight.load("key", () -> {
+            throw new IllegalStateException("db down");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("db down");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package app;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Local stand-in for the chat microservice. GET returns every message posted so far; both methods can be
+// slowed down or made to fail to exercise the gateway's timeouts, bulkhead and circuit breaker.
+class StubChatServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final List<String> posted = new CopyOnWriteArrayList<>();
+    private final AtomicInteger hits = new AtomicInteger();
+    private volatile long delayMillis;
+    private volatile int failureStatus;
+
+    StubChatServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/api/chat", this::handle);
+        server.start();
+    }
+
+    String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/api/chat";
+    }
+
+    void delay(long millis) {
+        delayMillis = millis;
+    }
+
+    // 0 answers normally again
+    void failWith(int status) {
+        failureStatus = status;
+    }
+
+    int hits() {
+        return hits.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        hits.incrementAndGet();
+        try (exchange) {
+            if (delayMillis > 0) {
+                Thread.sleep(delayMillis);
+            }
+            if (failureStatus != 0) {
+                exchange.sendResponseHeaders(failureStatus, -1);
+                return;
+            }
+            if ("POST".equals(exchange.getRequestMethod())) {
+                posted.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+                respond(exchange, "Message saved");
+            } else {
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                respond(exchange, "[" + String.join(",", posted) + "]");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,115 @@
+package app;
+
+import app.credit.model.Credits;
+import app.metrics.GameMetrics;
+import app.transaction.model.Transaction;
+import app.transaction.model.TransactionType;
+import app.transaction.repository.LedgerJdbcRepository;
+import app.transaction.service.TransactionLedger;
+import app.user.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionLedgerTest {
+
+    @Mock
+    private LedgerJdbcRepository ledgerJdbcRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionLedger transactionLedger;
+
+    private TransactionLedger ledger(boolean enabled, int capacity, int batchSize, long flushIntervalMillis) {
+        transactionLedger = new TransactionLedger(ledgerJdbcRepository, transactionManager, new GameMetrics(new SimpleMeterRegistry()), enabled, capacity, batchSize, flushIntervalMillis);
+        transactionLedger.start();
+        return transactionLedger;
+    }
+
+    private Transaction transaction() {
+        User user = User.builder().id(UUID.randomUUID()).username("testuser").build();
+        return Transaction.builder().user(user).credits(Credits.of(5)).description("Daily Bonus").transactionType(TransactionType.RECEIVE).createdOn(LocalDateTime.now()).build();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        transactionLedger.shutdown();
+    }
+
+    @Test
+    void shouldRejectEntries_WhenWriteBehindIsDisabled() {
+        assertThat(ledger(false, 10, 10, 50).append(transaction())).isFalse();
+        verifyNoInteractions(ledgerJdbcRepository);
+    }
+
+    @Test
+    void shouldRejectEntries_WhenQueueIsFull() throws InterruptedException {
+        // Hold the flusher inside its first write so it cannot drain the queue while we fill it
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await();
+            return null;
+        }).when(ledgerJdbcRepository).batchInsert(any());
+        TransactionLedger ledger = ledger(true, 1, 1, 60_000);
+        try {
+            assertThat(ledger.append(transaction())).isTrue();
+            verify(ledgerJdbcRepository, timeout(2000)).batchInsert(any());
+
+            assertThat(ledger.append(transaction())).isTrue();
+            Transaction rejected = transaction();
+            assertThat(ledger.append(rejected)).isFalse();
+            assertThat(rejected.getId()).isNull();
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void shouldWriteQueuedEntriesInBatches() {
+        TransactionLedger ledger = ledger(true, 100, 2, 60_000);
+        for (int i = 0; i < 5; i++) {
+            ledger.append(transaction());
+        }
+
+        verify(ledgerJdbcRepository, timeout(2000).atLeastOnce()).batchInsert(argThat(batch -> batch.size() == 2));
+        ledger.flush();
+
+        assertThat(ledger.pending()).isZero();
+    }
+
+    @Test
+    void shouldFlushWithinInterval_WhenBatchIsNotFull() {
+        TransactionLedger ledger = ledger(true, 100, 500, 20);
+        Transaction transaction = transaction();
+
+        ledger.append(transaction);
+
+        verify(ledgerJdbcRepository, timeout(2000)).batchInsert(List.of(transaction));
+        assertThat(transaction.getId()).isNotNull();
+    }
+
+    @Test
+    void shouldFallBackToSingleInserts_WhenBatchFails() {
+        TransactionLedger ledger = ledger(true, 100, 500, 20);
+        doThrow(new RuntimeException("constraint violation")).when(ledgerJdbcRepository).batchInsert(anyList());
+
+        ledger.append(transaction());
+        ledger.append(transaction());
+
+        verify(ledgerJdbcRepository, timeout(2000).times(2)).insert(any(Transaction.class));
+    }
+}
@@ -0,0 +1,173 @@
+package app;
+
+import app.archive.repository.ArchiveJdbcRepository;
+import app.credit.model.Credits;
+import app.transaction.model.Transaction;
+import app.transaction.model.TransactionFeedEntry;
+import app.transaction.model.TransactionFeedPage;
+import app.transaction.model.TransactionType;
+import app.transaction.repository.TransactionRepository;
+import app.transaction.service.TransactionLedger;
+import app.transaction.service.TransactionService;
+import app.user.model.User;
+import app.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionServiceTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TransactionLedger transactionLedger;
+
+    @Mock
+    private ArchiveJdbcRepository archiveJdbcRepository;
+
+    @InjectMocks
+    private TransactionService transactionService;
+
+    private User user;
+    private Transaction transaction;
+    private UUID transactionId;
+
+    @BeforeEach
+    void setUp() {
+        transactionId = UUID.randomUUID();
+        user = User.builder()
+                .id(UUID.randomUUID())
+                .username("testuser")
+                .email("test@example.com")
+                .credits(Credits.of(100))
+                .build();
+
+        transaction = Transaction.builder()
+                .id(transactionId)
+                .user(user)
+                .credits(Credits.of(50))
+                .description("Test Transaction")
+                .transactionType(TransactionType.SEND)
+                .createdOn(LocalDateTime.now())
+                .build();
+    }
+
+    @Test
+    void shouldFindTransactionById() {
+        when(transactionRepository.findById(transactionId)).thenReturn(Optional.of(transaction));
+
+        Transaction foundTransaction = transactionService.findTransactionById(transactionId);
+
+        assertThat(foundTransaction).isNotNull();
+        assertThat(foundTransaction.getId()).isEqualTo(transactionId);
+    }
+
+    @Test
+    void shouldReturnNullIfTransactionNotFound() {
+        when(transactionRepository.findById(transactionId)).thenReturn(Optional.empty());
+
+        Transaction foundTransaction = transactionService.findTransactionById(transactionId);
+
+        assertThat(foundTransaction).isNull();
+    }
+
+    @Test
+    void shouldCreateTransactionSuccessfully() {
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        transactionService.createTransaction(user, Credits.of(50), "Deposit", TransactionType.RECEIVE);
+
+        verify(transactionRepository).save(any(Transaction.class));
+    }
+
+    @Test
+    void shouldHandTransactionToLedger_WhenWriteBehindAcceptsIt() {
+        when(transactionLedger.append(any(Transaction.class))).thenReturn(true);
+
+        transactionService.createTransaction(user, Credits.of(50), "Deposit", TransactionType.RECEIVE);
+
+        verify(transactionLedger).append(argThat(t -> t.getCredits().equals(Credits.of(50)) && t.getUser() == user));
+        verify(transactionRepository, never()).save(any(Transaction.class));
+    }
+
+    @Test
+    void shouldNotCreateTransactionWhenCreditsAreZeroOrNegative() {
+        transactionService.createTransaction(user, Credits.of(0), "Invalid", TransactionType.SEND);
+        transactionService.createTransaction(user, Credits.of(-10), "Invalid", TransactionType.SEND);
+
+        verify(transactionRepository, never()).save(any(Transaction.class));
+    }
+
+    @Test
+    void shouldGetAllTransactionsOrderedByDate() {
+        when(transactionRepository.findAllByOrderByCreatedOnDesc()).thenReturn(List.of(transaction));
+
+        List<Transaction> transactions = transactionService.getAllTransactions();
+
+        assertThat(transactions).isNotEmpty();
+        assertThat(transactions).containsExactly(transaction);
+    }
+
+    @Test
+    void shouldReturnOnePageAndCursor_WhenMoreTransactionsExist() {
+        LocalDateTime now = LocalDateTime.now();
+        TransactionFeedEntry newest = new TransactionFeedEntry(UUID.randomUUID(), "testuser", TransactionType.SEND, Credits.of(1), "a", now);
+        TransactionFeedEntry older = new TransactionFeedEntry(UUID.randomUUID(), "testuser", TransactionType.SEND, Credits.of(2), "b", now.minusMinutes(1));
+        TransactionFeedEntry oldest = new TransactionFeedEntry(UUID.randomUUID(), "testuser", TransactionType.SEND, Credits.of(3), "c", now.minusMinutes(2));
+        when(transactionRepository.findFeedBefore(any(), any(), any())).thenReturn(List.of(newest, older, oldest));
+
+        TransactionFeedPage page = transactionService.getTransactionFeed(null, 2);
+
+        assertThat(page.getEntries()).containsExactly(newest, older);
+        assertThat(page.getNextCursor()).isEqualTo(older.getCreatedOn() + "|" + older.getId());
+        verify(archiveJdbcRepository, never()).findFeedBefore(any(), any(), anyInt());
+    }
+
+    @Test
+    void shouldFillPageFromArchive_WhenHotTransactionsRunOut() {
+        LocalDateTime now = LocalDateTime.now();
+        TransactionFeedEntry hot = new TransactionFeedEntry(UUID.randomUUID(), "testuser", TransactionType.SEND, Credits.of(1), "a", now);
+        TransactionFeedEntry archived = new TransactionFeedEntry(UUID.randomUUID(), "testuser", TransactionType.SEND, Credits.of(2), "b", now.minusDays(200));
+        when(transactionRepository.findFeedBefore(any(), any(), any())).thenReturn(List.of(hot));
+        when(archiveJdbcRepository.findFeedBefore(any(), any(), eq(2))).thenReturn(List.of(archived));
+
+        TransactionFeedPage page = transactionService.getTransactionFeed(null, 2);
+
+        assertThat(page.getEntries()).containsExactly(hot, archived);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void shouldWriteEveryStreamedRowAsCsv() throws IOException {
+        TransactionFeedEntry entry = new TransactionFeedEntry(transactionId, "testuser", TransactionType.SEND, Credits.of(50),
+                "Bought, \"cheap\"", LocalDateTime.of(2024, 1, 2, 3, 4));
+        when(transactionRepository.streamFeed()).thenReturn(Stream.of(entry));
+        StringWriter out = new StringWriter();
+
+        long rows = transactionService.exportTransactions(out);
+
+        assertThat(rows).isEqualTo(1);
+        assertThat(out.toString()).isEqualTo("id,username,type,credits,description,created_on\n"
+                + transactionId + ",testuser,SEND,50,\"Bought, \"\"cheap\"\"\",2024-01-02T03:04\n");
+    }
+}
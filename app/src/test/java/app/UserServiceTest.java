@@ -1,18 +1,28 @@
 package app;
 
+import app.credit.model.Credits;
+import app.credit.service.CreditTransferService;
 import app.exception.DomainException;
+import app.metrics.GameMetrics;
+import app.scoreboard.service.ScoreboardService;
+import app.security.AuthenticationMetadata;
 import app.transaction.service.TransactionService;
 import app.user.model.User;
 import app.user.model.UserRole;
 import app.user.repository.UserRepository;
+import app.user.service.PlayerCache;
+import app.user.service.PrincipalCache;
 import app.user.service.UserService;
 import app.web.dto.RegisterRequest;
+import app.web.dto.UserEditRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.LocalDateTime;
@@ -35,6 +45,21 @@ class UserServiceTest {
     @Mock
     private TransactionService transactionService;
 
+    @Mock
+    private CreditTransferService creditTransferService;
+
+    @Mock
+    private ScoreboardService scoreboardService;
+
+    @Mock
+    private PlayerCache playerCache;
+
+    @Mock
+    private PrincipalCache principalCache;
+
+    @Mock
+    private GameMetrics gameMetrics;
+
     @InjectMocks
     private UserService userService;
 
@@ -51,7 +76,7 @@ class UserServiceTest {
                 .password("encodedpassword")
                 .role(UserRole.USER)
                 .isActive(true)
-                .credits(100.0)
+                .credits(Credits.of(100))
                 .userRank(1)
                 .createdOn(LocalDateTime.now())
                 .build();
@@ -96,14 +121,14 @@ class UserServiceTest {
 
     @Test
     void shouldDecreaseUserCredits() {
-        userService.decreaseCredits(user, 20);
-        assertThat(user.getCredits()).isEqualTo(80.0);
+        userService.decreaseCredits(user, Credits.of(20));
+        assertThat(user.getCredits()).isEqualTo(Credits.of(80));
     }
 
     @Test
     void shouldIncreaseUserCredits() {
-        userService.increaseCredits(user, 50);
-        assertThat(user.getCredits()).isEqualTo(150.0);
+        userService.increaseCredits(user, Credits.of(50));
+        assertThat(user.getCredits()).isEqualTo(Credits.of(150));
     }
 
     @Test
@@ -126,6 +151,17 @@ class UserServiceTest {
                 .hasMessageContaining("User with id");
     }
 
+    @Test
+    void shouldThrowExceptionWhenSnapshotNotFound() {
+        UUID fakeId = UUID.randomUUID();
+        when(playerCache.get(fakeId)).thenReturn(null);
+
+        assertThatThrownBy(() -> userService.getSnapshot(fakeId))
+                .isInstanceOf(DomainException.class)
+                .hasMessageContaining("User with id");
+        verify(userRepository, never()).findById(any());
+    }
+
     @Test
     void shouldSwitchUserStatus() {
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
@@ -134,6 +170,7 @@ class UserServiceTest {
 
         assertThat(user.isActive()).isFalse();
         verify(userRepository).save(user);
+        verify(principalCache).evict(user.getUsername());
     }
 
     @Test
@@ -144,6 +181,7 @@ class UserServiceTest {
 
         assertThat(user.getRole()).isEqualTo(UserRole.ADMIN);
         verify(userRepository).save(user);
+        verify(principalCache).evict(user.getUsername());
     }
 
     @Test
@@ -151,6 +189,7 @@ class UserServiceTest {
         userService.banUser(user);
         assertThat(user.isActive()).isFalse();
         verify(userRepository).save(user);
+        verify(principalCache).evict(user.getUsername());
     }
 
     @Test
@@ -159,6 +198,7 @@ class UserServiceTest {
         userService.unbanUser(user);
         assertThat(user.isActive()).isTrue();
         verify(userRepository).save(user);
+        verify(principalCache).evict(user.getUsername());
     }
 
     @Test
@@ -166,6 +206,7 @@ class UserServiceTest {
         userService.promoteUser(user);
         assertThat(user.getRole()).isEqualTo(UserRole.ADMIN);
         verify(userRepository).save(user);
+        verify(principalCache).evict(user.getUsername());
     }
 
     @Test
@@ -174,25 +215,78 @@ class UserServiceTest {
         userService.demoteUser(user);
         assertThat(user.getRole()).isEqualTo(UserRole.USER);
         verify(userRepository).save(user);
+        verify(principalCache).evict(user.getUsername());
     }
 
     @Test
     void shouldThrowExceptionWhenRankingUpWithoutEnoughCredits() {
-        user.setCredits(40.0);
+        user.setCredits(Credits.of(40));
 
         assertThatThrownBy(() -> userService.rankUpUser(user))
                 .isInstanceOf(DomainException.class)
                 .hasMessageContaining("You need 50 credits to rank up!");
+        verifyNoInteractions(creditTransferService);
     }
 
     @Test
     void shouldRankUpUserWhenEnoughCredits() {
-        user.setCredits(50.0);
+        user.setCredits(Credits.of(50));
+        when(creditTransferService.tryDebit(user, Credits.of(50))).thenReturn(true);
 
         userService.rankUpUser(user);
 
-        assertThat(user.getCredits()).isEqualTo(0);
+        verify(creditTransferService).tryDebit(user, Credits.of(50));
         assertThat(user.getUserRank()).isEqualTo(2);
         verify(userRepository).save(user);
+        verify(gameMetrics).recordRankUp();
+    }
+
+    @Test
+    void shouldEvictOnlyTheLoggingOutPlayer() {
+        UUID id = UUID.randomUUID();
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                new AuthenticationMetadata(id, "testUser", "password", UserRole.USER, true), null);
+
+        userService.logoutUser(authentication);
+
+        verify(playerCache).evict(id);
+        verifyNoMoreInteractions(playerCache);
+    }
+
+    @Test
+    void shouldStoreOnlyTheRehashedPassword_WhenSpringSecurityUpgradesIt() {
+        UUID id = UUID.randomUUID();
+        AuthenticationMetadata signedIn = new AuthenticationMetadata(id, "testUser", "$2a$04$old", UserRole.USER, true);
+
+        AuthenticationMetadata updated = (AuthenticationMetadata) userService.updatePassword(signedIn, "$2a$10$new");
+
+        verify(userRepository).updatePassword(id, "$2a$10$new");
+        verify(principalCache).evict("testUser");
+        verify(userRepository, never()).save(any());
+        assertThat(updated.getPassword()).isEqualTo("$2a$10$new");
+    }
+
+    @Test
+    void shouldLoadPrincipalsFromTheCache() {
+        AuthenticationMetadata cached = new AuthenticationMetadata(userId, "testUser", "hash", UserRole.USER, true);
+        when(principalCache.get("testUser")).thenReturn(Optional.of(cached));
+
+        assertThat(userService.loadUserByUsername("testUser")).isSameAs(cached);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void shouldEvictOldAndNewUsername_WhenAPlayerIsRenamed() {
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        String previous = user.getUsername();
+        UserEditRequest request = new UserEditRequest();
+        request.setUsername("renamed");
+        request.setEmail("renamed@example.com");
+        request.setPassword("");
+
+        userService.editUserDetails(userId, request);
+
+        verify(principalCache).evict(previous);
+        verify(principalCache).evict("renamed");
     }
 }
@@ -0,0 +1,47 @@
+package app.benchmarks;
+
+import app.credit.model.Credits;
+import app.hack.model.Hack;
+import app.hack.model.HackStatus;
+import app.user.model.User;
+import app.web.Mapper.DtoMapper;
+import app.web.dto.HackRequest;
+import app.web.dto.UserEditRequest;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMapperBenchmark {
+
+    private User user;
+    private Hack hack;
+
+    @Setup
+    public void setUp() {
+        user = Fixtures.player(0);
+        hack = Hack.builder()
+                .attacker(user)
+                .defender(Fixtures.player(1))
+                .credits(Credits.of(10))
+                .status(HackStatus.Succeeded)
+                .createdOn(LocalDateTime.now())
+                .build();
+    }
+
+    @Benchmark
+    public UserEditRequest mapUserToUserEditRequest() {
+        return DtoMapper.mapUserToUserEditRequest(user);
+    }
+
+    @Benchmark
+    public HackRequest mapHackToHackRequest() {
+        return DtoMapper.mapHackToHackRequest(hack);
+    }
+}
@@ -0,0 +1,116 @@
+package app.benchmarks;
+
+import app.credit.model.Credits;
+import app.user.model.User;
+import app.user.model.UserRole;
+import app.user.repository.UserRepository;
+import lombok.experimental.UtilityClass;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+@UtilityClass
+public class Fixtures {
+
+    // For collaborators that are only touched during setup or on cold paths. Stub-only mocks keep no invocation
+    // history, but every call still costs microseconds, so anything on the measured path uses savingRepository.
+    public static <T> T stub(Class<T> type) {
+        return Mockito.mock(type, Mockito.withSettings().stubOnly());
+    }
+
+    // A repository whose save hands back the entity it was given. Any other query fails loudly, so a
+    // benchmark cannot silently start measuring a method that returns null.
+    @SuppressWarnings("unchecked")
+    public static <T> T savingRepository(Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> switch (method.getName()) {
+            case "save" -> args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            case "toString" -> type.getSimpleName();
+            default -> throw new UnsupportedOperationException(method.toString());
+        });
+    }
+
+    // A user repository that hands the given players out by id, the way the hack path loads them inside its locks,
+    // and otherwise behaves like savingRepository.
+    public static UserRepository playerRepository(User... players) {
+        Map<UUID, User> byId = new HashMap<>();
+        for (User player : players) {
+            byId.put(player.getId(), player);
+        }
+        return (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(), new Class<?>[]{UserRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+            case "findForAttackById" -> Optional.ofNullable(byId.get((UUID) args[0]));
+            case "save" -> args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            case "toString" -> "UserRepository";
+            default -> throw new UnsupportedOperationException(method.toString());
+        });
+    }
+
+    // For services that open their own transactions on the measured path; nothing is committed anywhere
+    public static PlatformTransactionManager noTransactions() {
+        return new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+            }
+        };
+    }
+
+    public static User player(int index) {
+        User player = newPlayer(index);
+        player.setId(UUID.randomUUID());
+        return player;
+    }
+
+    // Not yet persisted, for benchmarks that save their players through JPA
+    public static User newPlayer(int index) {
+        return User.builder()
+                .username("player" + index)
+                .email("player" + index + "@example.com")
+                .password("hashedpassword")
+                .profilePicture("https://example.com/" + index + ".png")
+                .role(UserRole.USER)
+                .userRank(index % 50)
+                .credits(Credits.of(1_000_000))
+                .isActive(true)
+                .createdOn(LocalDateTime.now())
+                .build();
+    }
+
+    public static List<User> players(int count) {
+        List<User> players = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            players.add(player(i));
+        }
+        return players;
+    }
+
+    public static List<User> newPlayers(int count) {
+        List<User> players = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            players.add(newPlayer(i));
+        }
+        return players;
+    }
+}
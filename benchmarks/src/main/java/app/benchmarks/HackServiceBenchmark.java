@@ -0,0 +1,74 @@
+package app.benchmarks;
+
+import app.archive.repository.ArchiveJdbcRepository;
+import app.credit.model.Credits;
+import app.credit.service.CreditTransferService;
+import app.defenseUpgrade.service.DefenseUpgradeService;
+import app.hack.repository.HackRepository;
+import app.hack.service.HackService;
+import app.hack.service.PlayerLockRegistry;
+import app.metrics.GameMetrics;
+import app.offenseUpgrade.model.OffenseUpgrade;
+import app.offenseUpgrade.repository.OffenseUpgradeRepository;
+import app.offenseUpgrade.service.OffenseUpgradeService;
+import app.scoreboard.service.ScoreboardService;
+import app.transaction.repository.LedgerJdbcRepository;
+import app.transaction.repository.TransactionRepository;
+import app.transaction.service.TransactionLedger;
+import app.transaction.service.TransactionService;
+import app.user.model.User;
+import app.user.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.concurrent.TimeUnit;
+
+// The in-memory part of a hack: striped player locks, outcome resolution, the scoreboard update and the
+// ledger entries, with the database calls replaced by no-ops. Compare with HackServiceH2Benchmark to see
+// what the database adds.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HackServiceBenchmark {
+
+    private HackService hackService;
+    private User attacker;
+    private User defender;
+
+    @Setup
+    public void setUp() {
+        UserRepository userRepository = Fixtures.stub(UserRepository.class);
+        GameMetrics gameMetrics = new GameMetrics(new SimpleMeterRegistry());
+        ScoreboardService scoreboardService = new ScoreboardService(userRepository);
+        TransactionService transactionService = new TransactionService(Fixtures.savingRepository(TransactionRepository.class),
+                userRepository, new TransactionLedger(Fixtures.stub(LedgerJdbcRepository.class), Fixtures.stub(PlatformTransactionManager.class), gameMetrics, false, 1, 1, 1),
+                Fixtures.stub(ArchiveJdbcRepository.class));
+        CreditTransferService creditTransferService = new CreditTransferService(userRepository, new SimpleMeterRegistry(), 1, 0) {
+            @Override
+            public Credits transferUpTo(User from, User to, Credits requested) {
+                return requested;
+            }
+        };
+        OffenseUpgradeService offenseUpgradeService = new OffenseUpgradeService(userRepository,
+                Fixtures.stub(OffenseUpgradeRepository.class), transactionService, creditTransferService, scoreboardService, gameMetrics);
+
+        attacker = Fixtures.player(0);
+        attacker.setOffenseUpgrade(OffenseUpgrade.builder().owner(attacker).build());
+        defender = Fixtures.player(1);
+
+        hackService = new HackService(Fixtures.savingRepository(HackRepository.class), offenseUpgradeService,
+                Fixtures.stub(DefenseUpgradeService.class), transactionService, new PlayerLockRegistry(256),
+                Fixtures.playerRepository(attacker, defender), creditTransferService, scoreboardService, gameMetrics,
+                Fixtures.stub(ArchiveJdbcRepository.class), Fixtures.noTransactions());
+    }
+
+    @Benchmark
+    public User createNewHack() {
+        hackService.createNewHack(attacker.getId(), defender.getId(), Credits.of(10));
+        return attacker;
+    }
+}
@@ -0,0 +1,67 @@
+package app.benchmarks;
+
+import app.Application;
+import app.credit.model.Credits;
+import app.hack.service.HackService;
+import app.user.model.User;
+import app.user.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// A hack end to end against the real application context on an in-memory H2 database: both players are
+// loaded the way HackController does it, then the transfer, ledger rows and hack row are written in one
+// transaction. Players hack each other back and forth, so balances stay level however long the run is.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class HackServiceH2Benchmark {
+
+    private static final int PAIRS = 64;
+
+    private ConfigurableApplicationContext context;
+    private HackService hackService;
+    private UUID[] playerIds;
+    private final AtomicLong hacks = new AtomicLong();
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(Application.class).run(
+                "--spring.datasource.url=jdbc:h2:mem:benchmarks;MODE=MYSQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--server.port=0",
+                "--logging.level.root=WARN");
+        hackService = context.getBean(HackService.class);
+
+        List<User> players = context.getBean(UserRepository.class).saveAll(Fixtures.newPlayers(PAIRS * 2));
+        playerIds = players.stream().map(User::getId).toArray(UUID[]::new);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UUID createNewHack() {
+        long hack = hacks.getAndIncrement();
+        int pair = (int) (hack % PAIRS) * 2;
+        boolean back = (hack / PAIRS) % 2 == 1;
+
+        UUID attackerId = playerIds[back ? pair + 1 : pair];
+        hackService.createNewHack(attackerId, playerIds[back ? pair : pair + 1], Credits.of(10));
+        return attackerId;
+    }
+}
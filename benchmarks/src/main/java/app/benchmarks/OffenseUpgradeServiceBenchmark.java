@@ -0,0 +1,39 @@
+package app.benchmarks;
+
+import app.credit.model.Credits;
+import app.credit.service.CreditTransferService;
+import app.metrics.GameMetrics;
+import app.offenseUpgrade.repository.OffenseUpgradeRepository;
+import app.offenseUpgrade.service.OffenseUpgradeService;
+import app.scoreboard.service.ScoreboardService;
+import app.transaction.service.TransactionService;
+import app.user.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OffenseUpgradeServiceBenchmark {
+
+    private OffenseUpgradeService offenseUpgradeService;
+    // Read from a field so the JIT cannot fold the multiplication into a constant
+    private Credits credits = Credits.of(10);
+
+    @Setup
+    public void setUp() {
+        offenseUpgradeService = new OffenseUpgradeService(Fixtures.stub(UserRepository.class),
+                Fixtures.stub(OffenseUpgradeRepository.class), Fixtures.stub(TransactionService.class),
+                Fixtures.stub(CreditTransferService.class), Fixtures.stub(ScoreboardService.class),
+                Fixtures.stub(GameMetrics.class));
+    }
+
+    @Benchmark
+    public Credits calculateCredits() {
+        return offenseUpgradeService.calculateCredits(credits);
+    }
+}
@@ -0,0 +1,57 @@
+package app.benchmarks;
+
+import app.archive.repository.ArchiveJdbcRepository;
+import app.credit.model.Credits;
+import app.metrics.GameMetrics;
+import app.transaction.model.TransactionType;
+import app.transaction.repository.LedgerJdbcRepository;
+import app.transaction.repository.TransactionRepository;
+import app.transaction.service.TransactionLedger;
+import app.transaction.service.TransactionService;
+import app.user.model.User;
+import app.user.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.concurrent.TimeUnit;
+
+// Cost of recording a ledger entry on the caller's thread. "direct" goes straight to the repository,
+// "writeBehind" hands the entry to the ledger queue with the production queue and batch sizes.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionServiceBenchmark {
+
+    @Param({"direct", "writeBehind"})
+    private String mode;
+
+    private TransactionLedger transactionLedger;
+    private TransactionService transactionService;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        TransactionRepository transactionRepository = Fixtures.savingRepository(TransactionRepository.class);
+        transactionLedger = new TransactionLedger(Fixtures.stub(LedgerJdbcRepository.class),
+                Fixtures.stub(PlatformTransactionManager.class), new GameMetrics(new SimpleMeterRegistry()), mode.equals("writeBehind"), 10000, 500, 200);
+        transactionLedger.start();
+        transactionService = new TransactionService(transactionRepository, Fixtures.stub(UserRepository.class), transactionLedger,
+                Fixtures.stub(ArchiveJdbcRepository.class));
+        user = Fixtures.player(0);
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        transactionLedger.shutdown();
+    }
+
+    @Benchmark
+    public User createTransaction() {
+        transactionService.createTransaction(user, Credits.of(10), "Hack", TransactionType.RECEIVE);
+        return user;
+    }
+}
@@ -0,0 +1,81 @@
+package app.benchmarks;
+
+import app.config.CacheConfiguration;
+import app.credit.service.CreditTransferService;
+import app.metrics.GameMetrics;
+import app.scoreboard.service.ScoreboardService;
+import app.transaction.service.TransactionService;
+import app.user.model.PlayerRow;
+import app.user.model.PlayerSnapshot;
+import app.user.repository.UserRepository;
+import app.user.service.PlayerCache;
+import app.user.service.PrincipalCache;
+import app.user.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+// The player list behind the hack page, served from the real Caffeine caches. "warm" is the steady state;
+// "afterMembershipChange" is the first request after someone registers or gets banned and the roster is rebuilt.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserServiceBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int players;
+
+    private UserService userService;
+    private PlayerCache playerCache;
+    private String username;
+    private UUID changedPlayerId;
+
+    @Setup
+    public void setUp() {
+        List<PlayerRow> rows = Fixtures.players(players).stream()
+                .map(user -> new PlayerRow(user.getId(), user.getUsername(), user.getProfilePicture(), user.getUserRank(),
+                        user.getCredits(), user.getRole(), user.isActive()))
+                .toList();
+        Map<UUID, PlayerRow> byId = rows.stream().collect(Collectors.toMap(PlayerRow::getId, Function.identity()));
+
+        UserRepository userRepository = Fixtures.stub(UserRepository.class);
+        when(userRepository.findActivePlayerRows()).thenReturn(rows);
+        when(userRepository.findPlayerRowById(any())).thenAnswer(invocation -> Optional.ofNullable(byId.get(invocation.<UUID>getArgument(0))));
+
+        // Large enough that no player is evicted by size, as with app.cache.players.max-size sized to the player count
+        playerCache = new PlayerCache(userRepository, new CacheConfiguration().cacheManager(players * 2L, 60, players * 2L, 60), new SimpleMeterRegistry());
+        userService = new UserService(userRepository, Fixtures.stub(PasswordEncoder.class),
+                Fixtures.stub(TransactionService.class), Fixtures.stub(CreditTransferService.class),
+                Fixtures.stub(ScoreboardService.class), playerCache, Fixtures.stub(PrincipalCache.class), Fixtures.stub(GameMetrics.class));
+
+        PlayerRow me = rows.get(players / 2);
+        username = me.getUsername();
+        changedPlayerId = rows.get(players - 1).getId();
+        userService.getAllUsersExceptMe(username);
+    }
+
+    @Benchmark
+    public List<PlayerSnapshot> warm() {
+        return userService.getAllUsersExceptMe(username);
+    }
+
+    @Benchmark
+    public List<PlayerSnapshot> afterMembershipChange() {
+        playerCache.evictMembership(changedPlayerId);
+        return userService.getAllUsersExceptMe(username);
+    }
+}
@@ -0,0 +1,41 @@
+package app.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+// Stands in for the chat microservice, so /api/darknet is measured without leaving the machine.
+// It answers instantly, which makes the darknet numbers the app's own overhead for a chat call.
+public class ChatServiceStub implements AutoCloseable {
+
+    private final HttpServer server;
+
+    public ChatServiceStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/chat", this::handle);
+        server.start();
+    }
+
+    public String getUrl() {
+        return "http://localhost:%d/api/chat".formatted(server.getAddress().getPort());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        byte[] body = (exchange.getRequestMethod().equals("GET") ? "[]" : "Message sent successfully").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
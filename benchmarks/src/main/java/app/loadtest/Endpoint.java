@@ -0,0 +1,32 @@
+package app.loadtest;
+
+import java.util.Arrays;
+
+// The player actions the load test replays. The key is what --mix refers to.
+public enum Endpoint {
+
+    HACK("hack"),
+    DEFEND("defend"),
+    RANK_UP("rank-up"),
+    SCOREBOARD("scoreboard"),
+    HISTORY("history"),
+    DARKNET("darknet");
+
+    private final String key;
+
+    Endpoint(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public static Endpoint fromKey(String key) {
+        return Arrays.stream(values())
+                .filter(endpoint -> endpoint.key.equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown endpoint [%s], expected one of %s"
+                        .formatted(key, Arrays.stream(values()).map(Endpoint::getKey).toList())));
+    }
+}
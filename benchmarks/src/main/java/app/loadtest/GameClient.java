@@ -0,0 +1,100 @@
+package app.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+// Talks to the app the way a browser does: form posts, a session cookie per player and no redirect following,
+// so every measured request is exactly one round trip to the controller under test.
+public class GameClient {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(TIMEOUT)
+            .build();
+    private final String baseUrl;
+
+    public GameClient(int port) {
+        this.baseUrl = "http://localhost:" + port;
+    }
+
+    public void register(String username, String password) throws IOException, InterruptedException {
+        HttpResponse<Void> response = send(post("/register", null, Map.of(
+                "username", username,
+                "email", username + "@example.com",
+                "password", password,
+                "confirmPassword", password)));
+        if (!isRedirectTo(response, "/login")) {
+            throw new IllegalStateException("Registering [%s] failed with status %d".formatted(username, response.statusCode()));
+        }
+    }
+
+    // Goes through the form login filter and returns the session cookie of the authenticated session
+    public String login(String username, String password) throws IOException, InterruptedException {
+        HttpResponse<Void> response = send(post("/login", null, Map.of("username", username, "password", password)));
+        if (!isRedirectTo(response, "/home")) {
+            throw new IllegalStateException("Logging in [%s] failed with status %d".formatted(username, response.statusCode()));
+        }
+        return response.headers().allValues("Set-Cookie").stream()
+                .filter(cookie -> cookie.startsWith("JSESSIONID="))
+                .map(cookie -> cookie.split(";", 2)[0])
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No session cookie for [%s]".formatted(username)));
+    }
+
+    // Returns true when the app answered the request itself rather than failing or bouncing to the login page
+    public boolean call(Endpoint endpoint, String session, UUID target, int credits) throws IOException, InterruptedException {
+        HttpRequest request = switch (endpoint) {
+            case HACK -> post("/hack/" + target, session, Map.of("credits", String.valueOf(credits)));
+            case DEFEND -> get("/defend/" + target, session);
+            case RANK_UP -> get("/rank-up", session);
+            case SCOREBOARD -> get("/scoreboard", session);
+            case HISTORY -> get("/history", session);
+            case DARKNET -> get("/api/darknet", session);
+        };
+        HttpResponse<Void> response = send(request);
+        return response.statusCode() < 400 && !isRedirectTo(response, "/login");
+    }
+
+    private HttpRequest get(String path, String session) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(TIMEOUT)
+                .header("Cookie", session)
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, String session, Map<String, String> form) {
+        String body = form.entrySet().stream()
+                .map(field -> field.getKey() + "=" + URLEncoder.encode(field.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (session != null) {
+            request.header("Cookie", session);
+        }
+        return request.build();
+    }
+
+    private HttpResponse<Void> send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+    }
+
+    private static boolean isRedirectTo(HttpResponse<?> response, String path) {
+        return response.statusCode() / 100 == 3
+                && response.headers().firstValue("Location").map(location -> location.endsWith(path) || location.contains(path + "?")).orElse(false);
+    }
+}
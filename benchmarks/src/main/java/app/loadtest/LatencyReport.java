@@ -0,0 +1,129 @@
+package app.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Per-endpoint latency histograms and error counts. Recorders are wait-free, so recording from every
+// worker thread does not add contention of its own to the numbers being measured.
+public class LatencyReport {
+
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Map<Endpoint, Recorder> recorders = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, LongAdder> errors = new EnumMap<>(Endpoint.class);
+    private Map<Endpoint, Histogram> histograms;
+    private double seconds;
+
+    public LatencyReport() {
+        for (Endpoint endpoint : Endpoint.values()) {
+            recorders.put(endpoint, new Recorder(MAX_LATENCY_NANOS, 3));
+            errors.put(endpoint, new LongAdder());
+        }
+    }
+
+    public void record(Endpoint endpoint, long nanos, boolean ok) {
+        recorders.get(endpoint).recordValue(Math.min(nanos, MAX_LATENCY_NANOS));
+        if (!ok) {
+            errors.get(endpoint).increment();
+        }
+    }
+
+    // Drops everything recorded so far, used when the warmup ends
+    public void reset() {
+        recorders.values().forEach(Recorder::reset);
+        errors.values().forEach(LongAdder::reset);
+    }
+
+    public void finish(double measuredSeconds) {
+        seconds = measuredSeconds;
+        histograms = new EnumMap<>(Endpoint.class);
+        recorders.forEach((endpoint, recorder) -> histograms.put(endpoint, recorder.getIntervalHistogram()));
+    }
+
+    public void print() {
+        System.out.printf("%n%-12s %10s %10s %8s %10s %10s %10s %10s%n",
+                "endpoint", "requests", "req/s", "errors", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        summary().forEach((key, row) -> System.out.printf("%-12s %10d %10.1f %8d %10.2f %10.2f %10.2f %10.2f%n",
+                key, row.get("requests"), row.get("throughput"), row.get("errors"),
+                row.get("p50Millis"), row.get("p99Millis"), row.get("p999Millis"), row.get("maxMillis")));
+    }
+
+    // Throughput and p99 per endpoint, one column pair per run, for the --threading=compare runs
+    public static void printComparison(Map<String, LatencyReport> runs) {
+        StringBuilder header = new StringBuilder("%n%-12s".formatted("endpoint"));
+        runs.keySet().forEach(run -> header.append(" %16s %16s".formatted(run + " req/s", run + " p99 ms")));
+        System.out.println(header);
+        for (Endpoint endpoint : Endpoint.values()) {
+            StringBuilder row = new StringBuilder("%-12s".formatted(endpoint.getKey()));
+            boolean called = false;
+            for (LatencyReport report : runs.values()) {
+                Map<String, Object> summary = report.summary().get(endpoint.getKey());
+                if (summary != null) {
+                    called = true;
+                    row.append(" %16.1f %16.2f".formatted((double) summary.get("throughput"), (double) summary.get("p99Millis")));
+                } else {
+                    row.append(" %16s %16s".formatted("-", "-"));
+                }
+            }
+            if (called) {
+                System.out.println(row);
+            }
+        }
+    }
+
+    public void write(Path output) throws IOException {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("seconds", seconds);
+        result.put("endpoints", summary());
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output.toFile(), result);
+    }
+
+    public long totalRequests() {
+        return histograms.values().stream().mapToLong(Histogram::getTotalCount).sum();
+    }
+
+    public long totalErrors() {
+        return errors.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    public double p99Millis(Endpoint endpoint) {
+        return millis(histograms.get(endpoint).getValueAtPercentile(99));
+    }
+
+    private Map<String, Map<String, Object>> summary() {
+        Map<String, Map<String, Object>> summary = new LinkedHashMap<>();
+        histograms.forEach((endpoint, histogram) -> {
+            if (histogram.getTotalCount() == 0) {
+                return;
+            }
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("requests", histogram.getTotalCount());
+            row.put("throughput", histogram.getTotalCount() / seconds);
+            row.put("errors", errors.get(endpoint).sum());
+            row.put("p50Millis", millis(histogram.getValueAtPercentile(50)));
+            row.put("p99Millis", millis(histogram.getValueAtPercentile(99)));
+            row.put("p999Millis", millis(histogram.getValueAtPercentile(99.9)));
+            row.put("maxMillis", millis(histogram.getMaxValue()));
+            summary.put(endpoint.getKey(), row);
+        });
+        return summary;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
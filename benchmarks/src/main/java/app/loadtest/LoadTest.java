@@ -0,0 +1,202 @@
+package app.loadtest;
+
+import app.Application;
+import app.credit.model.Credits;
+import app.scoreboard.service.ScoreboardService;
+import app.user.model.User;
+import app.user.repository.UserRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Starts the whole application on a random port, registers and logs in players through the real
+// controllers, then has a fixed pool of workers replay the endpoint mix back to back for the configured
+// duration. Each worker waits for its response before sending the next request (closed loop), so the
+// latencies are per request and throughput is what the app sustained for that many concurrent players.
+public class LoadTest {
+
+    private static final String PASSWORD = "password";
+    private static final Credits STARTING_CREDITS = Credits.of(1000);
+
+    private record Player(UUID id, String session) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        boolean passed = true;
+        Map<String, LatencyReport> reports = new LinkedHashMap<>();
+
+        for (String threading : options.getThreading()) {
+            Path output = options.getThreading().size() == 1 ? options.getOutput() : withSuffix(options.getOutput(), threading);
+            LatencyReport report = runApp(options, threading, output);
+            reports.put(threading, report);
+            passed &= passes(report, options);
+        }
+        if (reports.size() > 1) {
+            LatencyReport.printComparison(reports);
+        }
+        // Non-zero exit fails the build step that ran the load test, which is what makes it usable as a gate
+        System.exit(passed ? 0 : 1);
+    }
+
+    // One complete run against a freshly started app; the client side is the same for every threading mode
+    private static LatencyReport runApp(LoadTestOptions options, String threading, Path output) throws Exception {
+        System.out.printf("Running with %s threads%n", threading);
+        try (ChatServiceStub chat = new ChatServiceStub();
+             ConfigurableApplicationContext context = start(options, chat, threading)) {
+
+            GameClient client = new GameClient(((WebServerApplicationContext) context).getWebServer().getPort());
+            ExecutorService workers = Executors.newFixedThreadPool(options.getThreads());
+            try {
+                List<Player> players = setUpPlayers(context, client, workers, options.getPlayers());
+                LatencyReport report = run(client, workers, players, options);
+                report.print();
+                report.write(output);
+                System.out.println("Results written to " + output.toAbsolutePath());
+                return report;
+            } finally {
+                workers.shutdownNow();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext start(LoadTestOptions options, ChatServiceStub chat, String threading) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--app.chat.url=" + chat.getUrl(),
+                "--spring.threads.virtual.enabled=" + LoadTestOptions.VIRTUAL.equals(threading),
+                "--logging.level.root=WARN"));
+        if (options.getAppArgs().stream().noneMatch(arg -> arg.startsWith("--spring.datasource.url="))) {
+            args.addAll(List.of(
+                    "--spring.datasource.url=jdbc:h2:mem:loadtest-" + threading + ";MODE=MYSQL;DB_CLOSE_DELAY=-1",
+                    "--spring.datasource.driver-class-name=org.h2.Driver",
+                    "--spring.datasource.username=sa",
+                    "--spring.datasource.password=",
+                    "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"));
+        }
+        // Later arguments win, so anything given on the command line overrides the defaults above
+        args.addAll(options.getAppArgs());
+        return new SpringApplicationBuilder(Application.class).run(args.toArray(String[]::new));
+    }
+
+    // target/loadtest-result.json -> target/loadtest-result-virtual.json
+    private static Path withSuffix(Path output, String suffix) {
+        String name = output.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String renamed = dot < 0 ? name + "-" + suffix : name.substring(0, dot) + "-" + suffix + name.substring(dot);
+        return output.resolveSibling(renamed);
+    }
+
+    // Registration and login go through the web layer; only the starting credits are handed out directly,
+    // since the game has no endpoint for that
+    private static List<Player> setUpPlayers(ConfigurableApplicationContext context, GameClient client,
+                                             ExecutorService workers, int count) throws Exception {
+        String prefix = "load" + Long.toString(System.currentTimeMillis(), 36);
+        List<Future<String>> sessions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String username = prefix + i;
+            sessions.add(workers.submit(() -> {
+                client.register(username, PASSWORD);
+                return client.login(username, PASSWORD);
+            }));
+        }
+
+        List<String> cookies = new ArrayList<>(count);
+        for (Future<String> session : sessions) {
+            cookies.add(session.get());
+        }
+
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        new TransactionTemplate(context.getBean(PlatformTransactionManager.class))
+                .executeWithoutResult(status -> userRepository.creditAll(STARTING_CREDITS));
+        context.getBean(ScoreboardService.class).reload();
+
+        List<Player> players = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = userRepository.findByUsername(prefix + i).orElseThrow();
+            players.add(new Player(user.getId(), cookies.get(i)));
+        }
+        System.out.printf("Registered and logged in %d players%n", count);
+        return players;
+    }
+
+    private static LatencyReport run(GameClient client, ExecutorService workers, List<Player> players,
+                                     LoadTestOptions options) throws Exception {
+        Endpoint[] weighted = options.getMix().entrySet().stream()
+                .flatMap(entry -> Collections.nCopies(entry.getValue(), entry.getKey()).stream())
+                .toArray(Endpoint[]::new);
+        LatencyReport report = new LatencyReport();
+
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(options.getWarmupSeconds());
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(options.getDurationSeconds());
+
+        List<Future<?>> running = new ArrayList<>();
+        for (int t = 0; t < options.getThreads(); t++) {
+            running.add(workers.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < end) {
+                    Endpoint endpoint = weighted[random.nextInt(weighted.length)];
+                    Player player = players.get(random.nextInt(players.size()));
+                    Player target = players.get(random.nextInt(players.size()));
+                    if (target == player) {
+                        continue;
+                    }
+                    long sent = System.nanoTime();
+                    boolean ok;
+                    try {
+                        ok = client.call(endpoint, player.session(), target.id(), random.nextInt(1, 51));
+                    } catch (IOException e) {
+                        ok = false;
+                    }
+                    report.record(endpoint, System.nanoTime() - sent, ok);
+                }
+                return null;
+            }));
+        }
+
+        TimeUnit.NANOSECONDS.sleep(measureFrom - System.nanoTime());
+        report.reset();
+        System.out.printf("Warmup done, measuring for %d s%n", options.getDurationSeconds());
+        for (Future<?> worker : running) {
+            worker.get();
+        }
+        report.finish((System.nanoTime() - measureFrom) / 1e9);
+        return report;
+    }
+
+    private static boolean passes(LatencyReport report, LoadTestOptions options) {
+        boolean passes = true;
+        double errorRate = report.totalRequests() == 0 ? 1 : (double) report.totalErrors() / report.totalRequests();
+        if (errorRate > options.getMaxErrorRate()) {
+            System.out.printf("FAIL: error rate %.2f%% is above %.2f%%%n", errorRate * 100, options.getMaxErrorRate() * 100);
+            passes = false;
+        }
+        if (options.getMaxP99Millis() > 0) {
+            for (Map.Entry<Endpoint, Integer> entry : options.getMix().entrySet()) {
+                double p99 = report.p99Millis(entry.getKey());
+                if (p99 > options.getMaxP99Millis()) {
+                    System.out.printf("FAIL: %s p99 %.2f ms is above %d ms%n", entry.getKey().getKey(), p99, options.getMaxP99Millis());
+                    passes = false;
+                }
+            }
+        }
+        return passes;
+    }
+}
@@ -0,0 +1,122 @@
+package app.loadtest;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// Command line options. Anything starting with --spring., --app., --server. or --logging. is passed on to
+// the embedded application, e.g. --spring.datasource.url=jdbc:postgresql://localhost/hackers to run on Postgres.
+public class LoadTestOptions {
+
+    public static final String PLATFORM = "platform";
+    public static final String VIRTUAL = "virtual";
+
+    private static final List<String> APP_PREFIXES = List.of("--spring.", "--app.", "--server.", "--logging.");
+
+    private int players = 100;
+    private int threads = 16;
+    private int warmupSeconds = 10;
+    private int durationSeconds = 60;
+    private Map<Endpoint, Integer> mix = parseMix("hack:40,defend:5,rank-up:5,scoreboard:20,history:20,darknet:10");
+    private long maxP99Millis;
+    private double maxErrorRate = 0.01;
+    private Path output = Path.of("target", "loadtest-result.json");
+    private List<String> threading = List.of(PLATFORM);
+    private final List<String> appArgs = new ArrayList<>();
+
+    public static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            if (APP_PREFIXES.stream().anyMatch(arg::startsWith)) {
+                options.appArgs.add(arg);
+                continue;
+            }
+            String[] pair = arg.split("=", 2);
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected --name=value but got [%s]".formatted(arg));
+            }
+            String value = pair[1];
+            switch (pair[0]) {
+                case "--players" -> options.players = Integer.parseInt(value);
+                case "--threads" -> options.threads = Integer.parseInt(value);
+                case "--warmup" -> options.warmupSeconds = Integer.parseInt(value);
+                case "--duration" -> options.durationSeconds = Integer.parseInt(value);
+                case "--mix" -> options.mix = parseMix(value);
+                case "--max-p99-ms" -> options.maxP99Millis = Long.parseLong(value);
+                case "--max-error-rate" -> options.maxErrorRate = Double.parseDouble(value);
+                case "--output" -> options.output = Path.of(value);
+                case "--threading" -> options.threading = parseThreading(value);
+                default -> throw new IllegalArgumentException("Unknown option [%s]".formatted(pair[0]));
+            }
+        }
+        if (options.players < 2) {
+            throw new IllegalArgumentException("At least two players are needed for anyone to have a target.");
+        }
+        if (options.threading.contains(VIRTUAL) && Runtime.version().feature() < 21) {
+            throw new IllegalArgumentException("Virtual threads need Java 21 or newer, this is Java %d.".formatted(Runtime.version().feature()));
+        }
+        return options;
+    }
+
+    // "platform" or "virtual" runs the app once in that mode; "compare" runs it once in each, one after the other
+    private static List<String> parseThreading(String value) {
+        return switch (value) {
+            case PLATFORM -> List.of(PLATFORM);
+            case VIRTUAL -> List.of(VIRTUAL);
+            case "compare" -> List.of(PLATFORM, VIRTUAL);
+            default -> throw new IllegalArgumentException("Expected platform, virtual or compare but got [%s]".formatted(value));
+        };
+    }
+
+    // "hack:40,scoreboard:20" - relative weights, endpoints left out are not called
+    private static Map<Endpoint, Integer> parseMix(String value) {
+        Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+        for (String entry : value.split(",")) {
+            String[] pair = entry.trim().split(":");
+            mix.put(Endpoint.fromKey(pair[0]), Integer.parseInt(pair[1]));
+        }
+        return mix;
+    }
+
+    public int getPlayers() {
+        return players;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getWarmupSeconds() {
+        return warmupSeconds;
+    }
+
+    public int getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public Map<Endpoint, Integer> getMix() {
+        return mix;
+    }
+
+    public long getMaxP99Millis() {
+        return maxP99Millis;
+    }
+
+    public double getMaxErrorRate() {
+        return maxErrorRate;
+    }
+
+    public Path getOutput() {
+        return output;
+    }
+
+    public List<String> getThreading() {
+        return threading;
+    }
+
+    public List<String> getAppArgs() {
+        return appArgs;
+    }
+}
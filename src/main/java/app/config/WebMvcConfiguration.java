@@ -1,56 +0,0 @@
-package app.config;
-
-import app.user.service.UserService;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.context.annotation.Lazy;
-import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
-import org.springframework.security.config.annotation.web.builders.HttpSecurity;
-import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
-import org.springframework.security.web.SecurityFilterChain;
-import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
-import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
-
-@Configuration
-@EnableMethodSecurity
-public class WebMvcConfiguration implements WebMvcConfigurer {
-
-    @Autowired
-    private  UserService userService;
-
-
-    @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
-
-//         authorizeHttpRequests - конфиг. за група от ендпойнти
-//         requestMatchers - достъп до даден ендпойнт
-//         .permitAll() - всеки може да достъпи този ендпойнт
-//         .anyRequest() - всички заявки, които не съм изброил
-//         .authenticated() - за да имаш достъп, трябва да си аутентикиран
-        http
-                .csrf(AbstractHttpConfigurer::disable)
-                .authorizeHttpRequests(matchers -> matchers
-                        .requestMatchers(PathRequest.toStaticResources().atCommonLocations()).permitAll()
-                        .requestMatchers("/", "/register", "/forgot-password").permitAll()
-                        .anyRequest().authenticated()
-                )
-                .formLogin(form -> form
-                        .loginPage("/login")
-                        .defaultSuccessUrl("/home", true)
-                        .failureUrl("/login?error")
-                        .permitAll()
-                )
-                .logout(logout -> logout
-                        .logoutRequestMatcher(new AntPathRequestMatcher("/logout", "GET"))
-                        .logoutSuccessHandler((request, response, authentication) -> {
-                            userService.logoutUser();
-                            response.sendRedirect("/");
-                        })
-                );
-
-
-        return http.build();
-    }
-}
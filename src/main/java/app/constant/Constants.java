@@ -1,8 +0,0 @@
-package app.constant;
-
-public class Constants {
-    public static final Double OFFENSE_UPGRADE_MULTIPLER = 1.5;
-    public static final Double OFFENSE_UPGRADE_PRICE = 250.00;
-    public static final Double DEFENSE_UPGRADE_PRICE = 200.00;
-    public static final Double DAILY_BONUS = 5.0;
-}
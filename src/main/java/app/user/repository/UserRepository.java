@@ -1,20 +0,0 @@
-package app.user.repository;
-
-import app.user.model.User;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.stereotype.Repository;
-
-import java.util.List;
-import java.util.Optional;
-import java.util.UUID;
-
-@Repository
-public interface UserRepository extends JpaRepository<User, UUID> {
-
-    Optional<User> findByUsername(String username);
-
-    User getUsersByUsername(String username);
-
-    List<User> findAllByisActiveTrueOrderByUserRankDesc();
-    List<User> findAllByisActiveTrue();
-}